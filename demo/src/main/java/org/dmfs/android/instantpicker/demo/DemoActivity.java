@@ -28,7 +28,7 @@ public class DemoActivity extends AppCompatActivity implements OnDateTimeSetList
 	public void pickDate(View v)
 	{
 		InstantPickerDialog picker = new InstantPickerDialog.Builder(mPickedDate == null ? DateTime.today() : mPickedDate)
-			.setEventProviderFactories(WeekendProviderFactory.SUNDAY_WEEKEND_PROVIDER_FACTORY)//.setDefaultTimezone(TimeZone.getTimeZone("America/New_York"))
+			.setEventProviderFactories(WeekendProviderFactory.LOCALE_WEEKEND_PROVIDER_FACTORY)//.setDefaultTimezone(TimeZone.getTimeZone("America/New_York"))
 			.build();
 		picker.show(getSupportFragmentManager(), "");
 	}
@@ -5,12 +5,15 @@ import android.content.Context;
 import android.content.res.TypedArray;
 import android.os.Build;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.v4.app.DialogFragment;
 import android.support.v4.content.ContextCompat;
 import android.support.v4.view.ViewCompat;
 import android.text.format.DateFormat;
+import android.util.Log;
 import android.util.TypedValue;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -22,18 +25,27 @@ import android.widget.ViewAnimator;
 
 import org.dmfs.android.instantpicker.date.AccessibleDateAnimator;
 import org.dmfs.android.instantpicker.date.DateDisplay;
+import org.dmfs.android.instantpicker.date.DatePicker;
 import org.dmfs.android.instantpicker.date.SimpleDatePicker;
 import org.dmfs.android.instantpicker.date.YearDisplay;
 import org.dmfs.android.instantpicker.date.YearPicker;
+import org.dmfs.android.instantpicker.events.DayMask;
+import org.dmfs.android.instantpicker.events.DisabledDays;
 import org.dmfs.android.instantpicker.events.Event;
+import org.dmfs.android.instantpicker.events.EventMaskCache;
 import org.dmfs.android.instantpicker.events.EventProviderFactory;
 import org.dmfs.android.instantpicker.events.EventsProvider;
+import org.dmfs.android.instantpicker.events.EventsProviderMetrics;
+import org.dmfs.android.instantpicker.events.EventsProviderRegistry;
+import org.dmfs.android.instantpicker.events.PackedDay;
+import org.dmfs.android.instantpicker.events.TimedEventsProvider;
 import org.dmfs.android.instantpicker.time.RadialTimePicker;
 import org.dmfs.android.instantpicker.time.TimeDisplay;
 import org.dmfs.rfc5545.DateTime;
 import org.dmfs.rfc5545.Weekday;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.List;
@@ -44,21 +56,24 @@ import java.util.TimeZone;
  * Created by marten on 12.12.15.
  */
 public final class InstantPickerDialog extends DialogFragment
-        implements DateTimePicker.OnPickerStateChangeListener, OnDateTimeSetListener, View.OnClickListener, PickerContext
+        implements DateTimePicker.OnPickerStateChangeListener, OnDateTimeSetListener, View.OnClickListener, PickerContext, EventsProvider.OnLoadListener,
+        TimedEventsProvider.OnSlowCallListener
 {
     private static final int ANIMATION_DURATION = 300;
 
-    private final static String ARG_EVENT_PROVIDER_FACTORIES = "event_provider_factories";
+    private final static String TAG = "InstantPickerDialog";
+
+    private final static String ARG_ARGUMENTS = "arguments";
     private final static String ARG_INITIAL_TIMESTAMP = "initial_timestamp";
     private final static String ARG_INITIAL_TIMEZONE = "initial_timezone";
     private final static String ARG_INITIAL_ALLDAY = "initial_allday";
-    private final static String ARG_INITIAL_PICKER = "initial_picker";
-    private final static String ARG_ALLOW_ALLDAY = "allow_allday";
-    private final static String ARG_USE_24_HOURS = "use_24_hours";
-    private final static String ARG_DEFAULT_TIMEZONE = "default_timezone";
-    private final static String ARG_FIRST_DAY_OF_WEEK = "first_day_of_week";
     private final static String ARG_CURRENT_PICKER = "current_picker";
 
+    /**
+     * The default number of months to keep in the event cache.
+     */
+    public final static int DEFAULT_EVENT_CACHE_SIZE = 60;
+
     private boolean mAllowAllDay;
     private boolean mUse24Hours;
     private Weekday mFirstDayOfWeek;
@@ -70,13 +85,35 @@ public final class InstantPickerDialog extends DialogFragment
     private View mDialogView;
     private ViewAnimator mAnimator;
     private DateTimePicker mYearPicker;
-    private DateTimePicker mTimePicker;
-    private DateTimePicker mDatePicker;
+    private RadialTimePicker mTimePicker;
+    private DatePicker mDatePicker;
 
     private DateTime mCurrentDateTime;
 
     private List<DateTimePicker> mDateTimePickers = new ArrayList<DateTimePicker>(8);
     private EventsProvider[] mEventProviders;
+    private boolean mShareEventProviders;
+    private EventMaskCache mEventMaskCache;
+    private int mEventDensity;
+    private int mMonthBitmapCacheBytes;
+    private DisabledDays[] mDisabledDays;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * Drops all cached events and refreshes the bound months, used after a provider has been skipped.
+     */
+    private final Runnable mDropEventsRunnable = new Runnable()
+    {
+        @Override
+        public void run()
+        {
+            mEventMaskCache.clear();
+            if (mDatePicker != null)
+            {
+                mDatePicker.refreshEvents();
+            }
+        }
+    };
 
     private DateTimePicker.EditorComponent mEditorComponent;
 
@@ -86,64 +123,57 @@ public final class InstantPickerDialog extends DialogFragment
     {
         super.onCreate(savedInstanceState);
 
-        init(getArguments());
+        init((PickerArguments) getArguments().getParcelable(ARG_ARGUMENTS));
 
         if (savedInstanceState != null)
         {
-            if (savedInstanceState.getBoolean(ARG_INITIAL_ALLDAY, false))
-            {
-                mCurrentDateTime = new DateTime(savedInstanceState.getLong(ARG_INITIAL_TIMESTAMP)).toAllDay();
-            }
-            else
-            {
-                mCurrentDateTime = new DateTime((TimeZone) savedInstanceState.getSerializable(ARG_INITIAL_TIMEZONE),
-                        savedInstanceState.getLong(ARG_INITIAL_TIMESTAMP));
-            }
+            mCurrentDateTime = PickerArguments.dateTime(savedInstanceState.getLong(ARG_INITIAL_TIMESTAMP),
+                    savedInstanceState.getBoolean(ARG_INITIAL_ALLDAY, false), savedInstanceState.getString(ARG_INITIAL_TIMEZONE));
 
-            mEditorComponent = (DateTimePicker.EditorComponent) savedInstanceState.getSerializable(ARG_CURRENT_PICKER);
+            int editorComponent = savedInstanceState.getInt(ARG_CURRENT_PICKER, -1);
+            mEditorComponent = editorComponent < 0 ? null : DateTimePicker.EditorComponent.values()[editorComponent];
         }
     }
 
 
-    private void init(Bundle args)
+    private void init(PickerArguments args)
     {
-        if (args.getBoolean(ARG_INITIAL_ALLDAY, false))
-        {
-            mCurrentDateTime = new DateTime(args.getLong(ARG_INITIAL_TIMESTAMP)).toAllDay();
-        }
-        else
-        {
-            mCurrentDateTime = new DateTime((TimeZone) args.getSerializable(ARG_INITIAL_TIMEZONE), args.getLong(ARG_INITIAL_TIMESTAMP));
-        }
+        mCurrentDateTime = args.initialDate();
 
-        mAllowAllDay = args.getBoolean(ARG_ALLOW_ALLDAY, true);
-        mUse24Hours = args.getBoolean(ARG_USE_24_HOURS, DateFormat.is24HourFormat(getContext()));
-        if (args.containsKey(ARG_FIRST_DAY_OF_WEEK))
-        {
-            mFirstDayOfWeek = (Weekday) args.getSerializable(ARG_FIRST_DAY_OF_WEEK);
-        }
-        else
+        mAllowAllDay = args.allowAllDay();
+        mUse24Hours = args.use24Hours(DateFormat.is24HourFormat(getContext()));
+        mFirstDayOfWeek = args.firstDayOfWeek();
+        if (mFirstDayOfWeek == null)
         {
             mFirstDayOfWeek = Weekday.values()[Calendar.getInstance().getFirstDayOfWeek() - 1];
         }
-        if (args.containsKey(ARG_INITIAL_PICKER))
-        {
-            mInitialEditor = (DateTimePicker.EditorComponent) args.getSerializable(ARG_INITIAL_PICKER);
-        }
-        if (args.containsKey(ARG_DEFAULT_TIMEZONE))
+        if (args.initialPicker() != null)
         {
-            mDefaultTimeZone = (TimeZone) args.getSerializable(ARG_DEFAULT_TIMEZONE);
+            mInitialEditor = args.initialPicker();
         }
+        mDefaultTimeZone = args.defaultTimeZone();
+
+        mEventMaskCache = new EventMaskCache(args.eventCacheSize());
+        mEventDensity = args.eventDensity();
+        mMonthBitmapCacheBytes = args.monthBitmapCacheBytes();
+        mDisabledDays = args.disabledDays();
 
-        if (args.containsKey(ARG_EVENT_PROVIDER_FACTORIES))
+        if (args.eventProviderFactories() != null)
         {
             Context context = getContext();
-            EventProviderFactory[] factories = (EventProviderFactory[]) args.getSerializable(ARG_EVENT_PROVIDER_FACTORIES);
+            EventProviderFactory[] factories = args.eventProviderFactories();
 
+            mShareEventProviders = args.shareEventProviders();
             mEventProviders = new EventsProvider[factories.length];
             for (int i = 0, count = factories.length; i < count; ++i)
             {
-                mEventProviders[i] = factories[i].create(context);
+                mEventProviders[i] = mShareEventProviders ? EventsProviderRegistry.acquire(context, factories[i]) : factories[i].create(context);
+                if (args.measureEventProviders())
+                {
+                    mEventProviders[i] = new TimedEventsProvider(mEventProviders[i], factories[i].getClass().getName(), args.eventProviderBudgetNanos(),
+                            args.skipSlowEventProviders(), this);
+                }
+                mEventProviders[i].setOnLoadListener(this);
             }
         }
     }
@@ -206,7 +236,7 @@ public final class InstantPickerDialog extends DialogFragment
     }
 
 
-    private DateTimePicker initPicker(DateTimePicker picker)
+    private <T extends DateTimePicker> T initPicker(T picker)
     {
         picker.setPickerContext(this);
         picker.setDateTime(mCurrentDateTime);
@@ -217,14 +247,45 @@ public final class InstantPickerDialog extends DialogFragment
     }
 
 
+    @Override
+    public void onDestroyView()
+    {
+        super.onDestroyView();
+        mDatePicker = null;
+    }
+
+
+    @Override
+    public void onDestroy()
+    {
+        super.onDestroy();
+        mHandler.removeCallbacks(mDropEventsRunnable);
+        if (mEventProviders != null)
+        {
+            for (EventsProvider provider : mEventProviders)
+            {
+                provider.setOnLoadListener(null);
+                if (mShareEventProviders)
+                {
+                    EventsProviderRegistry.release(provider instanceof TimedEventsProvider ? ((TimedEventsProvider) provider).delegate() : provider);
+                }
+                else
+                {
+                    provider.close();
+                }
+            }
+        }
+    }
+
+
     @Override
     public void onSaveInstanceState(Bundle outState)
     {
         super.onSaveInstanceState(outState);
         outState.putLong(ARG_INITIAL_TIMESTAMP, mCurrentDateTime.getTimestamp());
         outState.putBoolean(ARG_INITIAL_ALLDAY, mCurrentDateTime.isAllDay());
-        outState.putSerializable(ARG_INITIAL_TIMEZONE, mCurrentDateTime.getTimeZone());
-        outState.putSerializable(ARG_CURRENT_PICKER, mEditorComponent);
+        outState.putString(ARG_INITIAL_TIMEZONE, mCurrentDateTime.getTimeZone() == null ? null : mCurrentDateTime.getTimeZone().getID());
+        outState.putInt(ARG_CURRENT_PICKER, mEditorComponent == null ? -1 : mEditorComponent.ordinal());
     }
 
 
@@ -352,19 +413,164 @@ public final class InstantPickerDialog extends DialogFragment
 
     @Override
     public boolean hasEvents(DateTime date)
+    {
+        return hasEvents(PackedDay.of(date));
+    }
+
+
+    @Override
+    public boolean hasEvents(int packedDay)
     {
         if (mEventProviders == null || mEventProviders.length == 0)
         {
             return false;
         }
+        return DayMask.contains(eventMask(PackedDay.year(packedDay), PackedDay.month(packedDay)), PackedDay.dayOfMonth(packedDay));
+    }
+
+
+    @Override
+    public int eventMask(int year, int month)
+    {
+        if (mEventProviders == null || mEventProviders.length == 0)
+        {
+            return DayMask.NONE;
+        }
+
+        int mask = mEventMaskCache.get(year, month);
+        if (DayMask.isKnown(mask))
+        {
+            return mask;
+        }
+
+        mask = DayMask.NONE;
+        for (EventsProvider provider : mEventProviders)
+        {
+            mask |= provider.eventMask(year, month);
+        }
+        // note, this won't cache incomplete masks
+        mEventMaskCache.put(year, month, mask);
+        return mask;
+    }
+
+
+    @Override
+    public void prefetchEvents(int year, int month)
+    {
+        if (mEventProviders == null || mEventMaskCache.contains(year, month))
+        {
+            return;
+        }
+        for (EventsProvider provider : mEventProviders)
+        {
+            provider.prefetch(year, month);
+        }
+    }
+
+
+    @Override
+    public void retainEventsBetween(int fromPackedDay, int toPackedDay)
+    {
+        if (mEventProviders == null)
+        {
+            return;
+        }
+        for (EventsProvider provider : mEventProviders)
+        {
+            provider.retainWindow(fromPackedDay, toPackedDay);
+        }
+    }
+
+
+    @Override
+    public int eventDensity()
+    {
+        return mEventDensity;
+    }
+
+
+    @Override
+    public void eventCounts(int year, int month, int[] counts)
+    {
+        Arrays.fill(counts, 0);
+        if (mEventProviders == null)
+        {
+            return;
+        }
+        for (EventsProvider provider : mEventProviders)
+        {
+            provider.addEventCounts(year, month, counts);
+        }
+    }
+
+
+    @Override
+    public int selectableDays(int year, int month)
+    {
+        int result = DayMask.between(year, month, mMinDate == null ? Integer.MIN_VALUE : PackedDay.of(mMinDate),
+                mMaxDate == null ? Integer.MAX_VALUE : PackedDay.of(mMaxDate));
+        if (mDisabledDays != null)
+        {
+            for (int i = 0, count = mDisabledDays.length; i < count && result != DayMask.NONE; ++i)
+            {
+                result &= ~mDisabledDays[i].disabledDays(year, month);
+            }
+        }
+        return result;
+    }
+
+
+    @Override
+    public int monthBitmapCacheBytes()
+    {
+        return mMonthBitmapCacheBytes;
+    }
+
+
+    @Override
+    public int eventIndicators(int year, int month, int[] colors, int[] masks)
+    {
+        if (mEventProviders == null)
+        {
+            return 0;
+        }
+        int count = 0;
         for (EventsProvider provider : mEventProviders)
         {
-            if (provider.hasEventsOn(date))
+            int mask = provider.eventMask(year, month) & DayMask.ALL;
+            if (mask == DayMask.NONE)
+            {
+                continue;
+            }
+            int color = provider.indicatorColor();
+            int category = 0;
+            while (category < count && colors[category] != color)
             {
-                return true;
+                ++category;
             }
+            if (category == count)
+            {
+                if (count == colors.length)
+                {
+                    continue;
+                }
+                colors[count] = color;
+                masks[count++] = DayMask.NONE;
+            }
+            masks[category] |= mask;
         }
-        return false;
+        return count;
+    }
+
+
+    /**
+     * Returns the {@link EventMaskCache} that holds the merged events of all {@link EventsProvider}s. This is mostly useful to inspect the cache statistics.
+     *
+     * @return The {@link EventMaskCache} of this dialog.
+     */
+    public EventMaskCache eventMaskCache()
+    {
+        return mEventMaskCache;
     }
 
 
@@ -376,12 +582,122 @@ public final class InstantPickerDialog extends DialogFragment
             return Collections.emptyList();
         }
         List<Event> events = new ArrayList<Event>(8);
+        appendEvents(date, events);
+        return events;
+    }
+
+
+    @Override
+    public void appendEvents(DateTime date, List<Event> events)
+    {
+        if (mEventProviders == null)
+        {
+            return;
+        }
         for (EventsProvider provider : mEventProviders)
         {
             provider.appendEventsTo(date, events);
         }
+    }
 
-        return events;
+
+    /**
+     * Returns the {@link EventsProviderMetrics} of all {@link EventsProvider}s. This returns an empty list unless measuring has been enabled with {@link
+     * Builder#measureEventProviders(boolean)} or {@link Builder#setEventProviderBudget(long, boolean)}.
+     *
+     * @return A {@link List} of {@link EventsProviderMetrics} snapshots.
+     */
+    public List<EventsProviderMetrics> eventProviderMetrics()
+    {
+        if (mEventProviders == null)
+        {
+            return Collections.emptyList();
+        }
+        List<EventsProviderMetrics> result = new ArrayList<>(mEventProviders.length);
+        for (EventsProvider provider : mEventProviders)
+        {
+            if (provider instanceof TimedEventsProvider)
+            {
+                result.add(((TimedEventsProvider) provider).metrics());
+            }
+        }
+        return result;
+    }
+
+
+    @Override
+    public void onSlowCall(TimedEventsProvider provider, long nanos)
+    {
+        // with skipping disabled this is called on every slow bind, only log the first one of each provider
+        if (provider.slowCallCount() == 1)
+        {
+            Log.w(TAG, "Slow EventsProvider " + provider.metrics());
+        }
+
+        if (provider.isSkipped())
+        {
+            // the events of the provider are still in the cache and on the bound months, drop them once the current call returned
+            mHandler.post(mDropEventsRunnable);
+        }
+
+        OnSlowEventsProviderListener listener = null;
+        if (getParentFragment() instanceof OnSlowEventsProviderListener)
+        {
+            listener = (OnSlowEventsProviderListener) getParentFragment();
+        }
+        else if (getActivity() instanceof OnSlowEventsProviderListener)
+        {
+            listener = (OnSlowEventsProviderListener) getActivity();
+        }
+        if (listener != null)
+        {
+            listener.onSlowEventsProvider(provider.metrics(), nanos);
+        }
+    }
+
+
+    @Override
+    public void onLoad(EventsProvider provider)
+    {
+        mEventMaskCache.clear();
+        if (mDatePicker != null)
+        {
+            mDatePicker.refreshEvents();
+        }
+        if (mTimePicker != null)
+        {
+            mTimePicker.refreshEvents();
+        }
+    }
+
+
+    @Override
+    public void onLoad(EventsProvider provider, int year, int month)
+    {
+        mEventMaskCache.remove(year, month);
+        if (mDatePicker != null)
+        {
+            mDatePicker.refreshEvents(year, month);
+        }
+        if (mTimePicker != null)
+        {
+            mTimePicker.refreshEventsBetween(PackedDay.firstOfMonth(year, month), PackedDay.lastOfMonth(year, month));
+        }
+    }
+
+
+    @Override
+    public void onEventsChanged(EventsProvider provider, int fromPackedDay, int toPackedDay)
+    {
+        mEventMaskCache.removeRange(fromPackedDay, toPackedDay);
+        if (mDatePicker != null)
+        {
+            mDatePicker.refreshEventsBetween(fromPackedDay, toPackedDay);
+        }
+        if (mTimePicker != null)
+        {
+            mTimePicker.refreshEventsBetween(fromPackedDay, toPackedDay);
+        }
     }
 
 
@@ -403,6 +719,14 @@ public final class InstantPickerDialog extends DialogFragment
         private boolean mAllowAllDay;
         private Boolean mUse24Hours = null;
         private EventProviderFactory[] mEventProviderFactories;
+        private int mEventCacheSize = DEFAULT_EVENT_CACHE_SIZE;
+        private boolean mShareEventProviders;
+        private boolean mMeasureEventProviders;
+        private long mEventProviderBudgetNanos;
+        private boolean mSkipSlowEventProviders;
+        private int mEventDensity = EVENT_DENSITY_NONE;
+        private int mMonthBitmapCacheBytes;
+        private DisabledDays[] mDisabledDays;
 
 
         /**
@@ -493,42 +817,140 @@ public final class InstantPickerDialog extends DialogFragment
         }
 
 
-        public Builder setFirstDayOfWeek(Weekday firstDayOfWeek)
+        /**
+         * Set the number of months to keep in the event cache. Defaults to {@link #DEFAULT_EVENT_CACHE_SIZE}. Set to {@code 0} to disable caching, in which
+         * case the {@link EventsProvider}s are queried whenever a month is shown.
+         *
+         * @param months
+         *         The maximum number of months in the cache.
+         */
+        public Builder setEventCacheSize(int months)
         {
-            mFirstDayOfWeek = firstDayOfWeek;
+            if (months < 0)
+            {
+                throw new IllegalArgumentException("The cache size must not be negative");
+            }
+            mEventCacheSize = months;
             return this;
         }
 
 
-        public InstantPickerDialog build()
+        /**
+         * Set whether the {@link EventsProvider}s should be taken from the application wide {@link EventsProviderRegistry}. Shared providers survive
+         * configuration changes and are reused when the dialog is opened again, so events don't have to be loaded again. Defaults to {@code false}.
+         * <p>
+         * Note, the {@link EventProviderFactory}s should implement {@link Object#equals(Object)} to be shared, all built-in factories do.
+         *
+         * @param shareEventProviders
+         *         {@code true} to share providers.
+         */
+        public Builder shareEventProviders(boolean shareEventProviders)
         {
-            Bundle args = new Bundle();
+            mShareEventProviders = shareEventProviders;
+            return this;
+        }
 
-            args.putLong(ARG_INITIAL_TIMESTAMP, mInitialDate.getTimestamp());
-            args.putBoolean(ARG_INITIAL_ALLDAY, mInitialDate.isAllDay());
-            args.putSerializable(ARG_INITIAL_TIMEZONE, mInitialDate.getTimeZone());
 
-            args.putBoolean(ARG_ALLOW_ALLDAY, mAllowAllDay);
-            if (mUse24Hours != null)
-            {
-                args.putBoolean(ARG_USE_24_HOURS, mUse24Hours);
-            }
-            if (mFirstDayOfWeek != null)
+        /**
+         * Set whether the calls to the {@link EventsProvider}s should be measured. The results can be retrieved with {@link
+         * InstantPickerDialog#eventProviderMetrics()}. Defaults to {@code false}.
+         *
+         * @param measureEventProviders
+         *         {@code true} to measure the providers.
+         */
+        public Builder measureEventProviders(boolean measureEventProviders)
+        {
+            mMeasureEventProviders = measureEventProviders;
+            return this;
+        }
+
+
+        /**
+         * Set the maximum time a single call to an {@link EventsProvider} may take on the UI thread. Slow calls are logged and reported to an {@link
+         * OnSlowEventsProviderListener} parent fragment or activity. This implies {@link #measureEventProviders(boolean)}.
+         *
+         * @param budgetMicros
+         *         The budget in microseconds, {@code 0} for no budget.
+         * @param skipSlowProviders
+         *         Whether to ignore a provider for the rest of the dialog's life once it exceeded the budget.
+         */
+        public Builder setEventProviderBudget(long budgetMicros, boolean skipSlowProviders)
+        {
+            if (budgetMicros < 0)
             {
-                args.putSerializable(ARG_FIRST_DAY_OF_WEEK, mFirstDayOfWeek);
+                throw new IllegalArgumentException("The budget must not be negative");
             }
-            if (mInitialPicker != null)
+            mEventProviderBudgetNanos = budgetMicros * 1000;
+            mSkipSlowEventProviders = skipSlowProviders;
+            return this;
+        }
+
+
+        /**
+         * Set how the number of events per day is shown. Defaults to {@link PickerContext#EVENT_DENSITY_NONE}, which only highlights days having events.
+         *
+         * @param eventDensity
+         *         One of {@link PickerContext#EVENT_DENSITY_NONE}, {@link PickerContext#EVENT_DENSITY_TINT}, {@link
+         *         PickerContext#EVENT_DENSITY_DOTS} or {@link PickerContext#EVENT_DENSITY_INDICATORS}.
+         */
+        public Builder setEventDensity(int eventDensity)
+        {
+            if (eventDensity < EVENT_DENSITY_NONE || eventDensity > EVENT_DENSITY_INDICATORS)
             {
-                args.putSerializable(ARG_INITIAL_PICKER, mInitialPicker);
+                throw new IllegalArgumentException("Unknown event density " + eventDensity);
             }
+            mEventDensity = eventDensity;
+            return this;
+        }
+
+
+        /**
+         * Set days within the range of the minimal and maximal date that the user can not pick, like holidays. Disabled days are greyed out and can not be
+         * clicked.
+         *
+         * @param disabledDays
+         *         The {@link DisabledDays}, see {@link org.dmfs.android.instantpicker.events.DisabledWeekdays} and {@link
+         *         org.dmfs.android.instantpicker.events.DisabledDates}.
+         */
+        public Builder setDisabledDays(DisabledDays... disabledDays)
+        {
+            mDisabledDays = disabledDays;
+            return this;
+        }
+
 
-            if (mEventProviderFactories != null && mEventProviderFactories.length > 0)
+        /**
+         * Set the maximum number of bytes of rendered months to keep for flings. While the month list is flung, months are drawn from this cache instead of
+         * rendering all their text again. Each month takes about {@code 4 * width * height} bytes. Defaults to {@code 0}, which disables the cache.
+         *
+         * @param bytes
+         *         The maximum number of bytes of the cache.
+         */
+        public Builder setMonthBitmapCacheSize(int bytes)
+        {
+            if (bytes < 0)
             {
-                args.putSerializable(ARG_EVENT_PROVIDER_FACTORIES, mEventProviderFactories);
+                throw new IllegalArgumentException("The cache size must not be negative");
             }
+            mMonthBitmapCacheBytes = bytes;
+            return this;
+        }
 
-            // always add the default time zone, because null is a valid default value
-            args.putSerializable(ARG_DEFAULT_TIMEZONE, mDefaultTimeZone);
+
+        public Builder setFirstDayOfWeek(Weekday firstDayOfWeek)
+        {
+            mFirstDayOfWeek = firstDayOfWeek;
+            return this;
+        }
+
+
+        public InstantPickerDialog build()
+        {
+            Bundle args = new Bundle();
+            args.putParcelable(ARG_ARGUMENTS,
+                    new PickerArguments(mInitialDate, mAllowAllDay, mUse24Hours, mFirstDayOfWeek, mInitialPicker, mDefaultTimeZone, mEventProviderFactories,
+                            mEventCacheSize, mShareEventProviders, mMeasureEventProviders, mEventProviderBudgetNanos, mSkipSlowEventProviders,
+                            mEventDensity, mMonthBitmapCacheBytes, mDisabledDays));
 
             InstantPickerDialog result = new InstantPickerDialog();
             result.setArguments(args);
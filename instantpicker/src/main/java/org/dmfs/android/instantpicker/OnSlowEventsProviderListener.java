@@ -0,0 +1,20 @@
+package org.dmfs.android.instantpicker;
+
+import org.dmfs.android.instantpicker.events.EventsProviderMetrics;
+
+
+/**
+ * The callback interface used to indicate that an {@link org.dmfs.android.instantpicker.events.EventsProvider} exceeded the budget given with {@link
+ * InstantPickerDialog.Builder#setEventProviderBudget(long, boolean)}. It's called on the parent fragment or the activity of the dialog.
+ */
+public interface OnSlowEventsProviderListener
+{
+
+    /**
+     * @param metrics
+     *         The {@link EventsProviderMetrics} of the slow provider, including the slow call.
+     * @param nanos
+     *         The latency of the slow call in nanoseconds.
+     */
+    void onSlowEventsProvider(EventsProviderMetrics metrics, long nanos);
+}
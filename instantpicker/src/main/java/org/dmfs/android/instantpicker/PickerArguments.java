@@ -0,0 +1,344 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.dmfs.android.instantpicker;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+
+import org.dmfs.android.instantpicker.events.DisabledDays;
+import org.dmfs.android.instantpicker.events.EventProviderFactory;
+import org.dmfs.rfc5545.DateTime;
+import org.dmfs.rfc5545.Weekday;
+
+import java.util.TimeZone;
+
+
+/**
+ * The arguments of an {@link InstantPickerDialog}.
+ * <p>
+ * These are parcelled on every recreation of the dialog, so they are written field by field, with time zones as IDs and enums as ordinals. {@link
+ * EventProviderFactory}s are written as {@link Parcelable}s if they implement it (all built-in factories with a compact state do) and only fall back to Java
+ * serialization otherwise.
+ */
+final class PickerArguments implements Parcelable
+{
+    private final static int NONE = -1;
+
+    private final static int FACTORY_PARCELABLE = 0;
+    private final static int FACTORY_SERIALIZABLE = 1;
+
+    private final long mInitialTimestamp;
+    private final boolean mInitialAllDay;
+    private final String mInitialTimeZone;
+    private final boolean mAllowAllDay;
+    // NONE, 0 or 1
+    private final int mUse24Hours;
+    private final int mFirstDayOfWeek;
+    private final int mInitialPicker;
+    private final String mDefaultTimeZone;
+    private final EventProviderFactory[] mEventProviderFactories;
+    private final int mEventCacheSize;
+    private final boolean mShareEventProviders;
+    private final boolean mMeasureEventProviders;
+    private final long mEventProviderBudgetNanos;
+    private final boolean mSkipSlowEventProviders;
+    private final int mEventDensity;
+    private final int mMonthBitmapCacheBytes;
+    private final DisabledDays[] mDisabledDays;
+
+
+    PickerArguments(DateTime initialDate, boolean allowAllDay, Boolean use24Hours, Weekday firstDayOfWeek, DateTimePicker.EditorComponent initialPicker,
+                    TimeZone defaultTimeZone, EventProviderFactory[] eventProviderFactories, int eventCacheSize, boolean shareEventProviders,
+                    boolean measureEventProviders, long eventProviderBudgetNanos, boolean skipSlowEventProviders, int eventDensity,
+                    int monthBitmapCacheBytes, DisabledDays[] disabledDays)
+    {
+        mInitialTimestamp = initialDate.getTimestamp();
+        mInitialAllDay = initialDate.isAllDay();
+        mInitialTimeZone = initialDate.getTimeZone() == null ? null : initialDate.getTimeZone().getID();
+        mAllowAllDay = allowAllDay;
+        mUse24Hours = use24Hours == null ? NONE : use24Hours ? 1 : 0;
+        mFirstDayOfWeek = firstDayOfWeek == null ? NONE : firstDayOfWeek.ordinal();
+        mInitialPicker = initialPicker == null ? NONE : initialPicker.ordinal();
+        mDefaultTimeZone = defaultTimeZone == null ? null : defaultTimeZone.getID();
+        mEventProviderFactories = eventProviderFactories == null || eventProviderFactories.length == 0 ? null : eventProviderFactories;
+        mEventCacheSize = eventCacheSize;
+        mShareEventProviders = shareEventProviders;
+        mMeasureEventProviders = measureEventProviders;
+        mEventProviderBudgetNanos = eventProviderBudgetNanos;
+        mSkipSlowEventProviders = skipSlowEventProviders;
+        mEventDensity = eventDensity;
+        mMonthBitmapCacheBytes = monthBitmapCacheBytes;
+        mDisabledDays = disabledDays == null || disabledDays.length == 0 ? null : disabledDays;
+    }
+
+
+    private PickerArguments(Parcel in)
+    {
+        mInitialTimestamp = in.readLong();
+        mInitialAllDay = in.readInt() != 0;
+        mInitialTimeZone = in.readString();
+        mAllowAllDay = in.readInt() != 0;
+        mUse24Hours = in.readInt();
+        mFirstDayOfWeek = in.readInt();
+        mInitialPicker = in.readInt();
+        mDefaultTimeZone = in.readString();
+        int factoryCount = in.readInt();
+        if (factoryCount == NONE)
+        {
+            mEventProviderFactories = null;
+        }
+        else
+        {
+            mEventProviderFactories = new EventProviderFactory[factoryCount];
+            for (int i = 0; i < factoryCount; ++i)
+            {
+                mEventProviderFactories[i] = in.readInt() == FACTORY_PARCELABLE
+                        ? (EventProviderFactory) in.readParcelable(PickerArguments.class.getClassLoader())
+                        : (EventProviderFactory) in.readSerializable();
+            }
+        }
+        mEventCacheSize = in.readInt();
+        mShareEventProviders = in.readInt() != 0;
+        mMeasureEventProviders = in.readInt() != 0;
+        mEventProviderBudgetNanos = in.readLong();
+        mSkipSlowEventProviders = in.readInt() != 0;
+        mEventDensity = in.readInt();
+        mMonthBitmapCacheBytes = in.readInt();
+        int disabledDaysCount = in.readInt();
+        if (disabledDaysCount == NONE)
+        {
+            mDisabledDays = null;
+        }
+        else
+        {
+            mDisabledDays = new DisabledDays[disabledDaysCount];
+            for (int i = 0; i < disabledDaysCount; ++i)
+            {
+                mDisabledDays[i] = (DisabledDays) in.readSerializable();
+            }
+        }
+    }
+
+
+    /**
+     * Returns the initial {@link DateTime}.
+     */
+    DateTime initialDate()
+    {
+        return dateTime(mInitialTimestamp, mInitialAllDay, mInitialTimeZone);
+    }
+
+
+    boolean allowAllDay()
+    {
+        return mAllowAllDay;
+    }
+
+
+    /**
+     * Returns whether to use 24 hours or the given default if not specified.
+     */
+    boolean use24Hours(boolean defaultValue)
+    {
+        return mUse24Hours == NONE ? defaultValue : mUse24Hours == 1;
+    }
+
+
+    /**
+     * Returns the first day of the week or {@code null} if not specified.
+     */
+    Weekday firstDayOfWeek()
+    {
+        return mFirstDayOfWeek == NONE ? null : Weekday.values()[mFirstDayOfWeek];
+    }
+
+
+    /**
+     * Returns the initial picker or {@code null} if not specified.
+     */
+    DateTimePicker.EditorComponent initialPicker()
+    {
+        return mInitialPicker == NONE ? null : DateTimePicker.EditorComponent.values()[mInitialPicker];
+    }
+
+
+    /**
+     * Returns the default {@link TimeZone}, {@code null} means floating.
+     */
+    TimeZone defaultTimeZone()
+    {
+        return mDefaultTimeZone == null ? null : TimeZone.getTimeZone(mDefaultTimeZone);
+    }
+
+
+    /**
+     * Returns the {@link EventProviderFactory}s or {@code null} if there are none.
+     */
+    EventProviderFactory[] eventProviderFactories()
+    {
+        return mEventProviderFactories;
+    }
+
+
+    int eventCacheSize()
+    {
+        return mEventCacheSize;
+    }
+
+
+    boolean shareEventProviders()
+    {
+        return mShareEventProviders;
+    }
+
+
+    /**
+     * Returns whether the calls to the event providers should be measured. This is implied by a budget.
+     */
+    boolean measureEventProviders()
+    {
+        return mMeasureEventProviders || mEventProviderBudgetNanos > 0;
+    }
+
+
+    /**
+     * Returns the maximum time a single call to an event provider may take in nanoseconds, {@code 0} means no budget.
+     */
+    long eventProviderBudgetNanos()
+    {
+        return mEventProviderBudgetNanos;
+    }
+
+
+    boolean skipSlowEventProviders()
+    {
+        return mSkipSlowEventProviders;
+    }
+
+
+    int eventDensity()
+    {
+        return mEventDensity;
+    }
+
+
+    int monthBitmapCacheBytes()
+    {
+        return mMonthBitmapCacheBytes;
+    }
+
+
+    /**
+     * Returns the {@link DisabledDays} or {@code null} if all days in the range can be picked.
+     */
+    DisabledDays[] disabledDays()
+    {
+        return mDisabledDays;
+    }
+
+
+    @Override
+    public int describeContents()
+    {
+        return 0;
+    }
+
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags)
+    {
+        dest.writeLong(mInitialTimestamp);
+        dest.writeInt(mInitialAllDay ? 1 : 0);
+        dest.writeString(mInitialTimeZone);
+        dest.writeInt(mAllowAllDay ? 1 : 0);
+        dest.writeInt(mUse24Hours);
+        dest.writeInt(mFirstDayOfWeek);
+        dest.writeInt(mInitialPicker);
+        dest.writeString(mDefaultTimeZone);
+        if (mEventProviderFactories == null)
+        {
+            dest.writeInt(NONE);
+        }
+        else
+        {
+            dest.writeInt(mEventProviderFactories.length);
+            for (EventProviderFactory factory : mEventProviderFactories)
+            {
+                if (factory instanceof Parcelable)
+                {
+                    dest.writeInt(FACTORY_PARCELABLE);
+                    dest.writeParcelable((Parcelable) factory, flags);
+                }
+                else
+                {
+                    dest.writeInt(FACTORY_SERIALIZABLE);
+                    dest.writeSerializable(factory);
+                }
+            }
+        }
+        dest.writeInt(mEventCacheSize);
+        dest.writeInt(mShareEventProviders ? 1 : 0);
+        dest.writeInt(mMeasureEventProviders ? 1 : 0);
+        dest.writeLong(mEventProviderBudgetNanos);
+        dest.writeInt(mSkipSlowEventProviders ? 1 : 0);
+        dest.writeInt(mEventDensity);
+        dest.writeInt(mMonthBitmapCacheBytes);
+        if (mDisabledDays == null)
+        {
+            dest.writeInt(NONE);
+        }
+        else
+        {
+            dest.writeInt(mDisabledDays.length);
+            for (DisabledDays disabledDays : mDisabledDays)
+            {
+                dest.writeSerializable(disabledDays);
+            }
+        }
+    }
+
+
+    /**
+     * Returns a {@link DateTime} from its parcelled components.
+     */
+    static DateTime dateTime(long timestamp, boolean allDay, String timeZoneId)
+    {
+        if (allDay)
+        {
+            return new DateTime(timestamp).toAllDay();
+        }
+        return new DateTime(timeZoneId == null ? null : TimeZone.getTimeZone(timeZoneId), timestamp);
+    }
+
+
+    public final static Creator<PickerArguments> CREATOR = new Creator<PickerArguments>()
+    {
+        @Override
+        public PickerArguments createFromParcel(Parcel in)
+        {
+            return new PickerArguments(in);
+        }
+
+
+        @Override
+        public PickerArguments[] newArray(int size)
+        {
+            return new PickerArguments[size];
+        }
+    };
+}
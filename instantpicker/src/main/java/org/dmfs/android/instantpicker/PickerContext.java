@@ -1,6 +1,8 @@
 package org.dmfs.android.instantpicker;
 
+import org.dmfs.android.instantpicker.events.DayMask;
 import org.dmfs.android.instantpicker.events.Event;
+import org.dmfs.android.instantpicker.events.EventsProvider;
 import org.dmfs.rfc5545.DateTime;
 import org.dmfs.rfc5545.Weekday;
 
@@ -13,6 +15,26 @@ import java.util.TimeZone;
  */
 public interface PickerContext
 {
+    /**
+     * Days with events are highlighted, regardless of the number of events.
+     */
+    int EVENT_DENSITY_NONE = 0;
+
+    /**
+     * Days with events get a background tint that gets stronger with the number of events.
+     */
+    int EVENT_DENSITY_TINT = 1;
+
+    /**
+     * Days with events get up to three dots, one per event.
+     */
+    int EVENT_DENSITY_DOTS = 2;
+
+    /**
+     * Days with events get one dot per event category, i.e. per distinct {@link EventsProvider#indicatorColor()} of the providers having events on that day.
+     */
+    int EVENT_DENSITY_INDICATORS = 3;
+
     DateTime minDateTime();
 
     DateTime maxDateTime();
@@ -23,7 +45,112 @@ public interface PickerContext
 
     boolean hasEvents(DateTime date);
 
+    /**
+     * Returns whether there are any events on the given {@link org.dmfs.android.instantpicker.events.PackedDay}.
+     *
+     * @param packedDay
+     *         A packed day.
+     *
+     * @return {@code true} if there are events on that day.
+     */
+    boolean hasEvents(int packedDay);
+
+    /**
+     * Returns a {@link org.dmfs.android.instantpicker.events.DayMask} of all the days in the given month that have events.
+     *
+     * @param year
+     *         The year.
+     * @param month
+     *         The month [0-11].
+     *
+     * @return A day mask of the days having events.
+     */
+    int eventMask(int year, int month);
+
+    /**
+     * Gives a hint that the events of the given month are likely to be requested soon, so they can be loaded in the background.
+     *
+     * @param year
+     *         The year.
+     * @param month
+     *         The month [0-11].
+     */
+    void prefetchEvents(int year, int month);
+
+    /**
+     * Tells the {@link EventsProvider}s that only the events between the given days are of interest at present, so they can cancel loading other months.
+     *
+     * @param fromPackedDay
+     *         The first {@link org.dmfs.android.instantpicker.events.PackedDay} of interest.
+     * @param toPackedDay
+     *         The last {@link org.dmfs.android.instantpicker.events.PackedDay} of interest.
+     */
+    void retainEventsBetween(int fromPackedDay, int toPackedDay);
+
+    /**
+     * Returns how the number of events per day is shown, one of {@link #EVENT_DENSITY_NONE}, {@link #EVENT_DENSITY_TINT} or {@link #EVENT_DENSITY_DOTS}.
+     */
+    int eventDensity();
+
+    /**
+     * Writes the number of events on each day of the given month into the given array, the count of day {@code n} goes to {@code counts[n - 1]}.
+     *
+     * @param year
+     *         The year.
+     * @param month
+     *         The month [0-11].
+     * @param counts
+     *         An array of at least 31 elements to write the counts to.
+     */
+    void eventCounts(int year, int month, int[] counts);
+
+    /**
+     * Writes the event categories of the given month into the given arrays. Each category has the indicator color in {@code colors} and the {@link DayMask}
+     * of its events at the same index in {@code masks}. Categories exceeding the length of the arrays are dropped.
+     *
+     * @param year
+     *         The year.
+     * @param month
+     *         The month [0-11].
+     * @param colors
+     *         An array to write the indicator colors to, {@code 0} meaning the accent color.
+     * @param masks
+     *         An array of the same length to write the day masks to.
+     *
+     * @return The number of categories written.
+     */
+    int eventIndicators(int year, int month, int[] colors, int[] masks);
+
+    /**
+     * Returns the days of the given month that can be picked. This combines the range of {@link #minDateTime()} and {@link #maxDateTime()} with any
+     * {@link org.dmfs.android.instantpicker.events.DisabledDays}, so views can test single days with a bit operation.
+     *
+     * @param year
+     *         The year.
+     * @param month
+     *         The month [0-11].
+     *
+     * @return The {@link DayMask} of the selectable days.
+     */
+    int selectableDays(int year, int month);
+
+    /**
+     * Returns the maximum number of bytes of rendered months to keep for fast scrolling, {@code 0} means months are always rendered live.
+     */
+    int monthBitmapCacheBytes();
+
     List<Event> events(DateTime date);
 
+    /**
+     * Appends the events of the given date to the given list. Unlike {@link #events(DateTime)} this doesn't allocate a new list, so callers can reuse the
+     * same list for many calls.
+     *
+     * @param date
+     *         The date.
+     * @param events
+     *         The list to append the events to.
+     */
+    void appendEvents(DateTime date, List<Event> events);
+
     TimeZone defaultTimeZone();
 }
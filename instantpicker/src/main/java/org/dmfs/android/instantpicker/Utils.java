@@ -185,4 +185,17 @@ public class Utils
 
         return color;
     }
+
+
+    public static int fetchAccentColor(Context context)
+    {
+        TypedValue typedValue = new TypedValue();
+
+        TypedArray a = context.obtainStyledAttributes(typedValue.data, new int[] { R.attr.colorAccent });
+        int color = a.getColor(0, 0);
+
+        a.recycle();
+
+        return color;
+    }
 }
@@ -23,6 +23,7 @@ import android.graphics.Paint;
 import android.os.Build;
 import android.os.Bundle;
 import android.os.Handler;
+import android.os.SystemClock;
 import android.util.AttributeSet;
 import android.util.Log;
 import android.view.View;
@@ -37,6 +38,7 @@ import org.dmfs.android.instantpicker.DateTimePicker;
 import org.dmfs.android.instantpicker.OnDateTimeSetListener;
 import org.dmfs.android.instantpicker.PickerContext;
 import org.dmfs.android.instantpicker.Utils;
+import org.dmfs.android.instantpicker.events.PackedDay;
 import org.dmfs.rfc5545.DateTime;
 
 import java.text.SimpleDateFormat;
@@ -61,6 +63,12 @@ public abstract class DatePicker extends ListView implements OnScrollListener, D
     protected static final int SCROLL_CHANGE_DELAY = 40;
     // The number of days to display in each week
     public static final int DAYS_PER_WEEK = 7;
+    // The minimum number of months to prefetch events for in scroll direction
+    protected static final int MIN_PREFETCH_MONTHS = 2;
+    // The maximum number of months to prefetch events for in scroll direction
+    protected static final int MAX_PREFETCH_MONTHS = 24;
+    // How far ahead (in milliseconds of scrolling at the current speed) to prefetch events
+    protected static final int PREFETCH_LOOKAHEAD = 500;
     public static int LIST_TOP_OFFSET = -1; // so that the top line will be
     // under the separator
     // You can override these numbers to get a different appearance
@@ -86,6 +94,16 @@ public abstract class DatePicker extends ListView implements OnScrollListener, D
     protected int mCurrentMonthDisplayed;
     // used for tracking during a scroll
     protected long mPreviousScrollPosition;
+    // the uptime of the previous scroll event, used to determine the scroll velocity
+    protected long mPreviousScrollTime;
+    // whether the last scroll moved towards later months
+    protected boolean mScrollingForward = true;
+    // the range of positions that events have been prefetched for most recently
+    private int mPrefetchFrom = -1;
+    private int mPrefetchTo = -1;
+    // the range of positions that the event providers have been told to retain, the visible months plus the prefetched ones
+    private int mRetainFrom = -1;
+    private int mRetainTo = -1;
     // used for tracking what state listview is in
     protected int mPreviousScrollState = OnScrollListener.SCROLL_STATE_IDLE;
     // used for tracking what state listview is in
@@ -302,11 +320,150 @@ public abstract class DatePicker extends ListView implements OnScrollListener, D
 
         // Figure out where we are
         long currScroll = view.getFirstVisiblePosition() * child.getHeight() - child.getBottom();
+        long now = SystemClock.uptimeMillis();
+
+        long distance = currScroll - mPreviousScrollPosition;
+        if (distance != 0)
+        {
+            mScrollingForward = distance > 0;
+        }
+        prefetchEvents(firstVisibleItem, visibleItemCount, totalItemCount, Math.abs(distance) / (float) Math.max(1, now - mPreviousScrollTime),
+                child.getHeight());
+
         mPreviousScrollPosition = currScroll;
+        mPreviousScrollTime = now;
         mPreviousScrollState = mCurrentScrollState;
     }
 
 
+    /**
+     * Prefetches the events of the months ahead of the visible ones in scroll direction. The faster the list scrolls, the more months are prefetched. Loads of
+     * months that are neither visible nor prefetched anymore are cancelled.
+     *
+     * @param firstVisibleItem
+     *         The position of the first visible month.
+     * @param visibleItemCount
+     *         The number of visible months.
+     * @param totalItemCount
+     *         The total number of months.
+     * @param velocity
+     *         The current scroll velocity in pixels per millisecond.
+     * @param monthHeight
+     *         The height of a month in pixels.
+     */
+    private void prefetchEvents(int firstVisibleItem, int visibleItemCount, int totalItemCount, float velocity, int monthHeight)
+    {
+        int months = MIN_PREFETCH_MONTHS;
+        if (monthHeight > 0)
+        {
+            months += (int) (velocity * PREFETCH_LOOKAHEAD / monthHeight);
+        }
+        months = Math.min(months, MAX_PREFETCH_MONTHS);
+
+        int from;
+        int to;
+        if (mScrollingForward)
+        {
+            from = firstVisibleItem + visibleItemCount;
+            to = Math.min(from + months, totalItemCount) - 1;
+        }
+        else
+        {
+            to = firstVisibleItem - 1;
+            from = Math.max(to - months + 1, 0);
+        }
+
+        int minYear = mPickerContext.minDateTime().getYear();
+        for (int position = from; position <= to; ++position)
+        {
+            if (position < mPrefetchFrom || position > mPrefetchTo)
+            {
+                mPickerContext.prefetchEvents(position / MonthPickerAdapter.MONTHS_IN_YEAR + minYear, position % MonthPickerAdapter.MONTHS_IN_YEAR);
+            }
+        }
+        mPrefetchFrom = from;
+        mPrefetchTo = to;
+
+        int retainFrom = Math.min(firstVisibleItem, from);
+        int retainTo = Math.max(firstVisibleItem + visibleItemCount - 1, to);
+        if (retainFrom != mRetainFrom || retainTo != mRetainTo)
+        {
+            mPickerContext.retainEventsBetween(
+                    PackedDay.firstOfMonth(retainFrom / MonthPickerAdapter.MONTHS_IN_YEAR + minYear, retainFrom % MonthPickerAdapter.MONTHS_IN_YEAR),
+                    PackedDay.lastOfMonth(retainTo / MonthPickerAdapter.MONTHS_IN_YEAR + minYear, retainTo % MonthPickerAdapter.MONTHS_IN_YEAR));
+            mRetainFrom = retainFrom;
+            mRetainTo = retainTo;
+        }
+    }
+
+
+    /**
+     * Updates the events of all visible months.
+     */
+    public void refreshEvents()
+    {
+        for (int i = 0, count = getChildCount(); i < count; ++i)
+        {
+            View child = getChildAt(i);
+            if (child instanceof MonthView)
+            {
+                ((MonthView) child).refreshEvents();
+                child.invalidate();
+            }
+        }
+    }
+
+
+    /**
+     * Updates the events of the given month, if it's visible. Other months are not affected.
+     *
+     * @param year
+     *         The year of the month.
+     * @param month
+     *         The month [0-11].
+     */
+    public void refreshEvents(int year, int month)
+    {
+        for (int i = 0, count = getChildCount(); i < count; ++i)
+        {
+            View child = getChildAt(i);
+            if (child instanceof MonthView && ((MonthView) child).getYear() == year && ((MonthView) child).getMonth() == month)
+            {
+                ((MonthView) child).refreshEvents();
+                child.invalidate();
+            }
+        }
+    }
+
+
+    /**
+     * Updates the events of the visible months between the given days. Months outside of that range are not affected.
+     *
+     * @param fromPackedDay
+     *         The first {@link PackedDay} to update.
+     * @param toPackedDay
+     *         The last {@link PackedDay} to update.
+     */
+    public void refreshEventsBetween(int fromPackedDay, int toPackedDay)
+    {
+        int minYear = mPickerContext.minDateTime().getYear();
+        // the adapter positions of the first and last month, there is one position per month
+        int fromPosition = (PackedDay.year(fromPackedDay) - minYear) * MonthPickerAdapter.MONTHS_IN_YEAR + PackedDay.month(fromPackedDay);
+        int toPosition = (PackedDay.year(toPackedDay) - minYear) * MonthPickerAdapter.MONTHS_IN_YEAR + PackedDay.month(toPackedDay);
+
+        int firstPosition = getFirstVisiblePosition();
+        for (int i = Math.max(fromPosition - firstPosition, 0), count = Math.min(toPosition - firstPosition + 1, getChildCount()); i < count; ++i)
+        {
+            View child = getChildAt(i);
+            if (child instanceof MonthView)
+            {
+                ((MonthView) child).refreshEvents();
+                child.invalidate();
+            }
+        }
+    }
+
+
     /**
      * Sets the month displayed at the top of this view based on time. Override to add custom events when the title is changed.
      */
@@ -320,6 +477,15 @@ public abstract class DatePicker extends ListView implements OnScrollListener, D
     @Override
     public void onScrollStateChanged(AbsListView view, int scrollState)
     {
+        if (mAdapter != null && mAdapter.setFlinging(scrollState == OnScrollListener.SCROLL_STATE_FLING)
+                && scrollState != OnScrollListener.SCROLL_STATE_FLING)
+        {
+            // the fling is over, draw the visible months live again, months that missed the cache are rendered into it now
+            for (int i = 0, count = getChildCount(); i < count; ++i)
+            {
+                getChildAt(i).invalidate();
+            }
+        }
         // use a post to prevent re-entering onScrollStateChanged before it
         // exits
         mScrollStateChangedRunnable.doScrollStateChange(view, scrollState);
@@ -647,6 +813,18 @@ public abstract class DatePicker extends ListView implements OnScrollListener, D
     }
 
 
+    @Override
+    protected void onDetachedFromWindow()
+    {
+        super.onDetachedFromWindow();
+        if (mAdapter != null)
+        {
+            // don't hold on to the rendered months while the picker is not shown
+            mAdapter.clearBitmapCache();
+        }
+    }
+
+
     @Override
     public void onDateClick(DateTime dateTime)
     {
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.dmfs.android.instantpicker.date;
+
+import android.graphics.Bitmap;
+import android.util.LruCache;
+
+import java.util.Arrays;
+
+
+/**
+ * A cache of rendered months, bounded by the number of bytes of the bitmaps. While the cache is active, {@link MonthView}s blit the bitmap of their month
+ * instead of laying out all the text again, which is meant for flings, when months are only visible for a few frames. Months that are not in the cache are
+ * drawn live during the fling and rendered into the cache once it's over.
+ * <p>
+ * The bitmaps are keyed by everything that affects the rendering of a month, including the event counts and indicators themselves, so changed events or a
+ * new selection never show a stale month, outdated entries are just evicted eventually. The theme isn't part of the key, all views using the same cache must
+ * share the same style.
+ * <p>
+ * Evicted bitmaps are never reused, a view may still draw an evicted bitmap in the current frame, so they are left to the garbage collector. Like the
+ * views, this must only be used on the main thread.
+ */
+final class MonthBitmapCache
+{
+    /**
+     * The key of a rendered month. {@link MonthView}s keep one instance to look up their month without allocating a key each time.
+     */
+    final static class Key
+    {
+        int mYear;
+        int mMonth;
+        int mWeekStart;
+        int mSelectedDay;
+        int mToday;
+        int mSelectableDays;
+        int mEventMask;
+        int mEventDensity;
+        // the event counts of the days, all 0 unless the density uses them
+        final int[] mEventCounts = new int[31];
+        // the indicators, only the first mIndicatorCount are used
+        int mIndicatorCount;
+        final int[] mIndicatorColors = new int[MonthView.MAX_EVENT_DOTS];
+        final int[] mIndicatorMasks = new int[MonthView.MAX_EVENT_DOTS];
+        int mWidth;
+        int mHeight;
+
+
+        /**
+         * Returns a copy of this key, to be stored in the cache.
+         */
+        Key copy()
+        {
+            Key result = new Key();
+            result.mYear = mYear;
+            result.mMonth = mMonth;
+            result.mWeekStart = mWeekStart;
+            result.mSelectedDay = mSelectedDay;
+            result.mToday = mToday;
+            result.mSelectableDays = mSelectableDays;
+            result.mEventMask = mEventMask;
+            result.mEventDensity = mEventDensity;
+            System.arraycopy(mEventCounts, 0, result.mEventCounts, 0, mEventCounts.length);
+            result.mIndicatorCount = mIndicatorCount;
+            System.arraycopy(mIndicatorColors, 0, result.mIndicatorColors, 0, mIndicatorCount);
+            System.arraycopy(mIndicatorMasks, 0, result.mIndicatorMasks, 0, mIndicatorCount);
+            result.mWidth = mWidth;
+            result.mHeight = mHeight;
+            return result;
+        }
+
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof Key))
+            {
+                return false;
+            }
+            Key other = (Key) o;
+            if (mYear != other.mYear || mMonth != other.mMonth || mWeekStart != other.mWeekStart || mSelectedDay != other.mSelectedDay
+                    || mToday != other.mToday || mSelectableDays != other.mSelectableDays || mEventMask != other.mEventMask
+                    || mEventDensity != other.mEventDensity || mIndicatorCount != other.mIndicatorCount || mWidth != other.mWidth
+                    || mHeight != other.mHeight || !Arrays.equals(mEventCounts, other.mEventCounts))
+            {
+                return false;
+            }
+            for (int i = 0; i < mIndicatorCount; ++i)
+            {
+                if (mIndicatorColors[i] != other.mIndicatorColors[i] || mIndicatorMasks[i] != other.mIndicatorMasks[i])
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+
+        @Override
+        public int hashCode()
+        {
+            int result = mYear * 12 + mMonth;
+            result = result * 31 + mWeekStart;
+            result = result * 31 + mSelectedDay;
+            result = result * 31 + mToday;
+            result = result * 31 + mSelectableDays;
+            result = result * 31 + mEventMask;
+            result = result * 31 + mEventDensity;
+            result = result * 31 + Arrays.hashCode(mEventCounts);
+            for (int i = 0; i < mIndicatorCount; ++i)
+            {
+                result = (result * 31 + mIndicatorColors[i]) * 31 + mIndicatorMasks[i];
+            }
+            result = result * 31 + mWidth;
+            return result * 31 + mHeight;
+        }
+    }
+
+
+    private final LruCache<Key, Bitmap> mBitmaps;
+    private boolean mActive;
+
+
+    /**
+     * Creates a {@link MonthBitmapCache}.
+     *
+     * @param maxBytes
+     *         The maximum number of bytes of all cached bitmaps.
+     */
+    MonthBitmapCache(int maxBytes)
+    {
+        mBitmaps = new LruCache<Key, Bitmap>(maxBytes)
+        {
+            @Override
+            protected int sizeOf(Key key, Bitmap value)
+            {
+                return value.getRowBytes() * value.getHeight();
+            }
+        };
+    }
+
+
+    /**
+     * Sets whether the views should draw their months from this cache. Views render their months live while the cache is inactive.
+     *
+     * @param active
+     *         {@code true} to draw from the cache.
+     *
+     * @return {@code true} if the state has changed.
+     */
+    boolean setActive(boolean active)
+    {
+        boolean changed = mActive != active;
+        mActive = active;
+        return changed;
+    }
+
+
+    boolean isActive()
+    {
+        return mActive;
+    }
+
+
+    /**
+     * Returns whether a bitmap of the given size fits into the cache at all.
+     */
+    boolean fits(int width, int height)
+    {
+        // ARGB_8888 takes 4 bytes per pixel
+        return width > 0 && height > 0 && (long) width * height * 4 <= mBitmaps.maxSize();
+    }
+
+
+    /**
+     * Returns the rendered month of the given key or {@code null}.
+     */
+    Bitmap get(Key key)
+    {
+        return mBitmaps.get(key);
+    }
+
+
+    /**
+     * Stores the rendered month of the given key. The key is copied, so the caller may change it afterwards.
+     */
+    void put(Key key, Bitmap bitmap)
+    {
+        mBitmaps.put(key.copy(), bitmap);
+    }
+
+
+    /**
+     * Releases all cached bitmaps.
+     */
+    void clear()
+    {
+        mBitmaps.evictAll();
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.dmfs.android.instantpicker.date;
+
+import android.graphics.Rect;
+
+
+/**
+ * The positions of the day cells of a {@link MonthView}. The cell bounds, the text centers and the baselines of all days are computed once, whenever any of
+ * the inputs changes, and shared by drawing, hit-testing and accessibility, so all three always agree on where a day is.
+ * <p>
+ * Columns span from one column edge to the next, the last column ends at the right padding. A point on the edge between two cells belongs to the right or
+ * lower one.
+ */
+final class MonthLayout
+{
+    private final static int MAX_DAYS = 31;
+
+    // the inputs the layout has been computed for
+    private int mDays = -1;
+    private int mOffset;
+    private int mColumns;
+    private int mWidth;
+    private int mEdgePadding;
+    private int mTop;
+    private int mRowHeight;
+    private int mBaselineOffset;
+
+    // the left edge of each column and the right edge of the last one
+    private int[] mColumnEdges = new int[0];
+
+    // the geometry of the days [1-31] at index [0-30]
+    final int[] mLeft = new int[MAX_DAYS];
+    final int[] mTopEdge = new int[MAX_DAYS];
+    final int[] mRight = new int[MAX_DAYS];
+    final int[] mBottom = new int[MAX_DAYS];
+    final int[] mCenterX = new int[MAX_DAYS];
+    final int[] mBaseline = new int[MAX_DAYS];
+
+
+    /**
+     * Updates the layout to the given values. This is cheap if nothing has changed since the last call.
+     *
+     * @param days
+     *         The number of days in the month.
+     * @param offset
+     *         The column of the first day of the month.
+     * @param columns
+     *         The number of days per week.
+     * @param width
+     *         The width of the view.
+     * @param edgePadding
+     *         The padding on the left and right side.
+     * @param top
+     *         The top edge of the first row.
+     * @param rowHeight
+     *         The height of a row.
+     * @param baselineOffset
+     *         The distance of the text baseline from the top edge of a row.
+     *
+     * @return {@code true} if the layout has been recomputed.
+     */
+    boolean update(int days, int offset, int columns, int width, int edgePadding, int top, int rowHeight, int baselineOffset)
+    {
+        if (days == mDays && offset == mOffset && columns == mColumns && width == mWidth && edgePadding == mEdgePadding && top == mTop
+                && rowHeight == mRowHeight && baselineOffset == mBaselineOffset)
+        {
+            return false;
+        }
+        mDays = days;
+        mOffset = offset;
+        mColumns = columns;
+        mWidth = width;
+        mEdgePadding = edgePadding;
+        mTop = top;
+        mRowHeight = rowHeight;
+        mBaselineOffset = baselineOffset;
+
+        if (mColumnEdges.length != columns + 1)
+        {
+            mColumnEdges = new int[columns + 1];
+        }
+        final float dayWidthHalf = (width - edgePadding * 2) / (columns * 2.0f);
+        for (int column = 0; column < columns; ++column)
+        {
+            mColumnEdges[column] = (int) (2 * column * dayWidthHalf + edgePadding);
+        }
+        mColumnEdges[columns] = width - edgePadding;
+
+        for (int i = 0; i < days; ++i)
+        {
+            final int column = (i + offset) % columns;
+            final int row = (i + offset) / columns;
+            mLeft[i] = mColumnEdges[column];
+            mRight[i] = mColumnEdges[column + 1];
+            mTopEdge[i] = top + row * rowHeight;
+            mBottom[i] = mTopEdge[i] + rowHeight;
+            mCenterX[i] = (int) ((2 * column + 1) * dayWidthHalf + edgePadding);
+            mBaseline[i] = mTopEdge[i] + baselineOffset;
+        }
+        return true;
+    }
+
+
+    /**
+     * Returns the index of the cell at the given position, counting from the first column of the first row, or {@code -1} if the position is outside of the
+     * grid columns or above the first row. The index is not limited to the days of the month.
+     *
+     * @param x
+     *         The x coordinate.
+     * @param y
+     *         The y coordinate.
+     *
+     * @return The cell index or {@code -1}.
+     */
+    int cellAt(float x, float y)
+    {
+        if (mDays < 0 || mRowHeight <= 0 || y < mTop || x < mColumnEdges[0] || x > mColumnEdges[mColumns])
+        {
+            return -1;
+        }
+        int column = mColumns - 1;
+        while (column > 0 && x < mColumnEdges[column])
+        {
+            --column;
+        }
+        return (int) ((y - mTop) / mRowHeight) * mColumns + column;
+    }
+
+
+    /**
+     * Returns the day of month at the given position.
+     *
+     * @param x
+     *         The x coordinate.
+     * @param y
+     *         The y coordinate.
+     *
+     * @return The day of month [1-31] or {@code -1} if there is no day at that position.
+     */
+    int dayAt(float x, float y)
+    {
+        final int day = cellAt(x, y) - mOffset + 1;
+        return day < 1 || day > mDays ? -1 : day;
+    }
+
+
+    /**
+     * Stores the bounds of the given day in the given {@link Rect}.
+     *
+     * @param dayOfMonth
+     *         The day of month [1-31].
+     * @param rect
+     *         The {@link Rect} to store the bounds in.
+     */
+    void getBounds(int dayOfMonth, Rect rect)
+    {
+        rect.set(mLeft[dayOfMonth - 1], mTopEdge[dayOfMonth - 1], mRight[dayOfMonth - 1], mBottom[dayOfMonth - 1]);
+    }
+}
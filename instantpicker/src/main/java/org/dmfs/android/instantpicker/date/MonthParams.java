@@ -0,0 +1,117 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.dmfs.android.instantpicker.date;
+
+/**
+ * The parameters to bind a {@link MonthView} to a specific month. Unlike the {@code VIEW_PARAMS_*} map, this holds primitive values, so a single instance can
+ * be reused to bind any number of views without boxing or hashing. {@link MonthView#setMonthParams(MonthParams)} copies the values, the instance may be
+ * changed afterwards.
+ */
+public final class MonthParams
+{
+    /**
+     * The value of optional parameters that have not been set. An unset row height or selected day keeps the current value of the view, an unset week start
+     * uses the first day of the week of the default locale.
+     */
+    public final static int UNSET = Integer.MIN_VALUE;
+
+    int mYear = UNSET;
+    int mMonth = UNSET;
+    int mSelectedDay = UNSET;
+    int mWeekStart = UNSET;
+    int mRowHeight = UNSET;
+
+
+    /**
+     * Sets the month to show, this is required.
+     *
+     * @param year
+     *         The year.
+     * @param month
+     *         The month [0-11].
+     *
+     * @return This instance.
+     */
+    public MonthParams setMonth(int year, int month)
+    {
+        mYear = year;
+        mMonth = month;
+        return this;
+    }
+
+
+    /**
+     * Sets the selected day of month.
+     *
+     * @param selectedDay
+     *         The selected day of month [1-31] or {@code -1} if no day of this month is selected.
+     *
+     * @return This instance.
+     */
+    public MonthParams setSelectedDay(int selectedDay)
+    {
+        mSelectedDay = selectedDay;
+        return this;
+    }
+
+
+    /**
+     * Sets the first day of the week.
+     *
+     * @param weekStart
+     *         The ordinal of the {@link org.dmfs.rfc5545.Weekday} to start the week with.
+     *
+     * @return This instance.
+     */
+    public MonthParams setWeekStart(int weekStart)
+    {
+        mWeekStart = weekStart;
+        return this;
+    }
+
+
+    /**
+     * Sets the height of a row of the month in pixels.
+     *
+     * @param rowHeight
+     *         The row height.
+     *
+     * @return This instance.
+     */
+    public MonthParams setRowHeight(int rowHeight)
+    {
+        mRowHeight = rowHeight;
+        return this;
+    }
+
+
+    /**
+     * Resets all parameters to {@link #UNSET}.
+     *
+     * @return This instance.
+     */
+    public MonthParams clear()
+    {
+        mYear = UNSET;
+        mMonth = UNSET;
+        mSelectedDay = UNSET;
+        mWeekStart = UNSET;
+        mRowHeight = UNSET;
+        return this;
+    }
+}
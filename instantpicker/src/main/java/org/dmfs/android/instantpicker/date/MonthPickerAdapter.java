@@ -26,8 +26,6 @@ import android.widget.BaseAdapter;
 import org.dmfs.android.instantpicker.PickerContext;
 import org.dmfs.rfc5545.DateTime;
 
-import java.util.HashMap;
-
 
 /**
  * An adapter for a list of {@link MonthView} items.
@@ -54,11 +52,17 @@ public abstract class MonthPickerAdapter extends BaseAdapter implements MonthVie
 
     private OnDateClickListener mOnDateClickListener;
 
+    private final MonthParams mMonthParams = new MonthParams();
+
+    // the rendered months to draw during flings, null if disabled
+    private final MonthBitmapCache mBitmapCache;
+
 
     public MonthPickerAdapter(Context context, PickerContext pickerContext)
     {
         mContext = context;
         mPickerContext = pickerContext;
+        mBitmapCache = pickerContext.monthBitmapCacheBytes() > 0 ? new MonthBitmapCache(pickerContext.monthBitmapCacheBytes()) : null;
         init();
         setSelectedDay(DateTime.nowAndHere());
     }
@@ -127,17 +131,13 @@ public abstract class MonthPickerAdapter extends BaseAdapter implements MonthVie
 
 
     @SuppressLint("NewApi")
-    @SuppressWarnings("unchecked")
     @Override
     public View getView(int position, View convertView, ViewGroup parent)
     {
         MonthView v;
-        HashMap<String, Integer> drawingParams = null;
         if (convertView != null)
         {
             v = (MonthView) convertView;
-            // We store the drawing parameters in the view so it can be recycled
-            drawingParams = (HashMap<String, Integer>) v.getTag();
         }
         else
         {
@@ -148,11 +148,6 @@ public abstract class MonthPickerAdapter extends BaseAdapter implements MonthVie
             v.setClickable(true);
             v.setOnDayClickListener(this);
         }
-        if (drawingParams == null)
-        {
-            drawingParams = new HashMap<String, Integer>();
-        }
-        drawingParams.clear();
 
         final int month = position % MONTHS_IN_YEAR;
         final int year = position / MONTHS_IN_YEAR + mPickerContext.minDateTime().getYear();
@@ -166,12 +161,13 @@ public abstract class MonthPickerAdapter extends BaseAdapter implements MonthVie
         // Invokes requestLayout() to ensure that the recycled view is set with the appropriate
         // height/number of weeks before being displayed.
         v.reuse();
+        v.setBitmapCache(mBitmapCache);
 
-        drawingParams.put(MonthView.VIEW_PARAMS_SELECTED_DAY, selectedDay);
-        drawingParams.put(MonthView.VIEW_PARAMS_YEAR, year);
-        drawingParams.put(MonthView.VIEW_PARAMS_MONTH, month);
-        drawingParams.put(MonthView.VIEW_PARAMS_WEEK_START, mPickerContext.firstDayOfWeek().ordinal());
-        v.setMonthParams(drawingParams);
+        // the view copies the parameters, so the same instance can be used for all views
+        v.setMonthParams(mMonthParams.clear()
+                .setMonth(year, month)
+                .setSelectedDay(selectedDay)
+                .setWeekStart(mPickerContext.firstDayOfWeek().ordinal()));
         v.invalidate();
         return v;
     }
@@ -180,6 +176,32 @@ public abstract class MonthPickerAdapter extends BaseAdapter implements MonthVie
     public abstract MonthView createMonthView(Context context);
 
 
+    /**
+     * Sets whether the list is flung, in which case the month views draw their months from the bitmap cache, if enabled.
+     *
+     * @param flinging
+     *         {@code true} while the list is flung.
+     *
+     * @return {@code true} if the views have to be redrawn to switch between cached and live drawing.
+     */
+    public boolean setFlinging(boolean flinging)
+    {
+        return mBitmapCache != null && mBitmapCache.setActive(flinging);
+    }
+
+
+    /**
+     * Releases all rendered months.
+     */
+    public void clearBitmapCache()
+    {
+        if (mBitmapCache != null)
+        {
+            mBitmapCache.clear();
+        }
+    }
+
+
     private boolean isSelectedDayInMonth(int year, int month)
     {
         return mSelectedDay.getYear() == year && mSelectedDay.getMonth() == month;
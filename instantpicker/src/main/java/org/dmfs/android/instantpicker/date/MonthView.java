@@ -19,6 +19,7 @@ package org.dmfs.android.instantpicker.date;
 import android.content.Context;
 import android.content.res.Resources;
 import android.content.res.TypedArray;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Paint;
 import android.graphics.Paint.Align;
@@ -42,11 +43,14 @@ import android.view.accessibility.AccessibilityNodeInfo;
 import org.dmfs.android.instantpicker.PickerContext;
 import org.dmfs.android.instantpicker.R;
 import org.dmfs.android.instantpicker.Utils;
+import org.dmfs.android.instantpicker.events.DayMask;
+import org.dmfs.android.instantpicker.events.PackedDay;
 import org.dmfs.rfc5545.DateTime;
 import org.dmfs.rfc5545.Weekday;
 
 import java.security.InvalidParameterException;
 import java.text.DateFormatSymbols;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Formatter;
 import java.util.HashMap;
@@ -110,6 +114,9 @@ public abstract class MonthView extends View
 
     private static final int SELECTED_CIRCLE_ALPHA = 60;
 
+    // the maximum number of event dots below a day number
+    protected static final int MAX_EVENT_DOTS = 3;
+
     protected static int DAY_SEPARATOR_WIDTH = 1;
     protected static int MINI_DAY_NUMBER_TEXT_SIZE;
     protected static int MONTH_LABEL_TEXT_SIZE;
@@ -133,6 +140,7 @@ public abstract class MonthView extends View
     protected Paint mMonthTitleBGPaint;
     protected Paint mSelectedCirclePaint;
     protected Paint mMonthDayLabelPaint;
+    protected Paint mEventDotPaint;
 
     private final Formatter mFormatter;
     private final StringBuilder mStringBuilder;
@@ -167,9 +175,51 @@ public abstract class MonthView extends View
     protected int mSelectedLeft = -1;
     // The right edge of the selected day
     protected int mSelectedRight = -1;
+    // The days of this month having events, fetched once when the month is bound
+    protected int mEventMask = DayMask.NONE;
+    // How event counts are shown, one of the PickerContext.EVENT_DENSITY_* values, fetched once when the month is bound
+    protected int mEventDensity = PickerContext.EVENT_DENSITY_NONE;
+    // The number of events on each day of this month [0-30] and their maximum, only populated if mEventDensity is not EVENT_DENSITY_NONE
+    protected final int[] mEventCounts = new int[31];
+    protected int mMaxEventCount;
+    // The indicator colors of the event categories and their day masks, only populated if mEventDensity is EVENT_DENSITY_INDICATORS
+    protected final int[] mIndicatorColors = new int[MAX_EVENT_DOTS];
+    protected final int[] mIndicatorMasks = new int[MAX_EVENT_DOTS];
+    protected int mIndicatorCount;
+    // The event dot positions collected by drawMonthNums, one array of x, y pairs per color, so each color takes a single drawPoints call
+    private final float[][] mEventDotPoints = new float[MAX_EVENT_DOTS][31 * MAX_EVENT_DOTS * 2];
+    private final int[] mEventDotPointCounts = new int[MAX_EVENT_DOTS];
+    // The event dots of the selected day, they are drawn on the selection circle, so they get the selected day text color
+    private final float[] mSelectedDayDotPoints = new float[MAX_EVENT_DOTS * 2];
+    private int mSelectedDayDotPointCount;
+    private int mEventDotRadius;
+    // The days of this month that can be picked, fetched once when the month is bound
+    protected int mSelectableDays = DayMask.ALL;
+
+    // The formatted day numbers [1-31] and the locale they have been formatted for
+    private static String[] sDayNumbers;
+    private static Locale sDayNumbersLocale;
+    // The short weekday labels, indexed like Calendar.SUNDAY to Calendar.SATURDAY, and the locale they have been fetched for
+    private static String[] sWeekdayLabels;
+    private static Locale sWeekdayLabelsLocale;
+
+    // The title of the bound month, formatted once per bind
+    private String mMonthTitle;
+    // The MonthParams to convert the legacy parameter maps into
+    private final MonthParams mMapParams = new MonthParams();
+    // The positions of the day cells, shared by drawing, hit-testing and accessibility, see monthLayout()
+    private final MonthLayout mMonthLayout = new MonthLayout();
+    // The optional cache of rendered months, the key of the current month and the canvas to render it with
+    private MonthBitmapCache mBitmapCache;
+    private final MonthBitmapCache.Key mBitmapKey = new MonthBitmapCache.Key();
+    private final Canvas mBitmapCanvas = new Canvas();
+    // whether the month has been drawn live during a fling, because it wasn't in the bitmap cache
+    private boolean mBitmapMissed;
 
     private DateTime mCalendar;
     private final MonthViewTouchHelper mTouchHelper;
+    // whether a sub-class draws the days with the DateTime variant of drawMonthDay only, see drawsDateTimes(Class)
+    private final boolean mDrawsDateTimes;
 
     protected int mNumRows = DEFAULT_NUM_ROWS;
 
@@ -212,6 +262,8 @@ public abstract class MonthView extends View
         super(context, attr);
         Resources res = context.getResources();
 
+        mDrawsDateTimes = drawsDateTimes(getClass());
+
         mCalendar = DateTime.nowAndHere();
 
         mDayOfWeekTypeface = res.getString(R.string.day_of_week_label_typeface);
@@ -233,6 +285,7 @@ public abstract class MonthView extends View
         MONTH_DAY_LABEL_TEXT_SIZE = res.getDimensionPixelSize(R.dimen.month_day_label_text_size);
         MONTH_HEADER_SIZE = res.getDimensionPixelOffset(R.dimen.month_list_item_header_height);
         DAY_SELECTED_CIRCLE_SIZE = res.getDimensionPixelSize(R.dimen.day_number_select_circle_radius);
+        mEventDotRadius = res.getDimensionPixelSize(R.dimen.day_event_dot_radius);
 
         mRowHeight = (res.getDimensionPixelOffset(R.dimen.date_picker_view_animator_height) - MONTH_DAY_LABEL_TEXT_SIZE - getMonthHeaderSize()) / MAX_NUM_ROWS;
 
@@ -344,6 +397,12 @@ public abstract class MonthView extends View
         mMonthDayLabelPaint.setTextAlign(Align.CENTER);
         mMonthDayLabelPaint.setFakeBoldText(false);
 
+        // points with a round cap are drawn as dots
+        mEventDotPaint = new Paint();
+        mEventDotPaint.setAntiAlias(true);
+        mEventDotPaint.setStyle(Style.STROKE);
+        mEventDotPaint.setStrokeCap(Paint.Cap.ROUND);
+
         mMonthNumPaint = new Paint();
         mMonthNumPaint.setAntiAlias(true);
         mMonthNumPaint.setTextSize(MINI_DAY_NUMBER_TEXT_SIZE);
@@ -355,6 +414,33 @@ public abstract class MonthView extends View
 
     @Override
     protected void onDraw(Canvas canvas)
+    {
+        if (mBitmapCache != null && mBitmapCache.fits(getWidth(), getHeight()))
+        {
+            updateBitmapKey();
+            Bitmap bitmap = null;
+            if (mBitmapCache.isActive())
+            {
+                bitmap = mBitmapCache.get(mBitmapKey);
+                // rendering into a bitmap takes longer than drawing live, so a miss is only rendered once the fling is over
+                mBitmapMissed |= bitmap == null;
+            }
+            else if (mBitmapMissed)
+            {
+                mBitmapMissed = false;
+                bitmap = renderMonth();
+            }
+            if (bitmap != null)
+            {
+                canvas.drawBitmap(bitmap, 0, 0, null);
+                return;
+            }
+        }
+        drawMonth(canvas);
+    }
+
+
+    private void drawMonth(Canvas canvas)
     {
         drawMonthTitle(canvas);
         drawMonthDayLabels(canvas);
@@ -362,6 +448,67 @@ public abstract class MonthView extends View
     }
 
 
+    /**
+     * Updates {@link #mBitmapKey} to the current state of this view.
+     */
+    private void updateBitmapKey()
+    {
+        mBitmapKey.mYear = mYear;
+        mBitmapKey.mMonth = mMonth;
+        mBitmapKey.mWeekStart = mWeekStart;
+        mBitmapKey.mSelectedDay = mSelectedDay;
+        mBitmapKey.mToday = mToday;
+        mBitmapKey.mSelectableDays = mSelectableDays;
+        mBitmapKey.mEventMask = mEventMask;
+        mBitmapKey.mEventDensity = mEventDensity;
+        if (mEventDensity == PickerContext.EVENT_DENSITY_NONE || mEventDensity == PickerContext.EVENT_DENSITY_INDICATORS)
+        {
+            Arrays.fill(mBitmapKey.mEventCounts, 0);
+        }
+        else
+        {
+            System.arraycopy(mEventCounts, 0, mBitmapKey.mEventCounts, 0, mEventCounts.length);
+        }
+        mBitmapKey.mIndicatorCount = mIndicatorCount;
+        System.arraycopy(mIndicatorColors, 0, mBitmapKey.mIndicatorColors, 0, mIndicatorCount);
+        System.arraycopy(mIndicatorMasks, 0, mBitmapKey.mIndicatorMasks, 0, mIndicatorCount);
+        mBitmapKey.mWidth = getWidth();
+        mBitmapKey.mHeight = getHeight();
+    }
+
+
+    /**
+     * Renders the month into a bitmap of the {@link MonthBitmapCache} and adds it to the cache.
+     *
+     * @return The rendered month.
+     */
+    private Bitmap renderMonth()
+    {
+        Bitmap bitmap = mBitmapCache.get(mBitmapKey);
+        if (bitmap == null)
+        {
+            bitmap = Bitmap.createBitmap(mBitmapKey.mWidth, mBitmapKey.mHeight, Bitmap.Config.ARGB_8888);
+            mBitmapCanvas.setBitmap(bitmap);
+            drawMonth(mBitmapCanvas);
+            mBitmapCanvas.setBitmap(null);
+            mBitmapCache.put(mBitmapKey, bitmap);
+        }
+        return bitmap;
+    }
+
+
+    /**
+     * Sets the {@link MonthBitmapCache} to draw from while it's active.
+     *
+     * @param bitmapCache
+     *         The {@link MonthBitmapCache} or {@code null} to always draw live.
+     */
+    void setBitmapCache(MonthBitmapCache bitmapCache)
+    {
+        mBitmapCache = bitmapCache;
+    }
+
+
     private int mDayOfWeekStart = 0;
 
 
@@ -369,6 +516,8 @@ public abstract class MonthView extends View
      * Sets all the parameters for displaying this week. The only required parameter is the week number. Other parameters have a default value and will only
      * update if a new value is included, except for focus month, which will always default to no focus month if no value is passed in. See
      * {@link #VIEW_PARAMS_HEIGHT} for more info on parameters.
+     * <p>
+     * This is a compatibility adapter for {@link #setMonthParams(MonthParams)}, which binds the view without boxing and hashing.
      *
      * @param params
      *         A map of the new parameters, see {@link #VIEW_PARAMS_HEIGHT}
@@ -380,35 +529,59 @@ public abstract class MonthView extends View
             throw new InvalidParameterException("You must specify month and year for this view");
         }
         setTag(params);
-        // We keep the current value for any params not present
+        mMapParams.clear();
+        mMapParams.setMonth(params.get(VIEW_PARAMS_YEAR), params.get(VIEW_PARAMS_MONTH));
         if (params.containsKey(VIEW_PARAMS_HEIGHT))
         {
-            mRowHeight = params.get(VIEW_PARAMS_HEIGHT);
-            if (mRowHeight < MIN_HEIGHT)
-            {
-                mRowHeight = MIN_HEIGHT;
-            }
+            mMapParams.setRowHeight(params.get(VIEW_PARAMS_HEIGHT));
         }
         if (params.containsKey(VIEW_PARAMS_SELECTED_DAY))
         {
-            mSelectedDay = params.get(VIEW_PARAMS_SELECTED_DAY);
+            mMapParams.setSelectedDay(params.get(VIEW_PARAMS_SELECTED_DAY));
         }
+        if (params.containsKey(VIEW_PARAMS_WEEK_START))
+        {
+            mMapParams.setWeekStart(params.get(VIEW_PARAMS_WEEK_START));
+        }
+        setMonthParams(mMapParams);
+    }
 
-        // Allocate space for caching the day numbers and focus values
-        mMonth = params.get(VIEW_PARAMS_MONTH);
-        mYear = params.get(VIEW_PARAMS_YEAR);
 
-        // Figure out what day today is
-        final DateTime today = DateTime.nowAndHere();
-        mHasToday = false;
-        mToday = -1;
+    /**
+     * Binds this view to the month of the given {@link MonthParams}. Optional parameters which are {@link MonthParams#UNSET} keep their current value,
+     * except for the week start, which defaults to the first day of the week of the default locale.
+     *
+     * @param params
+     *         The {@link MonthParams}, the values are copied.
+     */
+    public void setMonthParams(MonthParams params)
+    {
+        if (params.mYear == MonthParams.UNSET || params.mMonth == MonthParams.UNSET)
+        {
+            throw new InvalidParameterException("You must specify month and year for this view");
+        }
+        // a miss of the previous month doesn't need to be rendered anymore
+        mBitmapMissed = false;
+        // We keep the current value for any params not present
+        if (params.mRowHeight != MonthParams.UNSET)
+        {
+            mRowHeight = Math.max(params.mRowHeight, MIN_HEIGHT);
+        }
+        if (params.mSelectedDay != MonthParams.UNSET)
+        {
+            mSelectedDay = params.mSelectedDay;
+        }
+
+        mMonth = params.mMonth;
+        mYear = params.mYear;
 
         mCalendar = new DateTime(mYear, mMonth, 1);
         mDayOfWeekStart = mCalendar.getDayOfWeek();
+        mMonthTitle = getMonthAndYearString();
 
-        if (params.containsKey(VIEW_PARAMS_WEEK_START))
+        if (params.mWeekStart != MonthParams.UNSET)
         {
-            mWeekStart = params.get(VIEW_PARAMS_WEEK_START);
+            mWeekStart = params.mWeekStart;
         }
         else
         {
@@ -416,17 +589,17 @@ public abstract class MonthView extends View
         }
 
         mNumCells = mCalendar.getCalendarMetrics().getDaysPerPackedMonth(mYear, mMonth);
-        for (int i = 0; i < mNumCells; i++)
-        {
-            final int day = i + 1;
-            if (sameDay(day, today))
-            {
-                mHasToday = true;
-                mToday = day;
-            }
-        }
+
+        // Figure out what day today is
+        final DateTime today = DateTime.nowAndHere();
+        mHasToday = mYear == today.getYear() && mMonth == today.getMonth();
+        mToday = mHasToday ? today.getDayOfMonth() : -1;
         mNumRows = calculateNumRows();
 
+        mSelectableDays = mPickerContext == null ? DayMask.ALL : mPickerContext.selectableDays(mYear, mMonth);
+
+        refreshEvents();
+
         // Invalidate cached accessibility information.
         mTouchHelper.invalidateRoot();
     }
@@ -445,6 +618,63 @@ public abstract class MonthView extends View
     }
 
 
+    /**
+     * Fetches the events of the current month from the {@link PickerContext} again. Call this if the events of this month have changed.
+     */
+    public void refreshEvents()
+    {
+        mEventMask = mPickerContext == null ? DayMask.NONE : mPickerContext.eventMask(mYear, mMonth);
+        mEventDensity = mPickerContext == null ? PickerContext.EVENT_DENSITY_NONE : mPickerContext.eventDensity();
+        mMaxEventCount = 0;
+        mIndicatorCount = 0;
+        if (mEventDensity == PickerContext.EVENT_DENSITY_INDICATORS)
+        {
+            mIndicatorCount = mPickerContext.eventIndicators(mYear, mMonth, mIndicatorColors, mIndicatorMasks);
+        }
+        else if (mEventDensity != PickerContext.EVENT_DENSITY_NONE)
+        {
+            mPickerContext.eventCounts(mYear, mMonth, mEventCounts);
+            for (int count : mEventCounts)
+            {
+                mMaxEventCount = Math.max(mMaxEventCount, count);
+            }
+        }
+    }
+
+
+    /**
+     * Returns whether the given day of the current month has any events.
+     *
+     * @param dayOfMonth
+     *         The day of month [1-31].
+     *
+     * @return {@code true} if there are events on that day.
+     */
+    protected boolean hasEvents(int dayOfMonth)
+    {
+        return DayMask.contains(mEventMask, dayOfMonth);
+    }
+
+
+    /**
+     * Returns the number of events on the given day of the current month. This is only available if {@link #mEventDensity} is {@link
+     * PickerContext#EVENT_DENSITY_TINT} or {@link PickerContext#EVENT_DENSITY_DOTS}, otherwise it returns {@code 1} for days having events.
+     *
+     * @param dayOfMonth
+     *         The day of month [1-31].
+     *
+     * @return The number of events on that day.
+     */
+    protected int eventCount(int dayOfMonth)
+    {
+        if (mEventDensity == PickerContext.EVENT_DENSITY_NONE || mEventDensity == PickerContext.EVENT_DENSITY_INDICATORS)
+        {
+            return hasEvents(dayOfMonth) ? 1 : 0;
+        }
+        return mEventCounts[dayOfMonth - 1];
+    }
+
+
     private int calculateNumRows()
     {
         int offset = findDayOffset();
@@ -454,12 +684,6 @@ public abstract class MonthView extends View
     }
 
 
-    private boolean sameDay(int day, DateTime today)
-    {
-        return mYear == today.getYear() && mMonth == today.getMonth() && day == today.getDayOfMonth();
-    }
-
-
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec)
     {
@@ -511,7 +735,11 @@ public abstract class MonthView extends View
     {
         int x = (mWidth + 2 * mEdgePadding) / 2;
         int y = (getMonthHeaderSize() - MONTH_DAY_LABEL_TEXT_SIZE) / 2 + (MONTH_LABEL_TEXT_SIZE / 3);
-        canvas.drawText(getMonthAndYearString(), x, y, mMonthTitlePaint);
+        if (mMonthTitle == null)
+        {
+            mMonthTitle = getMonthAndYearString();
+        }
+        canvas.drawText(mMonthTitle, x, y, mMonthTitlePaint);
     }
 
 
@@ -519,7 +747,7 @@ public abstract class MonthView extends View
     {
         int y = getMonthHeaderSize() - (MONTH_DAY_LABEL_TEXT_SIZE / 2);
         float dayWidthHalf = (mWidth - mEdgePadding * 2) / (mNumDays * 2.0f);
-        String[] shortWeekDays = new DateFormatSymbols(Locale.getDefault()).getShortWeekdays();
+        String[] shortWeekDays = weekdayLabels();
 
         for (int i = 0; i < mNumDays; i++)
         {
@@ -539,29 +767,117 @@ public abstract class MonthView extends View
      */
     protected void drawMonthNums(Canvas canvas)
     {
-        int y = (((mRowHeight + MINI_DAY_NUMBER_TEXT_SIZE) / 2) - DAY_SEPARATOR_WIDTH) + getMonthHeaderSize();
-        final float dayWidthHalf = (mWidth - mEdgePadding * 2) / (mNumDays * 2.0f);
-        int j = findDayOffset();
+        final MonthLayout layout = monthLayout();
+        Arrays.fill(mEventDotPointCounts, 0);
+        mSelectedDayDotPointCount = 0;
         for (int dayNumber = 1; dayNumber <= mNumCells; dayNumber++)
         {
-            final int x = (int) ((2 * j + 1) * dayWidthHalf + mEdgePadding);
+            final int i = dayNumber - 1;
+            if (mDrawsDateTimes)
+            {
+                drawMonthDay(canvas, PackedDay.toDateTime(PackedDay.of(mYear, mMonth, dayNumber)), layout.mCenterX[i], layout.mBaseline[i], layout.mLeft[i],
+                        layout.mRight[i], layout.mTopEdge[i], layout.mBottom[i]);
+            }
+            else
+            {
+                drawMonthDay(canvas, PackedDay.of(mYear, mMonth, dayNumber), layout.mCenterX[i], layout.mBaseline[i], layout.mLeft[i], layout.mRight[i],
+                        layout.mTopEdge[i], layout.mBottom[i]);
+            }
+            collectEventDots(dayNumber, layout.mCenterX[i], layout.mBaseline[i]);
+        }
+        drawEventDots(canvas);
+    }
 
-            int yRelativeToDay = (mRowHeight + MINI_DAY_NUMBER_TEXT_SIZE) / 2 - DAY_SEPARATOR_WIDTH;
 
-            final int startX = (int) (x - dayWidthHalf);
-            final int stopX = (int) (x + dayWidthHalf);
-            final int startY = (int) (y - yRelativeToDay);
-            final int stopY = (int) (startY + mRowHeight);
+    /**
+     * Returns the {@link MonthLayout} of the current month, size and row height. It's only recomputed if any of these has changed since the last call.
+     */
+    private MonthLayout monthLayout()
+    {
+        mMonthLayout.update(mNumCells, findDayOffset(), mNumDays, mWidth, mEdgePadding, getMonthHeaderSize(), mRowHeight,
+                (mRowHeight + MINI_DAY_NUMBER_TEXT_SIZE) / 2 - DAY_SEPARATOR_WIDTH);
+        return mMonthLayout;
+    }
 
-            drawMonthDay(canvas, new DateTime(mYear, mMonth, dayNumber), x, y, startX, stopX, startY, stopY);
 
-            j++;
-            if (j == mNumDays)
+    /**
+     * Collects the positions of the event dots of the given day, centered below the day number.
+     */
+    private void collectEventDots(int dayOfMonth, int x, int y)
+    {
+        int dotY = y + mEventDotRadius * 3;
+        int spacing = mEventDotRadius * 3;
+        if (mEventDensity == PickerContext.EVENT_DENSITY_DOTS)
+        {
+            // one dot per event, all in the same color
+            int dots = Math.min(mEventCounts[dayOfMonth - 1], MAX_EVENT_DOTS);
+            int dotX = x - (dots - 1) * spacing / 2;
+            for (int i = 0; i < dots; ++i)
             {
-                j = 0;
-                y += mRowHeight;
+                addEventDot(dayOfMonth, 0, dotX + i * spacing, dotY);
             }
         }
+        else if (mEventDensity == PickerContext.EVENT_DENSITY_INDICATORS)
+        {
+            // one dot per category having events on this day
+            int dots = 0;
+            for (int i = 0; i < mIndicatorCount; ++i)
+            {
+                if (DayMask.contains(mIndicatorMasks[i], dayOfMonth))
+                {
+                    ++dots;
+                }
+            }
+            int dotX = x - (dots - 1) * spacing / 2;
+            for (int i = 0; i < mIndicatorCount; ++i)
+            {
+                if (DayMask.contains(mIndicatorMasks[i], dayOfMonth))
+                {
+                    addEventDot(dayOfMonth, i, dotX, dotY);
+                    dotX += spacing;
+                }
+            }
+        }
+    }
+
+
+    private void addEventDot(int dayOfMonth, int color, float x, float y)
+    {
+        if (dayOfMonth == mSelectedDay)
+        {
+            mSelectedDayDotPoints[mSelectedDayDotPointCount] = x;
+            mSelectedDayDotPoints[mSelectedDayDotPointCount + 1] = y;
+            mSelectedDayDotPointCount += 2;
+            return;
+        }
+        float[] points = mEventDotPoints[color];
+        int count = mEventDotPointCounts[color];
+        points[count] = x;
+        points[count + 1] = y;
+        mEventDotPointCounts[color] = count + 2;
+    }
+
+
+    /**
+     * Draws the event dots collected by {@link #drawMonthNums(Canvas)} with one call per color and one for the selected day.
+     */
+    private void drawEventDots(Canvas canvas)
+    {
+        mEventDotPaint.setStrokeWidth(mEventDotRadius * 2);
+        for (int i = 0; i < MAX_EVENT_DOTS; ++i)
+        {
+            if (mEventDotPointCounts[i] > 0)
+            {
+                int color = mEventDensity == PickerContext.EVENT_DENSITY_INDICATORS ? mIndicatorColors[i] : 0;
+                mEventDotPaint.setColor(color == 0 ? mTodayNumberColor : color);
+                canvas.drawPoints(mEventDotPoints[i], 0, mEventDotPointCounts[i], mEventDotPaint);
+            }
+        }
+        if (mSelectedDayDotPointCount > 0)
+        {
+            mEventDotPaint.setColor(mSelectedDayTextColor);
+            canvas.drawPoints(mSelectedDayDotPoints, 0, mSelectedDayDotPointCount, mEventDotPaint);
+        }
     }
 
 
@@ -588,6 +904,103 @@ public abstract class MonthView extends View
     public abstract void drawMonthDay(Canvas canvas, DateTime date, int x, int y, int startX, int stopX, int startY, int stopY);
 
 
+    /**
+     * This method draws the month day given as a {@link PackedDay}. The default implementation converts the day into a {@link DateTime} and calls {@link
+     * #drawMonthDay(Canvas, DateTime, int, int, int, int, int, int)}. Sub-classes should override this to avoid allocating an object for every day.
+     * <p>
+     * If a sub-class overrides {@link #drawMonthDay(Canvas, DateTime, int, int, int, int, int, int)} below the class that implements this method, e.g.
+     * to customize a {@link SimpleMonthView}, the days are drawn with the {@link DateTime} variant instead, so existing overrides keep working.
+     *
+     * @param canvas
+     *         The canvas to draw on
+     * @param packedDay
+     *         The {@link PackedDay} to draw
+     * @param x
+     *         The default x position to draw the day number
+     * @param y
+     *         The default y position to draw the day number
+     * @param startX
+     *         The left boundary of the day number rect
+     * @param stopX
+     *         The right boundary of the day number rect
+     * @param startY
+     *         The top boundary of the day number rect
+     * @param stopY
+     *         The bottom boundary of the day number rect
+     */
+    public void drawMonthDay(Canvas canvas, int packedDay, int x, int y, int startX, int stopX, int startY, int stopY)
+    {
+        drawMonthDay(canvas, PackedDay.toDateTime(packedDay), x, y, startX, stopX, startY, stopY);
+    }
+
+
+    /**
+     * Returns whether the given class overrides {@link #drawMonthDay(Canvas, DateTime, int, int, int, int, int, int)} below the class that implements
+     * {@link #drawMonthDay(Canvas, int, int, int, int, int, int, int)}. Such a class would never see its days if they were drawn as {@link PackedDay}s.
+     *
+     * @param clazz
+     *         The class of a {@link MonthView}.
+     *
+     * @return {@code true} if the days must be drawn with the {@link DateTime} variant.
+     */
+    private static boolean drawsDateTimes(Class<?> clazz)
+    {
+        try
+        {
+            Class<?> dateTimeOwner = clazz.getMethod("drawMonthDay", Canvas.class, DateTime.class, int.class, int.class, int.class, int.class, int.class,
+                    int.class).getDeclaringClass();
+            Class<?> packedDayOwner = clazz.getMethod("drawMonthDay", Canvas.class, int.class, int.class, int.class, int.class, int.class, int.class,
+                    int.class).getDeclaringClass();
+            return dateTimeOwner != packedDayOwner && packedDayOwner.isAssignableFrom(dateTimeOwner);
+        }
+        catch (NoSuchMethodException e)
+        {
+            throw new RuntimeException("drawMonthDay not found", e);
+        }
+    }
+
+
+    /**
+     * Returns the given day of month formatted for the current locale. The day numbers are formatted only once per locale.
+     *
+     * @param dayOfMonth
+     *         The day of month [1-31].
+     *
+     * @return The formatted day number.
+     */
+    protected static String formatDayNumber(int dayOfMonth)
+    {
+        Locale locale = Locale.getDefault();
+        if (!locale.equals(sDayNumbersLocale))
+        {
+            String[] dayNumbers = new String[32];
+            for (int i = 1; i < dayNumbers.length; ++i)
+            {
+                dayNumbers[i] = String.format(locale, "%d", i);
+            }
+            sDayNumbers = dayNumbers;
+            sDayNumbersLocale = locale;
+        }
+        return sDayNumbers[dayOfMonth];
+    }
+
+
+    /**
+     * Returns the short weekday labels of the default locale, indexed like {@link Calendar#SUNDAY} to {@link Calendar#SATURDAY}. They are cached, so this
+     * doesn't allocate anything while drawing, unless the locale has changed.
+     */
+    private static String[] weekdayLabels()
+    {
+        Locale locale = Locale.getDefault();
+        if (!locale.equals(sWeekdayLabelsLocale))
+        {
+            sWeekdayLabels = new DateFormatSymbols(locale).getShortWeekdays();
+            sWeekdayLabelsLocale = locale;
+        }
+        return sWeekdayLabels;
+    }
+
+
     protected int findDayOffset()
     {
         return (mDayOfWeekStart < mWeekStart ? (mDayOfWeekStart + mNumDays) : mDayOfWeekStart) - mWeekStart;
@@ -604,12 +1017,7 @@ public abstract class MonthView extends View
      */
     public int getDayFromLocation(float x, float y)
     {
-        final int day = getInternalDayFromLocation(x, y);
-        if (day < 1 || day > mNumCells)
-        {
-            return -1;
-        }
-        return day;
+        return monthLayout().dayAt(x, y);
     }
 
 
@@ -619,22 +1027,16 @@ public abstract class MonthView extends View
      * @param x
      *         The x position of the touch event
      *
-     * @return The day number
+     * @return The day number, which may be outside of the current month, or -1 if the position is not within the columns of the grid
      */
     protected int getInternalDayFromLocation(float x, float y)
     {
-        int dayStart = mEdgePadding;
-        if (x < dayStart || x > mWidth - mEdgePadding)
+        final int cell = monthLayout().cellAt(x, y);
+        if (cell < 0)
         {
             return -1;
         }
-        // Selection is (x - start) / (pixels/day) == (x -s) * day / pixels
-        int row = (int) (y - getMonthHeaderSize()) / mRowHeight;
-        int column = (int) ((x - dayStart) * mNumDays / (mWidth - dayStart - mEdgePadding));
-
-        int day = column - findDayOffset() + 1;
-        day += row * mNumDays;
-        return day;
+        return cell - findDayOffset() + 1;
     }
 
 
@@ -648,16 +1050,15 @@ public abstract class MonthView extends View
      */
     private void onDayClick(int day)
     {
-        DateTime date = new DateTime(mYear, mMonth, day);
         // If the min / max date are set, only process the click if it's a valid selection.
-        if (isOutOfRange(date))
+        if (!isSelectable(day))
         {
             return;
         }
 
         if (mOnDayClickListener != null)
         {
-            mOnDayClickListener.onDayClick(this, date);
+            mOnDayClickListener.onDayClick(this, new DateTime(mYear, mMonth, day));
         }
 
         // This is a no-op if accessibility is turned off.
@@ -677,6 +1078,31 @@ public abstract class MonthView extends View
     }
 
 
+    /**
+     * @return true if the specified {@link PackedDay} of the current month can not be picked, either because it's not within the range set by minDate and
+     * maxDate or because it has been disabled. Unlike {@link #isOutOfRange(DateTime)} this uses the selectable days that have been fetched when the month was
+     * bound.
+     */
+    protected boolean isOutOfRange(int packedDay)
+    {
+        return !isSelectable(PackedDay.dayOfMonth(packedDay));
+    }
+
+
+    /**
+     * Returns whether the given day of the current month can be picked.
+     *
+     * @param dayOfMonth
+     *         The day of month [1-31].
+     *
+     * @return {@code true} if the day is within the range set by minDate and maxDate and has not been disabled.
+     */
+    protected boolean isSelectable(int dayOfMonth)
+    {
+        return DayMask.contains(mSelectableDays, dayOfMonth);
+    }
+
+
     /**
      * @return The date that has accessibility focus, or {@code null} if no date has focus
      */
@@ -789,7 +1215,13 @@ public abstract class MonthView extends View
 
             node.setContentDescription(getItemDescription(virtualViewId));
             node.setBoundsInParent(mTempRect);
-            node.addAction(AccessibilityNodeInfo.ACTION_CLICK);
+            // days that can't be picked are announced as disabled and don't offer a click action
+            final boolean selectable = isSelectable(virtualViewId);
+            node.setEnabled(selectable);
+            if (selectable)
+            {
+                node.addAction(AccessibilityNodeInfo.ACTION_CLICK);
+            }
 
             if (virtualViewId == mSelectedDay)
             {
@@ -823,17 +1255,7 @@ public abstract class MonthView extends View
          */
         protected void getItemBounds(int day, Rect rect)
         {
-            final int offsetX = mEdgePadding;
-            final int offsetY = getMonthHeaderSize();
-            final int cellHeight = mRowHeight;
-            final int cellWidth = ((mWidth - (2 * mEdgePadding)) / mNumDays);
-            final int index = ((day - 1) + findDayOffset());
-            final int row = (index / mNumDays);
-            final int column = (index % mNumDays);
-            final int x = (offsetX + (column * cellWidth));
-            final int y = (offsetY + (row * cellHeight));
-
-            rect.set(x, y, (x + cellWidth), (y + cellHeight));
+            monthLayout().getBounds(day, rect);
         }
 
 
@@ -18,12 +18,23 @@ package org.dmfs.android.instantpicker.date;
 
 import android.content.Context;
 import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Paint.Style;
 
+import org.dmfs.android.instantpicker.PickerContext;
+import org.dmfs.android.instantpicker.events.PackedDay;
 import org.dmfs.rfc5545.DateTime;
 
 
 public class SimpleMonthView extends MonthView
 {
+    // the alpha range of the event density tint
+    private final static int MIN_TINT_ALPHA = 40;
+    private final static int MAX_TINT_ALPHA = 160;
+
+    // this is assigned in initView(), which is called by the super constructor, so it must not have an initializer
+    private Paint mEventDensityPaint;
+
 
     public SimpleMonthView(Context context)
     {
@@ -31,28 +42,54 @@ public class SimpleMonthView extends MonthView
     }
 
 
+    @Override
+    protected void initView()
+    {
+        super.initView();
+
+        mEventDensityPaint = new Paint();
+        mEventDensityPaint.setAntiAlias(true);
+        mEventDensityPaint.setColor(mTodayNumberColor);
+        mEventDensityPaint.setStyle(Style.FILL);
+    }
+
+
     @Override
     public void drawMonthDay(Canvas canvas, DateTime date, int x, int y, int startX, int stopX, int startY, int stopY)
     {
-        if (mSelectedDay == date.getDayOfMonth())
+        drawMonthDay(canvas, PackedDay.of(date), x, y, startX, stopX, startY, stopY);
+    }
+
+
+    @Override
+    public void drawMonthDay(Canvas canvas, int packedDay, int x, int y, int startX, int stopX, int startY, int stopY)
+    {
+        final int dayOfMonth = PackedDay.dayOfMonth(packedDay);
+        if (mSelectedDay == dayOfMonth)
         {
             canvas.drawCircle(x, y - (MINI_DAY_NUMBER_TEXT_SIZE / 3), DAY_SELECTED_CIRCLE_SIZE, mSelectedCirclePaint);
         }
+        else if (mEventDensity == PickerContext.EVENT_DENSITY_TINT && mEventCounts[dayOfMonth - 1] > 0)
+        {
+            // the busiest day of the month gets the strongest tint
+            mEventDensityPaint.setAlpha(MIN_TINT_ALPHA + (MAX_TINT_ALPHA - MIN_TINT_ALPHA) * mEventCounts[dayOfMonth - 1] / mMaxEventCount);
+            canvas.drawCircle(x, y - (MINI_DAY_NUMBER_TEXT_SIZE / 3), DAY_SELECTED_CIRCLE_SIZE, mEventDensityPaint);
+        }
 
-        // If we have a mindate or maxdate, gray out the day number if it's outside the range.
-        if (isOutOfRange(date))
+        // Gray out the day number if it's outside the range or disabled.
+        if (!isSelectable(dayOfMonth))
         {
             mMonthNumPaint.setColor(mDisabledDayTextColor);
         }
-        else if (mSelectedDay == date.getDayOfMonth())
+        else if (mSelectedDay == dayOfMonth)
         {
             mMonthNumPaint.setColor(mSelectedDayTextColor);
         }
-        else if (mPickerContext.hasEvents(date))
+        else if (mEventDensity == PickerContext.EVENT_DENSITY_NONE && hasEvents(dayOfMonth))
         {
             mMonthNumPaint.setColor(mTodayNumberColor);
         }
-        else if (mHasToday && mToday == date.getDayOfMonth())
+        else if (mHasToday && mToday == dayOfMonth)
         {
             mMonthNumPaint.setColor(mSelectedDayColor);
         }
@@ -60,6 +97,6 @@ public class SimpleMonthView extends MonthView
         {
             mMonthNumPaint.setColor(mDayTextColor);
         }
-        canvas.drawText(String.format("%d", date.getDayOfMonth()), x, y, mMonthNumPaint);
+        canvas.drawText(formatDayNumber(dayOfMonth), x, y, mMonthNumPaint);
     }
 }
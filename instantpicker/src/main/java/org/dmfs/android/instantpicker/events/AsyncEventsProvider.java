@@ -0,0 +1,470 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.android.instantpicker.events;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.support.v4.os.CancellationSignal;
+import android.support.v4.os.OperationCanceledException;
+import android.util.Log;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+
+import org.dmfs.rfc5545.DateTime;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+
+/**
+ * An abstract {@link EventsProvider} that loads the events of a month on a worker thread.
+ * <p>
+ * Months that have not been loaded yet are reported as {@link DayMask#UNKNOWN} and scheduled for loading. Once a month has been loaded, the {@link
+ * OnLoadListener} is notified on the main thread. Loaded months are kept in a bounded {@link EventMaskCache}. Loads of months outside of the {@link
+ * #retainWindow(int, int) retained window} are cancelled. If a cancelled load was a reload after a change, the previous result of the month is dropped as
+ * well, so it's loaded again when requested, and the listener is notified about the change. All methods of this class, except for {@link
+ * #loadEventMask(int, int, CancellationSignal)}, must be called on the main thread.
+ */
+public abstract class AsyncEventsProvider implements EventsProvider
+{
+    private final static String TAG = "AsyncEventsProvider";
+
+    /**
+     * The {@link ThreadFactory} of the threads that load events. The threads run at background priority and don't keep the process alive.
+     */
+    final static ThreadFactory LOADER_THREAD_FACTORY = new ThreadFactory()
+    {
+        @Override
+        public Thread newThread(final Runnable runnable)
+        {
+            Thread thread = new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                    runnable.run();
+                }
+            }, "EventsProvider loader");
+            thread.setDaemon(true);
+            return thread;
+        }
+    };
+
+    /**
+     * The default {@link Executor} to load events. It's shared among all providers, so they don't compete for disk access.
+     */
+    private final static Executor DEFAULT_EXECUTOR = Executors.newSingleThreadExecutor(LOADER_THREAD_FACTORY);
+
+    /**
+     * The default number of loaded months to keep.
+     */
+    public final static int DEFAULT_CACHE_SIZE = 120;
+
+    // the values of mPending, a stale load has been started before the month changed, so its result is discarded
+    private final static int PENDING = 1;
+    private final static int PENDING_STALE = 2;
+
+    private final Executor mExecutor;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    // the masks of the most recently used months
+    private final EventMaskCache mEventMasks;
+    // the months that are currently being loaded
+    private final SparseIntArray mPending = new SparseIntArray(8);
+    // the CancellationSignals of the pending months
+    private final SparseArray<CancellationSignal> mCancellationSignals = new SparseArray<>(8);
+    // incremented on every reset to discard the results of loads started before
+    private int mGeneration;
+    // the first and last month of the retained window, all months are retained until a window has been set
+    private int mWindowFrom = Integer.MIN_VALUE;
+    private int mWindowTo = Integer.MAX_VALUE;
+
+    private OnLoadListener mOnLoadListener;
+
+
+    public AsyncEventsProvider()
+    {
+        this(DEFAULT_EXECUTOR);
+    }
+
+
+    /**
+     * Creates an {@link AsyncEventsProvider} that loads its events using the given {@link Executor}.
+     *
+     * @param executor
+     *         The {@link Executor} to run {@link #loadEventMask(int, int)} on.
+     */
+    public AsyncEventsProvider(Executor executor)
+    {
+        this(executor, DEFAULT_CACHE_SIZE);
+    }
+
+
+    /**
+     * Creates an {@link AsyncEventsProvider} that loads its events using the given {@link Executor} and keeps up to {@code cacheSize} loaded months. Months
+     * that have been evicted from the cache are loaded again when requested.
+     *
+     * @param executor
+     *         The {@link Executor} to run {@link #loadEventMask(int, int)} on.
+     * @param cacheSize
+     *         The maximum number of months to keep, must be positive.
+     */
+    public AsyncEventsProvider(Executor executor, int cacheSize)
+    {
+        if (cacheSize <= 0)
+        {
+            throw new IllegalArgumentException("The cache size must be positive");
+        }
+        mExecutor = executor;
+        mEventMasks = new EventMaskCache(cacheSize);
+    }
+
+
+    /**
+     * Loads the {@link DayMask} of the given month. This is called on a worker thread, so implementations may perform blocking I/O, but must not access any
+     * state that's modified on the main thread without proper synchronization.
+     *
+     * @param year
+     *         The year.
+     * @param month
+     *         The month [0-11].
+     *
+     * @return The {@link DayMask} of the days with events.
+     */
+    protected abstract int loadEventMask(int year, int month);
+
+
+    /**
+     * Loads the {@link DayMask} of the given month, unless the load is cancelled. This is called on a worker thread, just like {@link #loadEventMask(int,
+     * int)}, which is called by the default implementation. Providers that perform expensive work should override this and call {@link
+     * CancellationSignal#throwIfCanceled()} every now and then or pass the signal to the APIs they call.
+     *
+     * @param year
+     *         The year.
+     * @param month
+     *         The month [0-11].
+     * @param cancellationSignal
+     *         The {@link CancellationSignal} of this load.
+     *
+     * @return The {@link DayMask} of the days with events.
+     *
+     * @throws OperationCanceledException
+     *         if the load has been cancelled.
+     */
+    protected int loadEventMask(int year, int month, CancellationSignal cancellationSignal)
+    {
+        return loadEventMask(year, month);
+    }
+
+
+    @Override
+    public boolean hasEventsOn(DateTime day)
+    {
+        return DayMask.contains(eventMask(day.getYear(), day.getMonth()), day.getDayOfMonth());
+    }
+
+
+    @Override
+    public boolean hasEventsOn(int packedDay)
+    {
+        return DayMask.contains(eventMask(PackedDay.year(packedDay), PackedDay.month(packedDay)), PackedDay.dayOfMonth(packedDay));
+    }
+
+
+    @Override
+    public int eventMask(int year, int month)
+    {
+        int mask = mEventMasks.get(year, month);
+        if (DayMask.isKnown(mask))
+        {
+            return mask;
+        }
+        load(year, month);
+        return DayMask.UNKNOWN;
+    }
+
+
+    @Override
+    public void prefetch(int year, int month)
+    {
+        if (!mEventMasks.contains(year, month))
+        {
+            load(year, month);
+        }
+    }
+
+
+    @Override
+    public void setOnLoadListener(OnLoadListener listener)
+    {
+        mOnLoadListener = listener;
+    }
+
+
+    @Override
+    public void retainWindow(int fromPackedDay, int toPackedDay)
+    {
+        int from = monthKey(PackedDay.year(fromPackedDay), PackedDay.month(fromPackedDay));
+        int to = monthKey(PackedDay.year(toPackedDay), PackedDay.month(toPackedDay));
+        mWindowFrom = from;
+        mWindowTo = to;
+        // the ranges of dropped months before and after the window
+        int droppedBefore = Integer.MAX_VALUE;
+        int droppedAfter = Integer.MIN_VALUE;
+        // iterate backwards, deleting a key doesn't change the indexes of the keys before it
+        for (int i = mPending.size() - 1; i >= 0; --i)
+        {
+            int key = mPending.keyAt(i);
+            if (key < from || key > to)
+            {
+                mCancellationSignals.get(key).cancel();
+                mCancellationSignals.delete(key);
+                mPending.delete(key);
+                if (mEventMasks.contains(key / 12, key % 12))
+                {
+                    // the month has been loaded before, so this was a reload after a change and the previous result is outdated
+                    mEventMasks.remove(key / 12, key % 12);
+                    if (key < from)
+                    {
+                        droppedBefore = Math.min(droppedBefore, key);
+                    }
+                    else
+                    {
+                        droppedAfter = Math.max(droppedAfter, key);
+                    }
+                }
+            }
+        }
+
+        // consumers may have built something from the outdated results, notify them only now, in case they request other months in return
+        if (mOnLoadListener != null && droppedBefore < from)
+        {
+            mOnLoadListener.onEventsChanged(this, firstDay(droppedBefore), PackedDay.lastOfMonth((from - 1) / 12, (from - 1) % 12));
+        }
+        if (mOnLoadListener != null && droppedAfter > to)
+        {
+            mOnLoadListener.onEventsChanged(this, firstDay(to + 1), PackedDay.lastOfMonth(droppedAfter / 12, droppedAfter % 12));
+        }
+    }
+
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This cancels all pending loads and removes the listener. Subclasses that hold additional resources should override this and call through to super.
+     */
+    @Override
+    public void close()
+    {
+        cancelAll();
+        mEventMasks.clear();
+        setOnLoadListener(null);
+    }
+
+
+    /**
+     * Drops all loaded months, so they are loaded again when requested the next time.
+     */
+    protected void reset()
+    {
+        cancelAll();
+        mEventMasks.clear();
+        if (mOnLoadListener != null)
+        {
+            mOnLoadListener.onLoad(this);
+        }
+    }
+
+
+    /**
+     * Notifies the provider that the events between the given days have changed.
+     * <p>
+     * Affected months within the {@link #retainWindow(int, int) retained window} that have been loaded are loaded again in the background, until then the
+     * previous result is returned. Affected months outside of the window are dropped, so they are loaded again when requested. Afterwards {@link
+     * OnLoadListener#onEventsChanged(EventsProvider, int, int)} is called. Only call this if you know which days have changed, otherwise use {@link
+     * #notifyChanged()}.
+     *
+     * @param fromPackedDay
+     *         The first {@link PackedDay} that changed.
+     * @param toPackedDay
+     *         The last {@link PackedDay} that changed.
+     */
+    protected void notifyChanged(int fromPackedDay, int toPackedDay)
+    {
+        int from = monthKey(PackedDay.year(fromPackedDay), PackedDay.month(fromPackedDay));
+        int to = monthKey(PackedDay.year(toPackedDay), PackedDay.month(toPackedDay));
+
+        // don't load months nobody looks at right now
+        if (from < mWindowFrom)
+        {
+            mEventMasks.removeRange(firstDay(from), firstDay(Math.min(to, mWindowFrom - 1)));
+        }
+        if (to > mWindowTo)
+        {
+            mEventMasks.removeRange(firstDay(Math.max(from, mWindowTo + 1)), firstDay(to));
+        }
+
+        // mark running loads first, so the loads started below are not affected
+        for (int i = 0, count = mPending.size(); i < count; ++i)
+        {
+            int key = mPending.keyAt(i);
+            if (key >= from && key <= to)
+            {
+                // replacing the value of an existing key doesn't change the indexes
+                mPending.put(key, PENDING_STALE);
+            }
+        }
+
+        for (int i = 0, count = mEventMasks.size(); i < count; ++i)
+        {
+            int key = mEventMasks.monthAt(i);
+            if (key > to)
+            {
+                break;
+            }
+            if (key >= from)
+            {
+                load(key / 12, key % 12);
+            }
+        }
+
+        if (mOnLoadListener != null)
+        {
+            mOnLoadListener.onEventsChanged(this, fromPackedDay, toPackedDay);
+        }
+    }
+
+
+    /**
+     * Notifies the provider that events have changed, without knowing which. All loaded months within the {@link #retainWindow(int, int) retained window} are
+     * loaded again in the background, until then the previous results are returned. All other loaded months are dropped, so they are loaded again when
+     * requested. Unlike {@link #reset()} this doesn't drop the results of the retained window.
+     */
+    protected void notifyChanged()
+    {
+        int count = mEventMasks.size();
+        if (count > 0)
+        {
+            int last = mEventMasks.monthAt(count - 1);
+            notifyChanged(firstDay(mEventMasks.monthAt(0)), PackedDay.lastOfMonth(last / 12, last % 12));
+        }
+    }
+
+
+    private void cancelAll()
+    {
+        mGeneration++;
+        for (int i = 0, count = mCancellationSignals.size(); i < count; ++i)
+        {
+            mCancellationSignals.valueAt(i).cancel();
+        }
+        mCancellationSignals.clear();
+        mPending.clear();
+    }
+
+
+    private void load(final int year, final int month)
+    {
+        final int key = monthKey(year, month);
+        if (mPending.indexOfKey(key) >= 0)
+        {
+            // already loading
+            return;
+        }
+        final CancellationSignal cancellationSignal = new CancellationSignal();
+        mPending.put(key, PENDING);
+        mCancellationSignals.put(key, cancellationSignal);
+        final int generation = mGeneration;
+        mExecutor.execute(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                if (cancellationSignal.isCanceled())
+                {
+                    // cancelled before it even started
+                    return;
+                }
+                int mask;
+                try
+                {
+                    mask = loadEventMask(year, month, cancellationSignal);
+                }
+                catch (OperationCanceledException e)
+                {
+                    // nobody is interested in the result anymore
+                    return;
+                }
+                catch (RuntimeException e)
+                {
+                    // don't try again, the provider is probably broken
+                    Log.e(TAG, "Failed to load events of " + year + "-" + (month + 1), e);
+                    mask = DayMask.NONE;
+                }
+                final int result = mask & DayMask.ALL;
+                mHandler.post(new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        onMonthLoaded(generation, cancellationSignal, year, month, result);
+                    }
+                });
+            }
+        });
+    }
+
+
+    private void onMonthLoaded(int generation, CancellationSignal cancellationSignal, int year, int month, int mask)
+    {
+        if (generation != mGeneration || cancellationSignal.isCanceled())
+        {
+            // the provider has been reset or the load has been cancelled in the meantime, discard the result
+            return;
+        }
+        int key = monthKey(year, month);
+        boolean stale = mPending.get(key) == PENDING_STALE;
+        mPending.delete(key);
+        mCancellationSignals.delete(key);
+        if (stale)
+        {
+            // the month has changed while it was being loaded, the result may be outdated
+            load(year, month);
+            return;
+        }
+        mEventMasks.put(year, month, mask);
+        if (mOnLoadListener != null)
+        {
+            mOnLoadListener.onLoad(this, year, month);
+        }
+    }
+
+
+    private static int monthKey(int year, int month)
+    {
+        return year * 12 + month;
+    }
+
+
+    private static int firstDay(int monthKey)
+    {
+        return PackedDay.firstOfMonth(monthKey / 12, monthKey % 12);
+    }
+}
@@ -0,0 +1,315 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.android.instantpicker.events;
+
+import android.content.ContentResolver;
+import android.content.ContentUris;
+import android.database.ContentObserver;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.provider.CalendarContract;
+import android.support.v4.content.ContentResolverCompat;
+import android.support.v4.os.CancellationSignal;
+import android.util.Log;
+
+import org.dmfs.rfc5545.DateTime;
+import org.dmfs.rfc5545.Duration;
+
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+
+
+/**
+ * An {@link EventsProvider} that returns the event instances of the Android calendar provider.
+ * <p>
+ * The events of a month are loaded in the background with a single query on {@link CalendarContract.Instances}. Only the begin, end and all-day columns are
+ * read, into primitive arrays, from which the {@link DayMask} of the month is built. Queries of months that leave the {@link #retainWindow(int, int)
+ * retained window} are cancelled. If the app doesn't hold the {@code READ_CALENDAR} permission, there are no events.
+ */
+public class CalendarEventsProvider extends AsyncEventsProvider
+{
+    private final static String TAG = "CalendarEventsProvider";
+
+    private final static String[] MASK_PROJECTION = {
+            CalendarContract.Instances.BEGIN,
+            CalendarContract.Instances.END,
+            CalendarContract.Instances.ALL_DAY };
+
+    private final static String[] EVENTS_PROJECTION = {
+            CalendarContract.Instances.BEGIN,
+            CalendarContract.Instances.END,
+            CalendarContract.Instances.ALL_DAY,
+            CalendarContract.Instances.TITLE };
+
+    private final static int COLUMN_BEGIN = 0;
+    private final static int COLUMN_END = 1;
+    private final static int COLUMN_ALL_DAY = 2;
+    private final static int COLUMN_TITLE = 3;
+
+    private final static String SELECTION = CalendarContract.Instances.VISIBLE + "=1";
+
+    private final static long ONE_DAY_MILLIS = 24 * 60 * 60 * 1000L;
+
+    private final static TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    /**
+     * The time to wait after a change before loading the events again. Syncs tend to send a lot of changes in a row, they are handled together.
+     */
+    private final static long CHANGE_DELAY_MILLIS = 500;
+
+    private final ContentResolver mContentResolver;
+    private final Uri mInstancesUri;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final Runnable mNotifyChangedRunnable = new Runnable()
+    {
+        @Override
+        public void run()
+        {
+            mChangePending = false;
+            // the calendar provider doesn't tell us what changed
+            notifyChanged();
+        }
+    };
+    private final ContentObserver mContentObserver = new ContentObserver(mHandler)
+    {
+        @Override
+        public void onChange(boolean selfChange)
+        {
+            if (!mChangePending)
+            {
+                mChangePending = true;
+                mHandler.postDelayed(mNotifyChangedRunnable, CHANGE_DELAY_MILLIS);
+            }
+        }
+    };
+    private boolean mObserving;
+    private boolean mChangePending;
+
+
+    public CalendarEventsProvider(ContentResolver contentResolver)
+    {
+        this(contentResolver, CalendarContract.Instances.CONTENT_URI);
+    }
+
+
+    /**
+     * Creates a {@link CalendarEventsProvider} that queries the given instances {@link Uri}. The {@link Uri} must accept a begin and end timestamp as
+     * additional path segments, just like {@link CalendarContract.Instances#CONTENT_URI}.
+     *
+     * @param contentResolver
+     *         The {@link ContentResolver} to query.
+     * @param instancesUri
+     *         The {@link Uri} of the instances table.
+     */
+    public CalendarEventsProvider(ContentResolver contentResolver, Uri instancesUri)
+    {
+        mContentResolver = contentResolver;
+        mInstancesUri = instancesUri;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * While a listener is set, the calendar provider is observed and changed events are loaded again. Changes are collected for half a
+     * second, then the loaded months in the {@link #retainWindow(int, int) retained window} are loaded again once and all others are dropped.
+     */
+    @Override
+    public void setOnLoadListener(OnLoadListener listener)
+    {
+        super.setOnLoadListener(listener);
+        if (listener != null && !mObserving)
+        {
+            try
+            {
+                mContentResolver.registerContentObserver(CalendarContract.CONTENT_URI, true, mContentObserver);
+                mObserving = true;
+            }
+            catch (SecurityException e)
+            {
+                Log.w(TAG, "Can't observe the calendar provider", e);
+            }
+        }
+        else if (listener == null && mObserving)
+        {
+            mContentResolver.unregisterContentObserver(mContentObserver);
+            mObserving = false;
+            mHandler.removeCallbacks(mNotifyChangedRunnable);
+            mChangePending = false;
+        }
+    }
+
+
+    @Override
+    protected int loadEventMask(int year, int month)
+    {
+        return loadEventMask(year, month, null);
+    }
+
+
+    @Override
+    protected int loadEventMask(int year, int month, CancellationSignal cancellationSignal)
+    {
+        Calendar local = Calendar.getInstance();
+        Calendar utc = Calendar.getInstance(UTC);
+
+        // all-day instances are stored in UTC, so extend the window by a day on each side to make sure we get them all
+        local.clear();
+        local.set(year, month, 1);
+        long begin = local.getTimeInMillis() - ONE_DAY_MILLIS;
+        local.add(Calendar.MONTH, 1);
+        long end = local.getTimeInMillis() + ONE_DAY_MILLIS;
+
+        Cursor cursor = query(MASK_PROJECTION, begin, end, cancellationSignal);
+        if (cursor == null)
+        {
+            return DayMask.NONE;
+        }
+        int count = 0;
+        long[] begins;
+        long[] ends;
+        boolean[] allDay;
+        try
+        {
+            int size = cursor.getCount();
+            begins = new long[size];
+            ends = new long[size];
+            allDay = new boolean[size];
+            while (count < size && cursor.moveToNext())
+            {
+                if (cancellationSignal != null && count % 256 == 0)
+                {
+                    cancellationSignal.throwIfCanceled();
+                }
+                begins[count] = cursor.getLong(COLUMN_BEGIN);
+                ends[count] = cursor.getLong(COLUMN_END);
+                allDay[count] = cursor.getInt(COLUMN_ALL_DAY) != 0;
+                count++;
+            }
+        }
+        finally
+        {
+            cursor.close();
+        }
+
+        int first = PackedDay.firstOfMonth(year, month);
+        int last = PackedDay.lastOfMonth(year, month);
+        int mask = DayMask.NONE;
+        for (int i = 0; i < count; ++i)
+        {
+            Calendar calendar = allDay[i] ? utc : local;
+            int startDay = packedDay(calendar, begins[i]);
+            // the end is exclusive
+            int endDay = ends[i] > begins[i] ? packedDay(calendar, ends[i] - 1) : startDay;
+            if (endDay < first || startDay > last)
+            {
+                continue;
+            }
+            // within a month packed days are consecutive
+            for (int day = Math.max(startDay, first), lastDay = Math.min(endDay, last); day <= lastDay; ++day)
+            {
+                mask = DayMask.with(mask, PackedDay.dayOfMonth(day));
+            }
+        }
+        return mask;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Note, this queries the calendar provider synchronously, so it should not be called while drawing.
+     */
+    @Override
+    public void appendEventsTo(DateTime day, List<Event> events)
+    {
+        Calendar local = Calendar.getInstance();
+        local.clear();
+        local.set(day.getYear(), day.getMonth(), day.getDayOfMonth());
+        long begin = local.getTimeInMillis();
+        local.add(Calendar.DAY_OF_MONTH, 1);
+        long end = local.getTimeInMillis();
+
+        Cursor cursor = query(EVENTS_PROJECTION, begin - ONE_DAY_MILLIS, end + ONE_DAY_MILLIS, null);
+        if (cursor == null)
+        {
+            return;
+        }
+        try
+        {
+            int packedDay = PackedDay.of(day);
+            Calendar utc = Calendar.getInstance(UTC);
+            while (cursor.moveToNext())
+            {
+                long instanceBegin = cursor.getLong(COLUMN_BEGIN);
+                long instanceEnd = Math.max(instanceBegin, cursor.getLong(COLUMN_END));
+                boolean allDay = cursor.getInt(COLUMN_ALL_DAY) != 0;
+                Calendar calendar = allDay ? utc : local;
+                if (packedDay < packedDay(calendar, instanceBegin)
+                        || packedDay > (instanceEnd > instanceBegin ? packedDay(calendar, instanceEnd - 1) : packedDay(calendar, instanceBegin)))
+                {
+                    // the instance doesn't cover the requested day
+                    continue;
+                }
+
+                if (allDay)
+                {
+                    events.add(new SimpleEvent(new DateTime(DateTime.UTC, instanceBegin).toAllDay(),
+                            new Duration(1, (int) ((instanceEnd - instanceBegin) / ONE_DAY_MILLIS), 0), cursor.getString(COLUMN_TITLE)));
+                }
+                else
+                {
+                    events.add(new SimpleEvent(new DateTime(TimeZone.getDefault(), instanceBegin),
+                            new Duration(1, 0, (int) ((instanceEnd - instanceBegin) / 1000)), cursor.getString(COLUMN_TITLE)));
+                }
+            }
+        }
+        finally
+        {
+            cursor.close();
+        }
+    }
+
+
+    private Cursor query(String[] projection, long begin, long end, CancellationSignal cancellationSignal)
+    {
+        Uri.Builder builder = mInstancesUri.buildUpon();
+        ContentUris.appendId(builder, begin);
+        ContentUris.appendId(builder, end);
+        try
+        {
+            // on older devices the signal is only checked before the query
+            return ContentResolverCompat.query(mContentResolver, builder.build(), projection, SELECTION, null, null, cancellationSignal);
+        }
+        catch (SecurityException e)
+        {
+            // we don't have the permission to read the calendar
+            Log.w(TAG, "Can't read calendar instances", e);
+            return null;
+        }
+    }
+
+
+    private static int packedDay(Calendar calendar, long timestamp)
+    {
+        calendar.setTimeInMillis(timestamp);
+        return PackedDay.of(calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH), calendar.get(Calendar.DAY_OF_MONTH));
+    }
+}
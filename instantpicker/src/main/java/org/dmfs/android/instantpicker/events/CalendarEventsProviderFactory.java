@@ -0,0 +1,85 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.android.instantpicker.events;
+
+import android.content.Context;
+import android.os.Parcel;
+import android.os.Parcelable;
+
+
+/**
+ * A factory that returns {@link CalendarEventsProvider}s for the events of the Android calendar provider. Note, the app needs to hold the {@code
+ * READ_CALENDAR} permission to see any events.
+ */
+public class CalendarEventsProviderFactory implements EventProviderFactory, Parcelable
+{
+    private final static long serialVersionUID = 0L;
+
+    public final static CalendarEventsProviderFactory CALENDAR_EVENTS_PROVIDER_FACTORY = new CalendarEventsProviderFactory();
+
+
+    @Override
+    public EventsProvider create(Context context)
+    {
+        return new CalendarEventsProvider(context.getApplicationContext().getContentResolver());
+    }
+
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        return obj != null && obj.getClass() == getClass();
+    }
+
+
+    @Override
+    public int hashCode()
+    {
+        return getClass().hashCode();
+    }
+
+
+    @Override
+    public int describeContents()
+    {
+        return 0;
+    }
+
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags)
+    {
+        // nothing to write, this factory has no state
+    }
+
+
+    public final static Creator<CalendarEventsProviderFactory> CREATOR = new Creator<CalendarEventsProviderFactory>()
+    {
+        @Override
+        public CalendarEventsProviderFactory createFromParcel(Parcel in)
+        {
+            return CALENDAR_EVENTS_PROVIDER_FACTORY;
+        }
+
+
+        @Override
+        public CalendarEventsProviderFactory[] newArray(int size)
+        {
+            return new CalendarEventsProviderFactory[size];
+        }
+    };
+}
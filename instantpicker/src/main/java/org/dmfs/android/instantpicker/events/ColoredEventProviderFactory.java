@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.dmfs.android.instantpicker.events;
+
+import android.content.Context;
+
+
+/**
+ * A factory that returns {@link ColoredEventsProvider}s, giving the events of another factory's {@link EventsProvider}s a specific indicator color.
+ */
+public final class ColoredEventProviderFactory implements EventProviderFactory
+{
+    private final static long serialVersionUID = 0L;
+
+    private final EventProviderFactory mDelegate;
+    private final int mColor;
+
+
+    /**
+     * Creates a {@link ColoredEventProviderFactory}.
+     *
+     * @param delegate
+     *         The {@link EventProviderFactory} of the actual {@link EventsProvider}s.
+     * @param color
+     *         The ARGB color of the indicator dots.
+     */
+    public ColoredEventProviderFactory(EventProviderFactory delegate, int color)
+    {
+        mDelegate = delegate;
+        mColor = color;
+    }
+
+
+    @Override
+    public EventsProvider create(Context context)
+    {
+        return new ColoredEventsProvider(mDelegate.create(context), mColor);
+    }
+
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (!(obj instanceof ColoredEventProviderFactory))
+        {
+            return false;
+        }
+        ColoredEventProviderFactory other = (ColoredEventProviderFactory) obj;
+        return other.mColor == mColor && other.mDelegate.equals(mDelegate);
+    }
+
+
+    @Override
+    public int hashCode()
+    {
+        return mDelegate.hashCode() * 31 + mColor;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.dmfs.android.instantpicker.events;
+
+import org.dmfs.rfc5545.DateTime;
+
+import java.util.List;
+
+
+/**
+ * An {@link EventsProvider} that gives the events of another {@link EventsProvider} a specific indicator color.
+ */
+public final class ColoredEventsProvider implements EventsProvider
+{
+    private final EventsProvider mDelegate;
+    private final int mColor;
+
+
+    /**
+     * Creates a {@link ColoredEventsProvider}.
+     *
+     * @param delegate
+     *         The {@link EventsProvider} that provides the events.
+     * @param color
+     *         The ARGB color of the indicator dots.
+     */
+    public ColoredEventsProvider(EventsProvider delegate, int color)
+    {
+        mDelegate = delegate;
+        mColor = color;
+    }
+
+
+    @Override
+    public boolean hasEventsOn(DateTime day)
+    {
+        return mDelegate.hasEventsOn(day);
+    }
+
+
+    @Override
+    public boolean hasEventsOn(int packedDay)
+    {
+        return mDelegate.hasEventsOn(packedDay);
+    }
+
+
+    @Override
+    public int eventMask(int year, int month)
+    {
+        return mDelegate.eventMask(year, month);
+    }
+
+
+    @Override
+    public void appendEventsTo(DateTime day, List<Event> events)
+    {
+        mDelegate.appendEventsTo(day, events);
+    }
+
+
+    @Override
+    public void addEventCounts(int year, int month, int[] counts)
+    {
+        mDelegate.addEventCounts(year, month, counts);
+    }
+
+
+    @Override
+    public int indicatorColor()
+    {
+        return mColor;
+    }
+
+
+    @Override
+    public void prefetch(int year, int month)
+    {
+        mDelegate.prefetch(year, month);
+    }
+
+
+    @Override
+    public void setOnLoadListener(OnLoadListener listener)
+    {
+        mDelegate.setOnLoadListener(listener);
+    }
+
+
+    @Override
+    public void retainWindow(int fromPackedDay, int toPackedDay)
+    {
+        mDelegate.retainWindow(fromPackedDay, toPackedDay);
+    }
+
+
+    @Override
+    public void close()
+    {
+        mDelegate.close();
+    }
+}
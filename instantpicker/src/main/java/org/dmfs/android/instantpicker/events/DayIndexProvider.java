@@ -0,0 +1,246 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.dmfs.android.instantpicker.events;
+
+import org.dmfs.rfc5545.DateTime;
+import org.dmfs.rfc5545.Duration;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.List;
+
+
+/**
+ * An {@link EventsProvider} that answers all queries straight from a day index (see {@link DayIndexWriter} for the format).
+ * <p>
+ * The index is usually memory mapped, so opening even a large index doesn't read it into the heap. Only titles that are actually shown get decoded.
+ */
+public final class DayIndexProvider implements EventsProvider
+{
+    private final static Duration ONE_DAY_DURATION = new Duration(1, 1, 0);
+    private final static Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final ByteBuffer mBuffer;
+    private final int mFirstYear;
+    private final int mYearCount;
+    private final int mEntryCount;
+    private final int mEntriesOffset;
+    private final int mTitleOffsetsOffset;
+    private final int mStringsOffset;
+    // the titles decoded so far
+    private final String[] mTitles;
+
+
+    /**
+     * Creates a {@link DayIndexProvider} that reads the given day index file.
+     *
+     * @param file
+     *         A day index file.
+     *
+     * @throws IOException
+     *         If the file could not be mapped.
+     */
+    public DayIndexProvider(File file) throws IOException
+    {
+        this(map(file));
+    }
+
+
+    /**
+     * Creates a {@link DayIndexProvider} that reads the day index in the given {@link ByteBuffer}, from its current position to its limit. The buffer must
+     * not be modified afterwards.
+     *
+     * @param buffer
+     *         A {@link ByteBuffer} containing a day index.
+     */
+    public DayIndexProvider(ByteBuffer buffer)
+    {
+        mBuffer = buffer.slice().order(ByteOrder.BIG_ENDIAN);
+        if (mBuffer.capacity() < DayIndexWriter.HEADER_SIZE || mBuffer.getInt(0) != DayIndexWriter.MAGIC)
+        {
+            throw new IllegalArgumentException("Not a day index");
+        }
+        if (mBuffer.getInt(4) != DayIndexWriter.VERSION)
+        {
+            throw new IllegalArgumentException("Unsupported day index version " + mBuffer.getInt(4));
+        }
+        mFirstYear = mBuffer.getInt(8);
+        mYearCount = mBuffer.getInt(12);
+        mEntryCount = mBuffer.getInt(16);
+        int titleCount = mBuffer.getInt(20);
+        mEntriesOffset = DayIndexWriter.HEADER_SIZE + mYearCount * 12 * 4;
+        mTitleOffsetsOffset = mEntriesOffset + mEntryCount * 8;
+        mStringsOffset = mTitleOffsetsOffset + (titleCount + 1) * 4;
+        if (mYearCount < 0 || mEntryCount < 0 || titleCount < 0
+                || mStringsOffset > mBuffer.capacity() || mStringsOffset + mBuffer.getInt(mStringsOffset - 4) > mBuffer.capacity())
+        {
+            throw new IllegalArgumentException("Truncated day index");
+        }
+        mTitles = new String[titleCount];
+    }
+
+
+    @Override
+    public boolean hasEventsOn(DateTime day)
+    {
+        return hasEventsOn(PackedDay.of(day));
+    }
+
+
+    @Override
+    public boolean hasEventsOn(int packedDay)
+    {
+        return DayMask.contains(eventMask(PackedDay.year(packedDay), PackedDay.month(packedDay)), PackedDay.dayOfMonth(packedDay));
+    }
+
+
+    @Override
+    public int eventMask(int year, int month)
+    {
+        int yearIndex = year - mFirstYear;
+        if (yearIndex < 0 || yearIndex >= mYearCount)
+        {
+            return DayMask.NONE;
+        }
+        return mBuffer.getInt(DayIndexWriter.HEADER_SIZE + (yearIndex * 12 + month) * 4);
+    }
+
+
+    @Override
+    public void appendEventsTo(DateTime day, List<Event> events)
+    {
+        int packedDay = PackedDay.of(day);
+        if (!hasEventsOn(packedDay))
+        {
+            return;
+        }
+
+        DateTime allDay = day.isAllDay() ? day : day.toAllDay();
+        boolean added = false;
+        for (int i = firstEntry(packedDay); i < mEntryCount && entryDay(i) == packedDay; ++i)
+        {
+            events.add(new SimpleEvent(allDay, ONE_DAY_DURATION, title(mBuffer.getInt(mEntriesOffset + i * 8 + 4))));
+            added = true;
+        }
+        if (!added)
+        {
+            // the day is in the masks but has no title
+            events.add(new SimpleEvent(allDay, ONE_DAY_DURATION));
+        }
+    }
+
+
+    @Override
+    public void addEventCounts(int year, int month, int[] counts)
+    {
+        int mask = eventMask(year, month);
+        if (mask == DayMask.NONE)
+        {
+            return;
+        }
+
+        // count the titled entries, each of the remaining days has one untitled event
+        int last = PackedDay.lastOfMonth(year, month);
+        for (int i = firstEntry(PackedDay.firstOfMonth(year, month)); i < mEntryCount && entryDay(i) <= last; ++i)
+        {
+            int day = PackedDay.dayOfMonth(entryDay(i));
+            ++counts[day - 1];
+            mask &= ~(1 << (day - 1));
+        }
+        for (int day = 1, days = DayMask.daysInMonth(year, month); day <= days; ++day)
+        {
+            if (DayMask.contains(mask, day))
+            {
+                ++counts[day - 1];
+            }
+        }
+    }
+
+
+    @Override
+    public void setOnLoadListener(OnLoadListener listener)
+    {
+        // the index is always complete, no need to store the listener
+    }
+
+
+    /**
+     * Returns the index of the first entry on or after the given day.
+     */
+    private int firstEntry(int packedDay)
+    {
+        int low = 0;
+        int high = mEntryCount;
+        while (low < high)
+        {
+            int mid = (low + high) >>> 1;
+            if (entryDay(mid) < packedDay)
+            {
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+
+    private int entryDay(int entry)
+    {
+        return mBuffer.getInt(mEntriesOffset + entry * 8);
+    }
+
+
+    private synchronized String title(int index)
+    {
+        if (mTitles[index] == null)
+        {
+            int start = mBuffer.getInt(mTitleOffsetsOffset + index * 4);
+            int end = mBuffer.getInt(mTitleOffsetsOffset + index * 4 + 4);
+            byte[] bytes = new byte[end - start];
+            ByteBuffer buffer = mBuffer.duplicate();
+            buffer.position(mStringsOffset + start);
+            buffer.get(bytes);
+            mTitles[index] = new String(bytes, UTF_8);
+        }
+        return mTitles[index];
+    }
+
+
+    private static ByteBuffer map(File file) throws IOException
+    {
+        FileInputStream in = new FileInputStream(file);
+        try
+        {
+            FileChannel channel = in.getChannel();
+            // the mapping stays valid after the channel has been closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.dmfs.android.instantpicker.events;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+
+
+/**
+ * A factory that returns {@link DayIndexProvider}s for a day index in the app assets or in a file.
+ * <p>
+ * Assets can only be memory mapped if they are stored uncompressed, so make sure to exclude the extension of the index from compression, e.g. with {@code
+ * aaptOptions { noCompress 'dayidx' }}.
+ */
+public class DayIndexProviderFactory implements EventProviderFactory, Parcelable
+{
+    private final static long serialVersionUID = 0L;
+
+    private final static String TAG = "DayIndexProviderFactory";
+
+    private final String mAssetName;
+    private final String mPath;
+
+
+    /**
+     * Creates a {@link DayIndexProviderFactory} for the day index in the given asset.
+     *
+     * @param assetName
+     *         The name of an uncompressed asset.
+     */
+    public DayIndexProviderFactory(String assetName)
+    {
+        this(assetName, null);
+    }
+
+
+    /**
+     * Creates a {@link DayIndexProviderFactory} for the day index in the given file.
+     *
+     * @param file
+     *         A day index file.
+     */
+    public DayIndexProviderFactory(File file)
+    {
+        this(null, file.getAbsolutePath());
+    }
+
+
+    private DayIndexProviderFactory(String assetName, String path)
+    {
+        mAssetName = assetName;
+        mPath = path;
+    }
+
+
+    @Override
+    public EventsProvider create(Context context)
+    {
+        try
+        {
+            if (mPath != null)
+            {
+                return new DayIndexProvider(new File(mPath));
+            }
+
+            AssetFileDescriptor descriptor = context.getAssets().openFd(mAssetName);
+            FileInputStream in = descriptor.createInputStream();
+            try
+            {
+                return new DayIndexProvider(in.getChannel().map(FileChannel.MapMode.READ_ONLY, descriptor.getStartOffset(), descriptor.getLength()));
+            }
+            finally
+            {
+                in.close();
+            }
+        }
+        catch (IOException | IllegalArgumentException e)
+        {
+            Log.e(TAG, "Can't open day index " + (mPath != null ? mPath : mAssetName), e);
+            return new IndexedEventsProvider(Collections.<Event>emptyList());
+        }
+    }
+
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (!(obj instanceof DayIndexProviderFactory))
+        {
+            return false;
+        }
+        DayIndexProviderFactory other = (DayIndexProviderFactory) obj;
+        return mPath != null ? mPath.equals(other.mPath) : other.mPath == null && mAssetName.equals(other.mAssetName);
+    }
+
+
+    @Override
+    public int hashCode()
+    {
+        return mPath != null ? mPath.hashCode() : mAssetName.hashCode();
+    }
+
+
+    @Override
+    public int describeContents()
+    {
+        return 0;
+    }
+
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags)
+    {
+        dest.writeString(mAssetName);
+        dest.writeString(mPath);
+    }
+
+
+    public final static Creator<DayIndexProviderFactory> CREATOR = new Creator<DayIndexProviderFactory>()
+    {
+        @Override
+        public DayIndexProviderFactory createFromParcel(Parcel in)
+        {
+            return new DayIndexProviderFactory(in.readString(), in.readString());
+        }
+
+
+        @Override
+        public DayIndexProviderFactory[] newArray(int size)
+        {
+            return new DayIndexProviderFactory[size];
+        }
+    };
+}
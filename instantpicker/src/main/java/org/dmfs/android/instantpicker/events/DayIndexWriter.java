@@ -0,0 +1,186 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.dmfs.android.instantpicker.events;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Writes a day index, a compact binary representation of the days that have events, optionally with titles.
+ * <p>
+ * All values are big endian {@code int}s, the file has the following layout:
+ * <pre>
+ * header:  MAGIC, VERSION, first year, year count, entry count, title count
+ * masks:   year count * 12 {@link DayMask}s, one per month, starting with January of the first year
+ * entries: entry count * (packed day, title index) pairs, sorted by packed day, see {@link PackedDay}
+ * titles:  title count + 1 offsets into the string data, the last one being its length
+ * string data: the UTF-8 encoded titles
+ * </pre>
+ * Days without a title only appear in the masks. A {@link DayIndexProvider} reads this format directly from a memory mapped file.
+ * <p>
+ * This class doesn't depend on any Android APIs, so it can be used on the JVM as well.
+ */
+public final class DayIndexWriter
+{
+    /**
+     * The magic number a day index starts with, "DIDX".
+     */
+    final static int MAGIC = 0x44494458;
+
+    /**
+     * The version of the format written by this class.
+     */
+    final static int VERSION = 1;
+
+    /**
+     * The size of the header in bytes.
+     */
+    final static int HEADER_SIZE = 6 * 4;
+
+    private final static Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final int mFirstYear;
+    private final int[] mMasks;
+    private final List<String> mTitles = new ArrayList<>();
+    private final Map<String, Integer> mTitleIndexes = new HashMap<>();
+    private long[] mEntries = new long[1024];
+    private int mEntryCount;
+
+
+    /**
+     * Creates a {@link DayIndexWriter} for the given range of years.
+     *
+     * @param firstYear
+     *         The first year of the index.
+     * @param lastYear
+     *         The last year of the index (inclusive).
+     */
+    public DayIndexWriter(int firstYear, int lastYear)
+    {
+        if (lastYear < firstYear)
+        {
+            throw new IllegalArgumentException("lastYear must not be before firstYear");
+        }
+        mFirstYear = firstYear;
+        mMasks = new int[(lastYear - firstYear + 1) * 12];
+    }
+
+
+    /**
+     * Adds a day to the index. Days outside of the range of years are ignored.
+     *
+     * @param packedDay
+     *         The day to add, see {@link PackedDay}.
+     * @param title
+     *         The title of an event on that day, may be {@code null}.
+     */
+    public void add(int packedDay, String title)
+    {
+        int monthIndex = (PackedDay.year(packedDay) - mFirstYear) * 12 + PackedDay.month(packedDay);
+        if (monthIndex < 0 || monthIndex >= mMasks.length)
+        {
+            return;
+        }
+        mMasks[monthIndex] = DayMask.with(mMasks[monthIndex], PackedDay.dayOfMonth(packedDay));
+
+        if (title == null)
+        {
+            return;
+        }
+        Integer titleIndex = mTitleIndexes.get(title);
+        if (titleIndex == null)
+        {
+            titleIndex = mTitles.size();
+            mTitles.add(title);
+            mTitleIndexes.put(title, titleIndex);
+        }
+        if (mEntryCount == mEntries.length)
+        {
+            mEntries = Arrays.copyOf(mEntries, mEntryCount * 2);
+        }
+        // packed days are positive, so sorting these sorts by day first and title second
+        mEntries[mEntryCount++] = ((long) packedDay << 32) | titleIndex;
+    }
+
+
+    /**
+     * Writes the index to the given {@link OutputStream}. The stream is not closed.
+     *
+     * @param out
+     *         The {@link OutputStream} to write to.
+     *
+     * @throws IOException
+     *         If the index could not be written.
+     */
+    public void writeTo(OutputStream out) throws IOException
+    {
+        long[] entries = Arrays.copyOf(mEntries, mEntryCount);
+        Arrays.sort(entries);
+        int entryCount = 0;
+        for (int i = 0; i < entries.length; ++i)
+        {
+            if (i == 0 || entries[i] != entries[i - 1])
+            {
+                entries[entryCount++] = entries[i];
+            }
+        }
+
+        byte[][] titles = new byte[mTitles.size()][];
+        for (int i = 0; i < titles.length; ++i)
+        {
+            titles[i] = mTitles.get(i).getBytes(UTF_8);
+        }
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(mFirstYear);
+        data.writeInt(mMasks.length / 12);
+        data.writeInt(entryCount);
+        data.writeInt(titles.length);
+        for (int mask : mMasks)
+        {
+            data.writeInt(mask);
+        }
+        for (int i = 0; i < entryCount; ++i)
+        {
+            data.writeInt((int) (entries[i] >>> 32));
+            data.writeInt((int) entries[i]);
+        }
+        int offset = 0;
+        for (byte[] title : titles)
+        {
+            data.writeInt(offset);
+            offset += title.length;
+        }
+        data.writeInt(offset);
+        for (byte[] title : titles)
+        {
+            data.write(title);
+        }
+        data.flush();
+    }
+}
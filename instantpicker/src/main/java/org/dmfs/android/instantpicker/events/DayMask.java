@@ -0,0 +1,150 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.android.instantpicker.events;
+
+/**
+ * Helpers to work with day masks. A day mask is an {@code int} that represents a set of days of a specific month. Bit {@code n} is set if day {@code n + 1}
+ * of the month is contained in the set, so only the lower 31 bits are in use.
+ */
+public final class DayMask
+{
+    /**
+     * The empty day mask.
+     */
+    public final static int NONE = 0;
+
+    /**
+     * A day mask containing all days of any month.
+     */
+    public final static int ALL = 0x7fffffff;
+
+    /**
+     * A flag that indicates that the days of a month are not known yet, because they are still being loaded. It occupies the otherwise unused 32nd bit, so it
+     * can be combined with the days known so far.
+     */
+    public final static int UNKNOWN = 0x80000000;
+
+    private final static int[] DAYS_PER_MONTH = { 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31 };
+
+
+    /**
+     * Returns whether the given day mask contains the given day of month.
+     *
+     * @param mask
+     *         A day mask.
+     * @param dayOfMonth
+     *         The day of month [1-31].
+     *
+     * @return {@code true} if the day is contained in the mask.
+     */
+    public static boolean contains(int mask, int dayOfMonth)
+    {
+        return (mask & (1 << (dayOfMonth - 1))) != 0;
+    }
+
+
+    /**
+     * Returns the given day mask with the given day of month added.
+     *
+     * @param mask
+     *         A day mask.
+     * @param dayOfMonth
+     *         The day of month to add [1-31].
+     *
+     * @return The new day mask.
+     */
+    public static int with(int mask, int dayOfMonth)
+    {
+        return mask | (1 << (dayOfMonth - 1));
+    }
+
+
+    /**
+     * Returns whether the given day mask is complete, i.e. doesn't have the {@link #UNKNOWN} flag set.
+     *
+     * @param mask
+     *         A day mask.
+     *
+     * @return {@code true} if all days of the mask are known.
+     */
+    public static boolean isKnown(int mask)
+    {
+        return (mask & UNKNOWN) == 0;
+    }
+
+
+    /**
+     * Returns the number of days in the given month of the Gregorian calendar.
+     *
+     * @param year
+     *         The year.
+     * @param month
+     *         The month [0-11].
+     *
+     * @return The number of days in the month.
+     */
+    public static int daysInMonth(int year, int month)
+    {
+        if (month == 1 && (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)))
+        {
+            return 29;
+        }
+        return DAYS_PER_MONTH[month];
+    }
+
+
+    /**
+     * Returns the day mask of the days of the given month between the given days, both inclusive.
+     *
+     * @param year
+     *         The year.
+     * @param month
+     *         The month [0-11].
+     * @param fromPackedDay
+     *         The first {@link PackedDay} of the range.
+     * @param toPackedDay
+     *         The last {@link PackedDay} of the range.
+     *
+     * @return The day mask of all days of the month in the range.
+     */
+    public static int between(int year, int month, int fromPackedDay, int toPackedDay)
+    {
+        int first = PackedDay.firstOfMonth(year, month);
+        int last = PackedDay.lastOfMonth(year, month);
+        if (fromPackedDay > last || toPackedDay < first)
+        {
+            return NONE;
+        }
+        int mask = ALL >>> (31 - daysInMonth(year, month));
+        if (fromPackedDay > first)
+        {
+            // clear the days before the first day
+            mask &= -1 << (PackedDay.dayOfMonth(fromPackedDay) - 1);
+        }
+        if (toPackedDay < last)
+        {
+            // clear the days after the last day
+            mask &= (1 << PackedDay.dayOfMonth(toPackedDay)) - 1;
+        }
+        return mask;
+    }
+
+
+    private DayMask()
+    {
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.dmfs.android.instantpicker.events;
+
+import org.dmfs.rfc5545.DateTime;
+
+import java.util.Arrays;
+
+
+/**
+ * {@link DisabledDays} that disable a fixed list of dates, like blackout days. The dates are kept as a sorted array of {@link PackedDay}s, so each month only
+ * takes a binary search.
+ */
+public final class DisabledDates implements DisabledDays
+{
+    private final static long serialVersionUID = 0L;
+
+    private final int[] mPackedDays;
+
+
+    /**
+     * Creates {@link DisabledDates} for the given dates. Only the date components are taken into account.
+     *
+     * @param dates
+     *         The dates which can not be picked.
+     */
+    public DisabledDates(DateTime... dates)
+    {
+        mPackedDays = new int[dates.length];
+        for (int i = 0; i < dates.length; ++i)
+        {
+            mPackedDays[i] = PackedDay.of(dates[i]);
+        }
+        Arrays.sort(mPackedDays);
+    }
+
+
+    @Override
+    public int disabledDays(int year, int month)
+    {
+        int last = PackedDay.lastOfMonth(year, month);
+        int index = Arrays.binarySearch(mPackedDays, PackedDay.firstOfMonth(year, month));
+        if (index < 0)
+        {
+            index = -index - 1;
+        }
+        int mask = DayMask.NONE;
+        while (index < mPackedDays.length && mPackedDays[index] <= last)
+        {
+            mask = DayMask.with(mask, PackedDay.dayOfMonth(mPackedDays[index++]));
+        }
+        return mask;
+    }
+
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        return obj instanceof DisabledDates && Arrays.equals(((DisabledDates) obj).mPackedDays, mPackedDays);
+    }
+
+
+    @Override
+    public int hashCode()
+    {
+        return Arrays.hashCode(mPackedDays);
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.dmfs.android.instantpicker.events;
+
+import java.io.Serializable;
+
+
+/**
+ * A set of days which can not be picked, like holidays or days without free appointments. The days are returned in bulk per month, so the month views can
+ * combine them with the date range once per month instead of testing every single day.
+ * <p>
+ * Like the {@link EventProviderFactory}s, instances are stored in the dialog arguments, so they must be serializable.
+ */
+public interface DisabledDays extends Serializable
+{
+    /**
+     * Returns the days of the given month which can not be picked.
+     *
+     * @param year
+     *         The year.
+     * @param month
+     *         The month [0-11].
+     *
+     * @return The {@link DayMask} of the disabled days.
+     */
+    int disabledDays(int year, int month);
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.dmfs.android.instantpicker.events;
+
+import org.dmfs.rfc5545.Weekday;
+
+
+/**
+ * {@link DisabledDays} that disable specific weekdays in every week.
+ */
+public final class DisabledWeekdays implements DisabledDays
+{
+    private final static long serialVersionUID = 0L;
+
+    private final int mWeekdays;
+
+
+    public DisabledWeekdays(Weekday... weekdays)
+    {
+        this(WeekdayMask.of(weekdays));
+    }
+
+
+    /**
+     * Creates {@link DisabledWeekdays} for any number of weekdays.
+     *
+     * @param weekdays
+     *         The weekday mask of the disabled weekdays, see {@link WeekdayMask}.
+     */
+    public DisabledWeekdays(int weekdays)
+    {
+        mWeekdays = weekdays & WeekdayMask.ALL;
+    }
+
+
+    @Override
+    public int disabledDays(int year, int month)
+    {
+        return WeekdayMask.dayMask(mWeekdays, year, month);
+    }
+
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        return obj instanceof DisabledWeekdays && ((DisabledWeekdays) obj).mWeekdays == mWeekdays;
+    }
+
+
+    @Override
+    public int hashCode()
+    {
+        return mWeekdays;
+    }
+}
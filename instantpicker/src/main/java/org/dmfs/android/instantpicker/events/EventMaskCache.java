@@ -0,0 +1,346 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.android.instantpicker.events;
+
+import android.util.SparseIntArray;
+
+
+/**
+ * A bounded least-recently-used cache of {@link DayMask}s keyed by year and month.
+ * <p>
+ * All entries are held in primitive arrays that are allocated up front, so lookups and insertions don't allocate any objects. This class is not thread safe.
+ */
+public final class EventMaskCache
+{
+    private final int mCapacity;
+
+    // maps month keys to slots
+    private final SparseIntArray mIndex;
+
+    private final int[] mKeys;
+    private final int[] mMasks;
+    // the doubly linked list of used slots, most recently used first
+    private final int[] mPrevious;
+    private final int[] mNext;
+
+    private int mHead = -1;
+    private int mTail = -1;
+    // the head of the list of free slots, linked by mNext
+    private int mFree = -1;
+    // the number of slots that have been handed out so far
+    private int mAllocated;
+    private int mSize;
+
+    private int mHitCount;
+    private int mMissCount;
+    private int mEvictionCount;
+
+
+    /**
+     * Creates an {@link EventMaskCache} that holds up to {@code capacity} months. A capacity of {@code 0} disables caching.
+     *
+     * @param capacity
+     *         The maximum number of months to cache.
+     */
+    public EventMaskCache(int capacity)
+    {
+        if (capacity < 0)
+        {
+            throw new IllegalArgumentException("capacity must not be negative");
+        }
+        mCapacity = capacity;
+        mIndex = new SparseIntArray(capacity);
+        mKeys = new int[capacity];
+        mMasks = new int[capacity];
+        mPrevious = new int[capacity];
+        mNext = new int[capacity];
+    }
+
+
+    /**
+     * Returns the cached {@link DayMask} of the given month.
+     *
+     * @param year
+     *         The year.
+     * @param month
+     *         The month [0-11].
+     *
+     * @return The {@link DayMask} or {@link DayMask#UNKNOWN} if the month is not in the cache.
+     */
+    public int get(int year, int month)
+    {
+        int slot = mIndex.get(monthKey(year, month), -1);
+        if (slot < 0)
+        {
+            mMissCount++;
+            return DayMask.UNKNOWN;
+        }
+        mHitCount++;
+        moveToFront(slot);
+        return mMasks[slot];
+    }
+
+
+    /**
+     * Returns whether the given month is in the cache. Unlike {@link #get(int, int)} this doesn't update the statistics or the order of the entries.
+     *
+     * @param year
+     *         The year.
+     * @param month
+     *         The month [0-11].
+     *
+     * @return {@code true} if the month is cached.
+     */
+    public boolean contains(int year, int month)
+    {
+        return mIndex.indexOfKey(monthKey(year, month)) >= 0;
+    }
+
+
+    /**
+     * Stores the {@link DayMask} of the given month, evicting the least recently used month if the cache is full. Incomplete masks (those with {@link
+     * DayMask#UNKNOWN} set) are not cached.
+     *
+     * @param year
+     *         The year.
+     * @param month
+     *         The month [0-11].
+     * @param mask
+     *         The {@link DayMask} of the month.
+     */
+    public void put(int year, int month, int mask)
+    {
+        if (mCapacity == 0 || !DayMask.isKnown(mask))
+        {
+            return;
+        }
+
+        int key = monthKey(year, month);
+        int slot = mIndex.get(key, -1);
+        if (slot >= 0)
+        {
+            mMasks[slot] = mask;
+            moveToFront(slot);
+            return;
+        }
+
+        if (mFree >= 0)
+        {
+            slot = mFree;
+            mFree = mNext[slot];
+        }
+        else if (mAllocated < mCapacity)
+        {
+            slot = mAllocated++;
+        }
+        else
+        {
+            // evict the least recently used month
+            slot = mTail;
+            unlink(slot);
+            mIndex.delete(mKeys[slot]);
+            mSize--;
+            mEvictionCount++;
+        }
+
+        mKeys[slot] = key;
+        mMasks[slot] = mask;
+        mIndex.put(key, slot);
+        linkFirst(slot);
+        mSize++;
+    }
+
+
+    /**
+     * Removes the given month from the cache.
+     *
+     * @param year
+     *         The year.
+     * @param month
+     *         The month [0-11].
+     */
+    public void remove(int year, int month)
+    {
+        int key = monthKey(year, month);
+        int slot = mIndex.get(key, -1);
+        if (slot < 0)
+        {
+            return;
+        }
+        mIndex.delete(key);
+        unlink(slot);
+        mNext[slot] = mFree;
+        mFree = slot;
+        mSize--;
+    }
+
+
+    /**
+     * Removes all months in the given range from the cache.
+     *
+     * @param fromPackedDay
+     *         A {@link PackedDay} in the first month to remove.
+     * @param toPackedDay
+     *         A {@link PackedDay} in the last month to remove.
+     */
+    public void removeRange(int fromPackedDay, int toPackedDay)
+    {
+        int from = monthKey(PackedDay.year(fromPackedDay), PackedDay.month(fromPackedDay));
+        int to = monthKey(PackedDay.year(toPackedDay), PackedDay.month(toPackedDay));
+        // iterate backwards, removing a month doesn't change the index of the months before
+        for (int i = mIndex.size() - 1; i >= 0; --i)
+        {
+            int key = mIndex.keyAt(i);
+            if (key < from)
+            {
+                break;
+            }
+            if (key <= to)
+            {
+                remove(key / 12, key % 12);
+            }
+        }
+    }
+
+
+    /**
+     * Returns the cached month at the given index, months are in chronological order. The month is returned as {@code year * 12 + month}.
+     *
+     * @param index
+     *         The index of the month [0-{@link #size()}).
+     *
+     * @return The month at that index.
+     */
+    public int monthAt(int index)
+    {
+        return mIndex.keyAt(index);
+    }
+
+
+    /**
+     * Removes all months from the cache. The statistics are not reset.
+     */
+    public void clear()
+    {
+        mIndex.clear();
+        mHead = -1;
+        mTail = -1;
+        mFree = -1;
+        mAllocated = 0;
+        mSize = 0;
+    }
+
+
+    /**
+     * Returns the number of months in the cache.
+     */
+    public int size()
+    {
+        return mSize;
+    }
+
+
+    /**
+     * Returns the maximum number of months in the cache.
+     */
+    public int capacity()
+    {
+        return mCapacity;
+    }
+
+
+    /**
+     * Returns the number of times {@link #get(int, int)} returned a cached month.
+     */
+    public int hitCount()
+    {
+        return mHitCount;
+    }
+
+
+    /**
+     * Returns the number of times {@link #get(int, int)} didn't find the requested month.
+     */
+    public int missCount()
+    {
+        return mMissCount;
+    }
+
+
+    /**
+     * Returns the number of months that have been evicted to make room for other months.
+     */
+    public int evictionCount()
+    {
+        return mEvictionCount;
+    }
+
+
+    private void moveToFront(int slot)
+    {
+        if (slot != mHead)
+        {
+            unlink(slot);
+            linkFirst(slot);
+        }
+    }
+
+
+    private void linkFirst(int slot)
+    {
+        mPrevious[slot] = -1;
+        mNext[slot] = mHead;
+        if (mHead >= 0)
+        {
+            mPrevious[mHead] = slot;
+        }
+        mHead = slot;
+        if (mTail < 0)
+        {
+            mTail = slot;
+        }
+    }
+
+
+    private void unlink(int slot)
+    {
+        int previous = mPrevious[slot];
+        int next = mNext[slot];
+        if (previous >= 0)
+        {
+            mNext[previous] = next;
+        }
+        else
+        {
+            mHead = next;
+        }
+        if (next >= 0)
+        {
+            mPrevious[next] = previous;
+        }
+        else
+        {
+            mTail = previous;
+        }
+    }
+
+
+    private static int monthKey(int year, int month)
+    {
+        return year * 12 + month;
+    }
+}
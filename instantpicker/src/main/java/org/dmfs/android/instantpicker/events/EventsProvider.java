@@ -12,12 +12,176 @@ public interface EventsProvider
 {
     boolean hasEventsOn(DateTime day);
 
+    /**
+     * Returns whether there are events on the given {@link PackedDay}.
+     * <p>
+     * The default implementation converts the day into a {@link DateTime} and calls {@link #hasEventsOn(DateTime)}. Providers should override this to avoid
+     * the allocation.
+     *
+     * @param packedDay
+     *         A {@link PackedDay}.
+     *
+     * @return {@code true} if there are events on that day.
+     */
+    default boolean hasEventsOn(int packedDay)
+    {
+        return hasEventsOn(PackedDay.toDateTime(packedDay));
+    }
+
     void appendEventsTo(DateTime day, List<Event> events);
 
     void setOnLoadListener(OnLoadListener listener);
 
+    /**
+     * Returns a {@link DayMask} of the days in the given month that have events. This allows callers to determine the events of an entire month with a
+     * single call.
+     * <p>
+     * The default implementation calls {@link #hasEventsOn(DateTime)} for each day of the month. Providers which are able to determine the events of a month
+     * more efficiently should override this.
+     * <p>
+     * Providers that load their events in the background may return {@link DayMask#UNKNOWN} if the month has not been loaded yet. Once the month has been
+     * loaded they call {@link OnLoadListener#onLoad(EventsProvider, int, int)}.
+     *
+     * @param year
+     *         The year.
+     * @param month
+     *         The month [0-11].
+     *
+     * @return A {@link DayMask} of the days having events.
+     */
+    default int eventMask(int year, int month)
+    {
+        int mask = DayMask.NONE;
+        for (int day = 1, days = DayMask.daysInMonth(year, month); day <= days; ++day)
+        {
+            if (hasEventsOn(new DateTime(year, month, day)))
+            {
+                mask = DayMask.with(mask, day);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Adds the number of events on each day of the given month to the given array, the count of day {@code n} is added to {@code counts[n - 1]}. Callers
+     * pass the same array to all providers to sum up their counts.
+     * <p>
+     * The default implementation counts one event for each day of {@link #eventMask(int, int)}. Providers which know the actual number of events should
+     * override this.
+     *
+     * @param year
+     *         The year.
+     * @param month
+     *         The month [0-11].
+     * @param counts
+     *         An array of at least 31 elements to add the counts to.
+     */
+    default void addEventCounts(int year, int month, int[] counts)
+    {
+        int mask = eventMask(year, month);
+        for (int day = 1, days = DayMask.daysInMonth(year, month); day <= days; ++day)
+        {
+            if (DayMask.contains(mask, day))
+            {
+                ++counts[day - 1];
+            }
+        }
+    }
+
+    /**
+     * Returns the color of the indicator dots of this provider's events, see {@link org.dmfs.android.instantpicker.PickerContext#EVENT_DENSITY_INDICATORS}.
+     * Providers with the same color form one category. The default implementation returns {@code 0}, which means the accent color of the theme is used.
+     *
+     * @return The ARGB color of the indicator dots or {@code 0}.
+     */
+    default int indicatorColor()
+    {
+        return 0;
+    }
+
+    /**
+     * Tells the provider that only the events between the given days are of interest at present, usually because they are visible or about to become
+     * visible. Providers may cancel loading events outside of this window, they are loaded again when requested later. The default implementation does
+     * nothing.
+     *
+     * @param fromPackedDay
+     *         The first {@link PackedDay} of interest.
+     * @param toPackedDay
+     *         The last {@link PackedDay} of interest.
+     */
+    default void retainWindow(int fromPackedDay, int toPackedDay)
+    {
+        // nothing to do by default
+    }
+
+    /**
+     * Releases all resources held by this provider, like observers, open files or background work. The provider must not be used afterwards. The default
+     * implementation does nothing.
+     */
+    default void close()
+    {
+        // nothing to do by default
+    }
+
+    /**
+     * Gives the provider a hint that the events of the given month are likely to be requested soon. Providers that load their events in the background
+     * should start loading the month, if they haven't already. The default implementation does nothing.
+     *
+     * @param year
+     *         The year.
+     * @param month
+     *         The month [0-11].
+     */
+    default void prefetch(int year, int month)
+    {
+        // nothing to do by default
+    }
+
     public interface OnLoadListener
     {
         public void onLoad(EventsProvider provider);
+
+        /**
+         * Called when the given {@link EventsProvider} has loaded the events of a specific month. The default implementation calls {@link
+         * #onLoad(EventsProvider)}.
+         *
+         * @param provider
+         *         The {@link EventsProvider} that has loaded new events.
+         * @param year
+         *         The year of the month that has been loaded.
+         * @param month
+         *         The month that has been loaded [0-11].
+         */
+        public default void onLoad(EventsProvider provider, int year, int month)
+        {
+            onLoad(provider);
+        }
+
+        /**
+         * Called when the events of the given {@link EventsProvider} have changed between the given days. Callers should drop anything they derived from
+         * these days and query the provider again. The default implementation calls {@link #onLoad(EventsProvider, int, int)} for each affected month, or
+         * {@link #onLoad(EventsProvider)} if more than a year is affected.
+         *
+         * @param provider
+         *         The {@link EventsProvider} with changed events.
+         * @param fromPackedDay
+         *         The first {@link PackedDay} that changed.
+         * @param toPackedDay
+         *         The last {@link PackedDay} that changed.
+         */
+        public default void onEventsChanged(EventsProvider provider, int fromPackedDay, int toPackedDay)
+        {
+            int from = PackedDay.year(fromPackedDay) * 12 + PackedDay.month(fromPackedDay);
+            int to = PackedDay.year(toPackedDay) * 12 + PackedDay.month(toPackedDay);
+            if (to - from >= 12)
+            {
+                onLoad(provider);
+                return;
+            }
+            for (int month = from; month <= to; ++month)
+            {
+                onLoad(provider, month / 12, month % 12);
+            }
+        }
     }
 }
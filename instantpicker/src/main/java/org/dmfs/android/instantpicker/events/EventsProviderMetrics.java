@@ -0,0 +1,128 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.dmfs.android.instantpicker.events;
+
+/**
+ * A snapshot of the latency statistics of an {@link EventsProvider}, see {@link TimedEventsProvider}.
+ * <p>
+ * Latencies are taken from a histogram with four buckets per power of two, so percentiles are accurate to about 25%.
+ */
+public final class EventsProviderMetrics
+{
+    private final String mName;
+    private final long mCallCount;
+    private final long mTotalNanos;
+    private final long mMedianNanos;
+    private final long mP99Nanos;
+    private final long mMaxNanos;
+    private final long mSlowCallCount;
+    private final boolean mSkipped;
+
+
+    EventsProviderMetrics(String name, long callCount, long totalNanos, long medianNanos, long p99Nanos, long maxNanos, long slowCallCount, boolean skipped)
+    {
+        mName = name;
+        mCallCount = callCount;
+        mTotalNanos = totalNanos;
+        mMedianNanos = medianNanos;
+        mP99Nanos = p99Nanos;
+        mMaxNanos = maxNanos;
+        mSlowCallCount = slowCallCount;
+        mSkipped = skipped;
+    }
+
+
+    /**
+     * Returns the name of the provider, usually the class name of its factory.
+     */
+    public String name()
+    {
+        return mName;
+    }
+
+
+    /**
+     * Returns the number of calls to the provider.
+     */
+    public long callCount()
+    {
+        return mCallCount;
+    }
+
+
+    /**
+     * Returns the total time spent in the provider in nanoseconds.
+     */
+    public long totalNanos()
+    {
+        return mTotalNanos;
+    }
+
+
+    /**
+     * Returns the median latency of a call in nanoseconds.
+     */
+    public long medianNanos()
+    {
+        return mMedianNanos;
+    }
+
+
+    /**
+     * Returns the 99th percentile of the latency of a call in nanoseconds.
+     */
+    public long p99Nanos()
+    {
+        return mP99Nanos;
+    }
+
+
+    /**
+     * Returns the latency of the slowest call in nanoseconds.
+     */
+    public long maxNanos()
+    {
+        return mMaxNanos;
+    }
+
+
+    /**
+     * Returns the number of calls that exceeded the budget.
+     */
+    public long slowCallCount()
+    {
+        return mSlowCallCount;
+    }
+
+
+    /**
+     * Returns whether the provider has been skipped for exceeding the budget.
+     */
+    public boolean isSkipped()
+    {
+        return mSkipped;
+    }
+
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s: %d calls, %d µs total, p50 %d µs, p99 %d µs, max %d µs, %d slow%s", mName, mCallCount, mTotalNanos / 1000,
+                mMedianNanos / 1000, mP99Nanos / 1000, mMaxNanos / 1000, mSlowCallCount, mSkipped ? ", skipped" : "");
+    }
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.dmfs.android.instantpicker.events;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import org.dmfs.rfc5545.DateTime;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * An application wide registry of shared {@link EventsProvider}s.
+ * <p>
+ * Providers are keyed by their {@link EventProviderFactory}, so factories used with this registry should implement {@link Object#equals(Object)} and {@link
+ * Object#hashCode()}. Each {@link #acquire(Context, EventProviderFactory)} returns a separate handle with its own {@link EventsProvider.OnLoadListener}, all
+ * handles of the same factory share the same provider and its loaded events. Once the last handle has been {@link #release(EventsProvider) released} the
+ * provider is kept for another {@link #IDLE_TIMEOUT} milliseconds, so it survives configuration changes and quickly reopened dialogs. Afterwards it's
+ * {@link EventsProvider#close() closed}.
+ * <p>
+ * All methods must be called on the main thread.
+ */
+public final class EventsProviderRegistry
+{
+    /**
+     * The time in milliseconds to keep a provider after its last handle has been released.
+     */
+    public final static long IDLE_TIMEOUT = 60 * 1000;
+
+    private final static Map<EventProviderFactory, Entry> ENTRIES = new HashMap<>();
+    private final static Handler HANDLER = new Handler(Looper.getMainLooper());
+
+
+    /**
+     * Returns a handle to the shared {@link EventsProvider} of the given factory, creating the provider if necessary. The handle must be {@link
+     * #release(EventsProvider) released} when it's no longer used.
+     *
+     * @param context
+     *         A {@link Context}, only the application {@link Context} is passed to the factory.
+     * @param factory
+     *         The {@link EventProviderFactory} of the provider.
+     *
+     * @return An {@link EventsProvider} handle.
+     */
+    public static EventsProvider acquire(Context context, EventProviderFactory factory)
+    {
+        Entry entry = ENTRIES.get(factory);
+        if (entry == null)
+        {
+            entry = new Entry(factory, factory.create(context.getApplicationContext()));
+            ENTRIES.put(factory, entry);
+        }
+        HANDLER.removeCallbacks(entry);
+        Handle handle = new Handle(entry);
+        entry.mHandles.add(handle);
+        return handle;
+    }
+
+
+    /**
+     * Releases a handle returned by {@link #acquire(Context, EventProviderFactory)}. The handle must not be used afterwards.
+     *
+     * @param provider
+     *         A handle returned by {@link #acquire(Context, EventProviderFactory)}.
+     */
+    public static void release(EventsProvider provider)
+    {
+        if (!(provider instanceof Handle))
+        {
+            throw new IllegalArgumentException("Not a shared EventsProvider");
+        }
+        Handle handle = (Handle) provider;
+        Entry entry = handle.mEntry;
+        handle.mOnLoadListener = null;
+        if (entry.mHandles.remove(handle) && entry.mHandles.isEmpty())
+        {
+            HANDLER.postDelayed(entry, IDLE_TIMEOUT);
+        }
+    }
+
+
+    /**
+     * Returns whether a provider of the given factory is currently held by the registry.
+     *
+     * @param factory
+     *         An {@link EventProviderFactory}.
+     *
+     * @return {@code true} if the registry holds a provider of that factory.
+     */
+    public static boolean contains(EventProviderFactory factory)
+    {
+        return ENTRIES.containsKey(factory);
+    }
+
+
+    /**
+     * A shared provider along with its handles. It fans out the load notifications of the provider to all handles and evicts the provider when run.
+     */
+    private final static class Entry implements Runnable, EventsProvider.OnLoadListener
+    {
+        private final EventProviderFactory mFactory;
+        private final EventsProvider mProvider;
+        private final List<Handle> mHandles = new ArrayList<>(2);
+
+
+        private Entry(EventProviderFactory factory, EventsProvider provider)
+        {
+            mFactory = factory;
+            mProvider = provider;
+            provider.setOnLoadListener(this);
+        }
+
+
+        @Override
+        public void onLoad(EventsProvider provider)
+        {
+            for (int i = mHandles.size() - 1; i >= 0; --i)
+            {
+                if (i < mHandles.size())
+                {
+                    mHandles.get(i).onLoad();
+                }
+            }
+        }
+
+
+        @Override
+        public void onLoad(EventsProvider provider, int year, int month)
+        {
+            for (int i = mHandles.size() - 1; i >= 0; --i)
+            {
+                if (i < mHandles.size())
+                {
+                    mHandles.get(i).onLoad(year, month);
+                }
+            }
+        }
+
+
+        @Override
+        public void onEventsChanged(EventsProvider provider, int fromPackedDay, int toPackedDay)
+        {
+            for (int i = mHandles.size() - 1; i >= 0; --i)
+            {
+                if (i < mHandles.size())
+                {
+                    mHandles.get(i).onEventsChanged(fromPackedDay, toPackedDay);
+                }
+            }
+        }
+
+
+        @Override
+        public void run()
+        {
+            // the provider has been idle for too long
+            if (mHandles.isEmpty() && ENTRIES.get(mFactory) == this)
+            {
+                ENTRIES.remove(mFactory);
+                mProvider.setOnLoadListener(null);
+                mProvider.close();
+            }
+        }
+    }
+
+
+    /**
+     * A handle to a shared provider. It delegates all queries to the provider, but has its own listener.
+     */
+    private final static class Handle implements EventsProvider
+    {
+        private final Entry mEntry;
+        private OnLoadListener mOnLoadListener;
+
+
+        private Handle(Entry entry)
+        {
+            mEntry = entry;
+        }
+
+
+        @Override
+        public boolean hasEventsOn(DateTime day)
+        {
+            return mEntry.mProvider.hasEventsOn(day);
+        }
+
+
+        @Override
+        public boolean hasEventsOn(int packedDay)
+        {
+            return mEntry.mProvider.hasEventsOn(packedDay);
+        }
+
+
+        @Override
+        public void appendEventsTo(DateTime day, List<Event> events)
+        {
+            mEntry.mProvider.appendEventsTo(day, events);
+        }
+
+
+        @Override
+        public int eventMask(int year, int month)
+        {
+            return mEntry.mProvider.eventMask(year, month);
+        }
+
+
+        @Override
+        public void addEventCounts(int year, int month, int[] counts)
+        {
+            mEntry.mProvider.addEventCounts(year, month, counts);
+        }
+
+
+        @Override
+        public int indicatorColor()
+        {
+            return mEntry.mProvider.indicatorColor();
+        }
+
+
+        @Override
+        public void prefetch(int year, int month)
+        {
+            mEntry.mProvider.prefetch(year, month);
+        }
+
+
+        @Override
+        public void setOnLoadListener(OnLoadListener listener)
+        {
+            mOnLoadListener = listener;
+        }
+
+
+        @Override
+        public void retainWindow(int fromPackedDay, int toPackedDay)
+        {
+            // other handles may be interested in other days
+            if (mEntry.mHandles.size() == 1)
+            {
+                mEntry.mProvider.retainWindow(fromPackedDay, toPackedDay);
+            }
+        }
+
+
+        /**
+         * Does nothing, shared providers are closed by the registry once they have been idle for {@link #IDLE_TIMEOUT} milliseconds. Use {@link
+         * #release(EventsProvider)} to release a handle.
+         */
+        @Override
+        public void close()
+        {
+            // nothing to do
+        }
+
+
+        private void onLoad()
+        {
+            if (mOnLoadListener != null)
+            {
+                mOnLoadListener.onLoad(this);
+            }
+        }
+
+
+        private void onLoad(int year, int month)
+        {
+            if (mOnLoadListener != null)
+            {
+                mOnLoadListener.onLoad(this, year, month);
+            }
+        }
+
+
+        private void onEventsChanged(int fromPackedDay, int toPackedDay)
+        {
+            if (mOnLoadListener != null)
+            {
+                mOnLoadListener.onEventsChanged(this, fromPackedDay, toPackedDay);
+            }
+        }
+    }
+
+
+    private EventsProviderRegistry()
+    {
+    }
+}
@@ -0,0 +1,360 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.dmfs.android.instantpicker.events;
+
+import android.content.ContentResolver;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.v4.os.CancellationSignal;
+import android.util.Log;
+
+import org.dmfs.rfc5545.DateTime;
+import org.dmfs.rfc5545.Duration;
+import org.dmfs.rfc5545.recur.InvalidRecurrenceRuleException;
+import org.dmfs.rfc5545.recur.RecurrenceRule;
+import org.dmfs.rfc5545.recur.RecurrenceRuleIterator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+
+/**
+ * An {@link EventsProvider} that shows the events of an iCalendar file.
+ * <p>
+ * The file is parsed in the background as a stream by an {@link IcsReader}. Instead of the events, only a {@link DayMask} per month of a fixed range of
+ * years is kept, so memory doesn't depend on the size of the file. The {@link OnLoadListener} is notified whenever another chunk of events has been added,
+ * so visible months update while the rest of the file is still being parsed. Until the file has been parsed completely, months report the days known so far
+ * with the {@link DayMask#UNKNOWN} flag set.
+ * <p>
+ * Since event details are not kept, {@link #appendEventsTo(DateTime, List)} returns a single untitled all-day event for each day with events. {@link
+ * #close()} stops parsing a file that hasn't been parsed completely.
+ */
+public final class IcsEventsProvider implements EventsProvider
+{
+    private final static String TAG = "IcsEventsProvider";
+
+    /**
+     * The default number of years before and after the current year to index.
+     */
+    public final static int DEFAULT_YEARS = 20;
+
+    /**
+     * The number of event instances to add before publishing the months changed so far.
+     */
+    private final static int CHUNK_SIZE = 512;
+
+    /**
+     * If more months than this changed in a chunk, listeners get a single full update instead of one per month.
+     */
+    private final static int MAX_MONTH_UPDATES = 12;
+
+    private final static Duration ONE_DAY_DURATION = new Duration(1, 1, 0);
+
+    /**
+     * The {@link Executor} to parse files on. It's separate from the one of {@link AsyncEventsProvider}, so a large file doesn't hold up the month loads of
+     * other providers.
+     */
+    private final static Executor PARSER_EXECUTOR = Executors.newSingleThreadExecutor(AsyncEventsProvider.LOADER_THREAD_FACTORY);
+
+    private final int mFirstYear;
+    private final int mLastYear;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final CancellationSignal mCancellationSignal = new CancellationSignal();
+
+    // the published masks, owned by the main thread
+    private final int[] mMasks;
+    private boolean mComplete;
+    private OnLoadListener mOnLoadListener;
+
+
+    /**
+     * Creates an {@link IcsEventsProvider} for the iCalendar file at the given {@link Uri}, indexing {@link #DEFAULT_YEARS} years before and after the current
+     * year.
+     *
+     * @param resolver
+     *         A {@link ContentResolver} to open the file.
+     * @param uri
+     *         The {@link Uri} of an iCalendar file.
+     */
+    public IcsEventsProvider(ContentResolver resolver, Uri uri)
+    {
+        this(resolver, uri, currentYear() - DEFAULT_YEARS, currentYear() + DEFAULT_YEARS);
+    }
+
+
+    /**
+     * Creates an {@link IcsEventsProvider} for the iCalendar file at the given {@link Uri}, indexing the given range of years. Events outside that range are
+     * not shown.
+     *
+     * @param resolver
+     *         A {@link ContentResolver} to open the file.
+     * @param uri
+     *         The {@link Uri} of an iCalendar file.
+     * @param firstYear
+     *         The first year to index.
+     * @param lastYear
+     *         The last year to index (inclusive).
+     */
+    public IcsEventsProvider(final ContentResolver resolver, final Uri uri, int firstYear, int lastYear)
+    {
+        if (lastYear < firstYear)
+        {
+            throw new IllegalArgumentException("lastYear must not be before firstYear");
+        }
+        mFirstYear = firstYear;
+        mLastYear = lastYear;
+        mMasks = new int[(lastYear - firstYear + 1) * 12];
+        PARSER_EXECUTOR.execute(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                parse(resolver, uri);
+            }
+        });
+    }
+
+
+    @Override
+    public boolean hasEventsOn(DateTime day)
+    {
+        return DayMask.contains(eventMask(day.getYear(), day.getMonth()), day.getDayOfMonth());
+    }
+
+
+    @Override
+    public boolean hasEventsOn(int packedDay)
+    {
+        return DayMask.contains(eventMask(PackedDay.year(packedDay), PackedDay.month(packedDay)), PackedDay.dayOfMonth(packedDay));
+    }
+
+
+    @Override
+    public int eventMask(int year, int month)
+    {
+        if (year < mFirstYear || year > mLastYear)
+        {
+            return DayMask.NONE;
+        }
+        int mask = mMasks[(year - mFirstYear) * 12 + month];
+        return mComplete ? mask : mask | DayMask.UNKNOWN;
+    }
+
+
+    @Override
+    public void appendEventsTo(DateTime day, List<Event> events)
+    {
+        if (hasEventsOn(day))
+        {
+            events.add(new SimpleEvent(day.isAllDay() ? day : day.toAllDay(), ONE_DAY_DURATION));
+        }
+    }
+
+
+    @Override
+    public void setOnLoadListener(OnLoadListener listener)
+    {
+        mOnLoadListener = listener;
+    }
+
+
+    @Override
+    public void close()
+    {
+        mCancellationSignal.cancel();
+        mOnLoadListener = null;
+    }
+
+
+    /**
+     * Parses the file and publishes the masks in chunks. Runs on the parser thread.
+     */
+    private void parse(ContentResolver resolver, Uri uri)
+    {
+        Index index = new Index();
+        long fastForwardTo = new DateTime(DateTime.UTC, mFirstYear - 1, 0, 1, 0, 0, 0).getTimestamp();
+
+        IcsReader reader = null;
+        try
+        {
+            InputStream in = resolver.openInputStream(uri);
+            if (in == null)
+            {
+                throw new IOException("Can't open " + uri);
+            }
+            reader = new IcsReader(new InputStreamReader(in, "UTF-8"));
+            while (!mCancellationSignal.isCanceled() && reader.next())
+            {
+                if (reader.rule() == null)
+                {
+                    index.add(reader.start(), reader.duration());
+                    continue;
+                }
+
+                RecurrenceRuleIterator iterator;
+                try
+                {
+                    iterator = new RecurrenceRule(reader.rule()).iterator(reader.start());
+                }
+                catch (InvalidRecurrenceRuleException e)
+                {
+                    Log.w(TAG, "Ignoring invalid recurrence rule " + reader.rule(), e);
+                    index.add(reader.start(), reader.duration());
+                    continue;
+                }
+                iterator.fastForward(fastForwardTo);
+                while (iterator.hasNext() && !mCancellationSignal.isCanceled())
+                {
+                    DateTime instance = iterator.nextDateTime();
+                    if (!reader.isExcluded(instance) && !index.add(instance, reader.duration()))
+                    {
+                        // all further instances are after the end of the index
+                        break;
+                    }
+                }
+            }
+        }
+        catch (IOException | SecurityException | IllegalArgumentException e)
+        {
+            Log.e(TAG, "Can't read events from " + uri, e);
+        }
+        finally
+        {
+            if (reader != null)
+            {
+                try
+                {
+                    reader.close();
+                }
+                catch (IOException e)
+                {
+                    // nothing to do
+                }
+            }
+        }
+        if (!mCancellationSignal.isCanceled())
+        {
+            index.publish(true);
+        }
+    }
+
+
+    /**
+     * The masks of the parser thread, along with the months that changed since the last chunk was published.
+     */
+    private final class Index
+    {
+        private final int mWindowStart = PackedDay.of(mFirstYear, 0, 1);
+        private final int mWindowEnd = PackedDay.of(mLastYear, 11, 31);
+        private final int[] mWorkMasks = new int[mMasks.length];
+        private final int[] mChanged = new int[mMasks.length];
+        private final boolean[] mIsChanged = new boolean[mMasks.length];
+        private int mChangedCount;
+        private int mInstances;
+
+
+        /**
+         * Adds the days of the given event instance and publishes a chunk if necessary.
+         *
+         * @return {@code false} if the instance starts after the end of the index, so later instances of a recurring event can be skipped.
+         */
+        boolean add(DateTime start, Duration duration)
+        {
+            int firstDay = PackedDay.firstDay(start);
+            if (firstDay > mWindowEnd)
+            {
+                return false;
+            }
+
+            for (int day = Math.max(firstDay, mWindowStart), lastDay = Math.min(PackedDay.lastDay(start, duration), mWindowEnd);
+                 day <= lastDay; day = PackedDay.next(day))
+            {
+                int month = (PackedDay.year(day) - mFirstYear) * 12 + PackedDay.month(day);
+                mWorkMasks[month] = DayMask.with(mWorkMasks[month], PackedDay.dayOfMonth(day));
+                if (!mIsChanged[month])
+                {
+                    mIsChanged[month] = true;
+                    mChanged[mChangedCount++] = month;
+                }
+            }
+
+            if (++mInstances % CHUNK_SIZE == 0 && mChangedCount > 0)
+            {
+                publish(false);
+            }
+            return true;
+        }
+
+
+        /**
+         * Posts the masks of the changed months to the main thread and notifies the listener.
+         */
+        void publish(final boolean complete)
+        {
+            final int[] months = Arrays.copyOf(mChanged, mChangedCount);
+            final int[] values = new int[mChangedCount];
+            for (int i = 0; i < mChangedCount; ++i)
+            {
+                values[i] = mWorkMasks[months[i]];
+                mIsChanged[months[i]] = false;
+            }
+            mChangedCount = 0;
+
+            mHandler.post(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    for (int i = 0; i < months.length; ++i)
+                    {
+                        mMasks[months[i]] = values[i];
+                    }
+                    mComplete = complete;
+
+                    OnLoadListener listener = mOnLoadListener;
+                    if (listener == null)
+                    {
+                        return;
+                    }
+                    if (complete || months.length > MAX_MONTH_UPDATES)
+                    {
+                        // completing changes the state of all months
+                        listener.onLoad(IcsEventsProvider.this);
+                        return;
+                    }
+                    for (int month : months)
+                    {
+                        listener.onLoad(IcsEventsProvider.this, mFirstYear + month / 12, month % 12);
+                    }
+                }
+            });
+        }
+    }
+
+
+    private static int currentYear()
+    {
+        return new DateTime(System.currentTimeMillis()).getYear();
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.dmfs.android.instantpicker.events;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.Parcel;
+import android.os.Parcelable;
+
+
+/**
+ * A factory that returns {@link IcsEventsProvider}s for a specific iCalendar file.
+ */
+public class IcsEventsProviderFactory implements EventProviderFactory, Parcelable
+{
+    private final static long serialVersionUID = 0L;
+
+    private final String mUri;
+    private final int mFirstYear;
+    private final int mLastYear;
+    private final boolean mDefaultYears;
+
+
+    /**
+     * Creates an {@link IcsEventsProviderFactory} for the iCalendar file at the given {@link Uri}, indexing {@link IcsEventsProvider#DEFAULT_YEARS} years
+     * before and after the current year.
+     *
+     * @param uri
+     *         The {@link Uri} of an iCalendar file, any {@link Uri} supported by {@link android.content.ContentResolver#openInputStream(Uri)}.
+     */
+    public IcsEventsProviderFactory(Uri uri)
+    {
+        this(uri, 0, 0, true);
+    }
+
+
+    /**
+     * Creates an {@link IcsEventsProviderFactory} for the iCalendar file at the given {@link Uri}, indexing the given range of years.
+     *
+     * @param uri
+     *         The {@link Uri} of an iCalendar file, any {@link Uri} supported by {@link android.content.ContentResolver#openInputStream(Uri)}.
+     * @param firstYear
+     *         The first year to index.
+     * @param lastYear
+     *         The last year to index (inclusive).
+     */
+    public IcsEventsProviderFactory(Uri uri, int firstYear, int lastYear)
+    {
+        this(uri, firstYear, lastYear, false);
+    }
+
+
+    private IcsEventsProviderFactory(Uri uri, int firstYear, int lastYear, boolean defaultYears)
+    {
+        mUri = uri.toString();
+        mFirstYear = firstYear;
+        mLastYear = lastYear;
+        mDefaultYears = defaultYears;
+    }
+
+
+    @Override
+    public EventsProvider create(Context context)
+    {
+        Uri uri = Uri.parse(mUri);
+        if (mDefaultYears)
+        {
+            return new IcsEventsProvider(context.getApplicationContext().getContentResolver(), uri);
+        }
+        return new IcsEventsProvider(context.getApplicationContext().getContentResolver(), uri, mFirstYear, mLastYear);
+    }
+
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (!(obj instanceof IcsEventsProviderFactory))
+        {
+            return false;
+        }
+        IcsEventsProviderFactory other = (IcsEventsProviderFactory) obj;
+        return mUri.equals(other.mUri) && mDefaultYears == other.mDefaultYears && mFirstYear == other.mFirstYear && mLastYear == other.mLastYear;
+    }
+
+
+    @Override
+    public int hashCode()
+    {
+        return (mUri.hashCode() * 31 + mFirstYear) * 31 + mLastYear;
+    }
+
+
+    @Override
+    public int describeContents()
+    {
+        return 0;
+    }
+
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags)
+    {
+        dest.writeString(mUri);
+        dest.writeInt(mFirstYear);
+        dest.writeInt(mLastYear);
+        dest.writeInt(mDefaultYears ? 1 : 0);
+    }
+
+
+    public final static Creator<IcsEventsProviderFactory> CREATOR = new Creator<IcsEventsProviderFactory>()
+    {
+        @Override
+        public IcsEventsProviderFactory createFromParcel(Parcel in)
+        {
+            return new IcsEventsProviderFactory(Uri.parse(in.readString()), in.readInt(), in.readInt(), in.readInt() != 0);
+        }
+
+
+        @Override
+        public IcsEventsProviderFactory[] newArray(int size)
+        {
+            return new IcsEventsProviderFactory[size];
+        }
+    };
+}
@@ -0,0 +1,416 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.android.instantpicker.events;
+
+import org.dmfs.rfc5545.DateTime;
+import org.dmfs.rfc5545.Duration;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.TimeZone;
+
+
+/**
+ * A streaming reader of the {@code VEVENT}s of an iCalendar (RFC 5545) stream.
+ * <p>
+ * Only one event is held in memory at a time, so this can read calendars of any size. Each call to {@link #next()} moves to the next event, which is then
+ * available through {@link #start()}, {@link #duration()}, {@link #rule()} and {@link #title()}. Only the properties needed to place an event on the
+ * calendar are read, everything else (including {@code VTIMEZONE}s, time zones are resolved by their ID) is skipped.
+ * <p>
+ * Cancelled events are skipped. The {@code EXDATE}s of a recurring event are available through {@link #isExcluded(DateTime)}. An override of a single
+ * instance (an event with a {@code RECURRENCE-ID}) is returned like any other event, at its own start. Since only one event is held at a time, the
+ * instance it overrides is not removed from the recurring event, unless it's excluded as well, which most calendars do.
+ * <p>
+ * This class doesn't depend on any Android APIs, so it can be used on the JVM as well.
+ */
+public final class IcsReader implements Closeable
+{
+    private final static Duration ONE_DAY = new Duration(1, 1, 0);
+    private final static Duration NONE = new Duration(1, 0, 0);
+
+    private final BufferedReader mReader;
+    private final StringBuilder mLine = new StringBuilder(256);
+    private String mNextLine;
+
+    private DateTime mStart;
+    private Duration mDuration;
+    private String mRule;
+    private String mTitle;
+    private long[] mExceptions = new long[16];
+    private int mExceptionCount;
+
+
+    public IcsReader(Reader reader)
+    {
+        mReader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+    }
+
+
+    /**
+     * Moves to the next event of the stream. Events without a valid start and cancelled events are skipped.
+     *
+     * @return {@code true} if there was another event, {@code false} at the end of the stream.
+     *
+     * @throws IOException
+     *         If the stream could not be read.
+     */
+    public boolean next() throws IOException
+    {
+        while (readLine())
+        {
+            if (isLine("BEGIN", "VEVENT") && readEvent())
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * Returns the start of the current event.
+     */
+    public DateTime start()
+    {
+        return mStart;
+    }
+
+
+    /**
+     * Returns the {@link Duration} of the current event.
+     */
+    public Duration duration()
+    {
+        return mDuration;
+    }
+
+
+    /**
+     * Returns the recurrence rule of the current event or {@code null} if it doesn't recur.
+     */
+    public String rule()
+    {
+        return mRule;
+    }
+
+
+    /**
+     * Returns the title of the current event or {@code null} if it has none.
+     */
+    public String title()
+    {
+        return mTitle;
+    }
+
+
+    /**
+     * Returns whether the given instance of the current event is excluded by an {@code EXDATE}.
+     *
+     * @param instance
+     *         The start of an instance of the current event.
+     */
+    public boolean isExcluded(DateTime instance)
+    {
+        return mExceptionCount > 0 && Arrays.binarySearch(mExceptions, 0, mExceptionCount, instance.getTimestamp()) >= 0;
+    }
+
+
+    @Override
+    public void close() throws IOException
+    {
+        mReader.close();
+    }
+
+
+    /**
+     * Reads the properties of a {@code VEVENT} up to its end.
+     *
+     * @return {@code true} if the event has a valid start and is not cancelled.
+     */
+    private boolean readEvent() throws IOException
+    {
+        mExceptionCount = 0;
+        DateTime start = null;
+        DateTime end = null;
+        Duration duration = null;
+        String rule = null;
+        String title = null;
+        boolean cancelled = false;
+        // the nesting level of sub-components like VALARMs, we ignore their properties
+        int depth = 0;
+
+        while (readLine())
+        {
+            String name = propertyName();
+            if ("BEGIN".equals(name))
+            {
+                ++depth;
+            }
+            else if ("END".equals(name))
+            {
+                if (depth == 0)
+                {
+                    break;
+                }
+                --depth;
+            }
+            else if (depth > 0)
+            {
+                continue;
+            }
+            else if ("DTSTART".equals(name))
+            {
+                start = dateTimeValue();
+            }
+            else if ("DTEND".equals(name))
+            {
+                end = dateTimeValue();
+            }
+            else if ("DURATION".equals(name))
+            {
+                duration = durationValue();
+            }
+            else if ("RRULE".equals(name))
+            {
+                rule = value();
+            }
+            else if ("SUMMARY".equals(name))
+            {
+                title = text(value());
+            }
+            else if ("STATUS".equals(name))
+            {
+                cancelled = "CANCELLED".equalsIgnoreCase(value().trim());
+            }
+            else if ("EXDATE".equals(name))
+            {
+                readExceptions();
+            }
+        }
+
+        if (start == null || cancelled)
+        {
+            return false;
+        }
+        Arrays.sort(mExceptions, 0, mExceptionCount);
+
+        if (duration == null)
+        {
+            if (end != null)
+            {
+                duration = start.isAllDay()
+                        ? new Duration(1, (int) ((end.getTimestamp() - start.getTimestamp()) / (24 * 3600 * 1000)), 0)
+                        : new Duration(1, 0, (int) ((end.getTimestamp() - start.getTimestamp()) / 1000));
+            }
+            else
+            {
+                duration = start.isAllDay() ? ONE_DAY : NONE;
+            }
+        }
+
+        mStart = start;
+        mDuration = duration;
+        mRule = rule;
+        mTitle = title;
+        return true;
+    }
+
+
+    /**
+     * Reads the next unfolded content line into {@link #mLine}.
+     *
+     * @return {@code false} at the end of the stream.
+     */
+    private boolean readLine() throws IOException
+    {
+        String line = mNextLine != null ? mNextLine : mReader.readLine();
+        if (line == null)
+        {
+            mNextLine = null;
+            return false;
+        }
+        mLine.setLength(0);
+        mLine.append(line);
+        while ((mNextLine = mReader.readLine()) != null && mNextLine.length() > 0 && (mNextLine.charAt(0) == ' ' || mNextLine.charAt(0) == '\t'))
+        {
+            mLine.append(mNextLine, 1, mNextLine.length());
+        }
+        return true;
+    }
+
+
+    private boolean isLine(String name, String value)
+    {
+        return name.equalsIgnoreCase(propertyName()) && value.equalsIgnoreCase(value());
+    }
+
+
+    private String propertyName()
+    {
+        int end = 0;
+        int length = mLine.length();
+        while (end < length && mLine.charAt(end) != ';' && mLine.charAt(end) != ':')
+        {
+            ++end;
+        }
+        return mLine.substring(0, end).toUpperCase();
+    }
+
+
+    /**
+     * Returns the value of the current line, i.e. everything after the first colon that's not within a quoted parameter value.
+     */
+    private String value()
+    {
+        return mLine.substring(valueStart());
+    }
+
+
+    private int valueStart()
+    {
+        boolean quoted = false;
+        for (int i = 0, length = mLine.length(); i < length; ++i)
+        {
+            char c = mLine.charAt(i);
+            if (c == '"')
+            {
+                quoted = !quoted;
+            }
+            else if (c == ':' && !quoted)
+            {
+                return i + 1;
+            }
+        }
+        return mLine.length();
+    }
+
+
+    /**
+     * Returns the value of the given parameter of the current line or {@code null} if the line doesn't have that parameter.
+     */
+    private String parameter(String name)
+    {
+        int valueStart = valueStart();
+        String params = mLine.substring(0, Math.max(0, valueStart - 1));
+        int index = params.toUpperCase().indexOf(";" + name + "=");
+        if (index < 0)
+        {
+            return null;
+        }
+        int start = index + name.length() + 2;
+        int end = start;
+        boolean quoted = false;
+        while (end < params.length() && (quoted || params.charAt(end) != ';'))
+        {
+            if (params.charAt(end) == '"')
+            {
+                quoted = !quoted;
+            }
+            ++end;
+        }
+        String value = params.substring(start, end);
+        return value.length() > 1 && value.charAt(0) == '"' ? value.substring(1, value.length() - 1) : value;
+    }
+
+
+    /**
+     * Adds the timestamps of the date or date-time list of the current line to {@link #mExceptions}.
+     */
+    private void readExceptions()
+    {
+        String tzId = parameter("TZID");
+        for (String value : value().split(","))
+        {
+            DateTime exception = dateTime(value.trim(), tzId);
+            if (exception == null)
+            {
+                continue;
+            }
+            if (mExceptionCount == mExceptions.length)
+            {
+                mExceptions = Arrays.copyOf(mExceptions, mExceptionCount * 2);
+            }
+            mExceptions[mExceptionCount++] = exception.getTimestamp();
+        }
+    }
+
+
+    private DateTime dateTimeValue()
+    {
+        return dateTime(value().trim(), parameter("TZID"));
+    }
+
+
+    private static DateTime dateTime(String value, String tzId)
+    {
+        try
+        {
+            if (tzId == null || value.length() == 8 || value.endsWith("Z"))
+            {
+                return DateTime.parse(value);
+            }
+            return DateTime.parse(TimeZone.getTimeZone(tzId), value);
+        }
+        catch (IllegalArgumentException e)
+        {
+            return null;
+        }
+    }
+
+
+    private Duration durationValue()
+    {
+        try
+        {
+            return Duration.parse(value().trim());
+        }
+        catch (IllegalArgumentException e)
+        {
+            return null;
+        }
+    }
+
+
+    /**
+     * Unescapes a TEXT value.
+     */
+    private static String text(String value)
+    {
+        if (value.indexOf('\\') < 0)
+        {
+            return value;
+        }
+        StringBuilder result = new StringBuilder(value.length());
+        for (int i = 0, length = value.length(); i < length; ++i)
+        {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < length)
+            {
+                c = value.charAt(++i);
+                result.append(c == 'n' || c == 'N' ? '\n' : c);
+            }
+            else
+            {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+}
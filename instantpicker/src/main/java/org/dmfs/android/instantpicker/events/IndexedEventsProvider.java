@@ -0,0 +1,325 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.android.instantpicker.events;
+
+import org.dmfs.rfc5545.DateTime;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+
+/**
+ * An {@link EventsProvider} for a fixed collection of {@link Event}s, including events that span multiple days.
+ * <p>
+ * The events are indexed by the {@link PackedDay}s they cover. Days with events are looked up by a binary search over the union of all events, the events of
+ * a specific day are found with an implicit interval tree over the events ordered by their start. Both take logarithmic time in the number of events (plus
+ * the size of the result), so this scales to thousands of events.
+ * <p>
+ * Timed events are converted to the local time zone, so they cover the days they take place on in local time. An event ending at midnight doesn't cover the
+ * following day.
+ */
+public class IndexedEventsProvider implements EventsProvider
+{
+    private final static int STACK_SIZE = 64;
+
+    // the events ordered by start
+    private final Event[] mEvents;
+    // the first day of each event
+    private final int[] mStarts;
+    // the day after the last day of each event
+    private final int[] mEnds;
+    // the maximum end of the subtree rooted at each node of the implicit interval tree
+    private final int[] mMaxEnds;
+    private final int mMaxLevel;
+
+    // the union of all events as disjoint ranges of days, starts inclusive, ends exclusive
+    private final int[] mCoveredStarts;
+    private final int[] mCoveredEnds;
+
+    // scratch stacks for the tree traversal
+    private final int[] mStackLevel = new int[STACK_SIZE];
+    private final int[] mStackNode = new int[STACK_SIZE];
+    private final boolean[] mStackLeftDone = new boolean[STACK_SIZE];
+
+
+    public IndexedEventsProvider(Collection<? extends Event> events)
+    {
+        int count = events.size();
+        Event[] unsorted = events.toArray(new Event[count]);
+
+        // sort by start day, keeping track of the original index in the lower 32 bits
+        long[] order = new long[count];
+        int[] starts = new int[count];
+        int[] ends = new int[count];
+        for (int i = 0; i < count; ++i)
+        {
+            starts[i] = PackedDay.firstDay(unsorted[i].start());
+            ends[i] = PackedDay.lastDay(unsorted[i].start(), unsorted[i].duration()) + 1;
+            order[i] = ((long) starts[i] << 32) | i;
+        }
+        Arrays.sort(order);
+
+        mEvents = new Event[count];
+        mStarts = new int[count];
+        mEnds = new int[count];
+        for (int i = 0; i < count; ++i)
+        {
+            int index = (int) order[i];
+            mEvents[i] = unsorted[index];
+            mStarts[i] = starts[index];
+            mEnds[i] = ends[index];
+        }
+
+        mMaxEnds = new int[count];
+        mMaxLevel = buildTree(mEnds, mMaxEnds, count);
+
+        // merge overlapping events into disjoint ranges
+        int[] coveredStarts = new int[count];
+        int[] coveredEnds = new int[count];
+        int ranges = 0;
+        for (int i = 0; i < count; ++i)
+        {
+            if (ranges > 0 && mStarts[i] <= coveredEnds[ranges - 1])
+            {
+                coveredEnds[ranges - 1] = Math.max(coveredEnds[ranges - 1], mEnds[i]);
+            }
+            else
+            {
+                coveredStarts[ranges] = mStarts[i];
+                coveredEnds[ranges] = mEnds[i];
+                ranges++;
+            }
+        }
+        mCoveredStarts = Arrays.copyOf(coveredStarts, ranges);
+        mCoveredEnds = Arrays.copyOf(coveredEnds, ranges);
+    }
+
+
+    @Override
+    public boolean hasEventsOn(DateTime day)
+    {
+        return hasEventsOn(PackedDay.of(day));
+    }
+
+
+    @Override
+    public boolean hasEventsOn(int packedDay)
+    {
+        int range = firstRangeEndingAfter(packedDay);
+        return range < mCoveredStarts.length && mCoveredStarts[range] <= packedDay;
+    }
+
+
+    @Override
+    public int eventMask(int year, int month)
+    {
+        int first = PackedDay.firstOfMonth(year, month);
+        int last = PackedDay.lastOfMonth(year, month);
+        int mask = DayMask.NONE;
+        for (int range = firstRangeEndingAfter(first); range < mCoveredStarts.length && mCoveredStarts[range] <= last; ++range)
+        {
+            int from = Math.max(mCoveredStarts[range], first);
+            int to = Math.min(mCoveredEnds[range] - 1, last);
+            // within a month packed days are consecutive
+            mask |= rangeMask(PackedDay.dayOfMonth(from), PackedDay.dayOfMonth(to));
+        }
+        return mask;
+    }
+
+
+    @Override
+    public void appendEventsTo(DateTime day, List<Event> events)
+    {
+        appendEventsTo(PackedDay.of(day), events);
+    }
+
+
+    /**
+     * Appends all events covering the given {@link PackedDay} to the given list, in the order of their start.
+     *
+     * @param packedDay
+     *         A {@link PackedDay}.
+     * @param events
+     *         The list to append the events to.
+     */
+    public void appendEventsTo(int packedDay, List<Event> events)
+    {
+        query(packedDay, packedDay, events, null);
+    }
+
+
+    @Override
+    public void addEventCounts(int year, int month, int[] counts)
+    {
+        query(PackedDay.firstOfMonth(year, month), PackedDay.lastOfMonth(year, month), null, counts);
+    }
+
+
+    @Override
+    public void setOnLoadListener(OnLoadListener listener)
+    {
+        // the events never change, so no need to store the listener
+    }
+
+
+    /**
+     * Finds all events overlapping the given range of days. The events are appended to the given list, if any, and if counts are given, each day of the
+     * overlap of an event with the range increments the count of its day of month, so the range must not span more than one month.
+     */
+    private void query(int from, int to, List<Event> events, int[] counts)
+    {
+        int count = mEvents.length;
+        if (count == 0)
+        {
+            return;
+        }
+
+        // top-down traversal of the implicit interval tree, see https://github.com/lh3/cgranges
+        int top = 0;
+        mStackLevel[top] = mMaxLevel;
+        mStackNode[top] = (1 << mMaxLevel) - 1;
+        mStackLeftDone[top++] = false;
+        while (top > 0)
+        {
+            --top;
+            int level = mStackLevel[top];
+            int node = mStackNode[top];
+            if (level <= 3)
+            {
+                // small subtree, just scan it
+                int i0 = node >> level << level;
+                int i1 = Math.min(i0 + (1 << (level + 1)) - 1, count);
+                for (int i = i0; i < i1 && mStarts[i] <= to; ++i)
+                {
+                    if (from < mEnds[i])
+                    {
+                        found(i, from, to, events, counts);
+                    }
+                }
+            }
+            else if (!mStackLeftDone[top])
+            {
+                int left = node - (1 << (level - 1));
+                // revisit this node once the left subtree is done
+                mStackLeftDone[top++] = true;
+                if (left >= count || mMaxEnds[left] > from)
+                {
+                    mStackLevel[top] = level - 1;
+                    mStackNode[top] = left;
+                    mStackLeftDone[top++] = false;
+                }
+            }
+            else if (node < count && mStarts[node] <= to)
+            {
+                if (from < mEnds[node])
+                {
+                    found(node, from, to, events, counts);
+                }
+                mStackLevel[top] = level - 1;
+                mStackNode[top] = node + (1 << (level - 1));
+                mStackLeftDone[top++] = false;
+            }
+        }
+    }
+
+
+    private void found(int event, int from, int to, List<Event> events, int[] counts)
+    {
+        if (events != null)
+        {
+            events.add(mEvents[event]);
+        }
+        if (counts != null)
+        {
+            // within a month packed days are consecutive
+            int last = PackedDay.dayOfMonth(Math.min(mEnds[event] - 1, to));
+            for (int day = PackedDay.dayOfMonth(Math.max(mStarts[event], from)); day <= last; ++day)
+            {
+                ++counts[day - 1];
+            }
+        }
+    }
+
+
+    /**
+     * Returns the index of the first covered range that ends after the given day.
+     */
+    private int firstRangeEndingAfter(int packedDay)
+    {
+        int low = 0;
+        int high = mCoveredEnds.length;
+        while (low < high)
+        {
+            int mid = (low + high) >>> 1;
+            if (mCoveredEnds[mid] <= packedDay)
+            {
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+
+    private static int rangeMask(int fromDay, int toDay)
+    {
+        return (int) (((1L << toDay) - 1) & ~((1L << (fromDay - 1)) - 1));
+    }
+
+
+    /**
+     * Calculates the maximum ends of the implicit interval tree over the given ends.
+     *
+     * @return The level of the root node.
+     */
+    private static int buildTree(int[] ends, int[] maxEnds, int count)
+    {
+        if (count == 0)
+        {
+            return 0;
+        }
+        int lastNode = 0;
+        int last = 0;
+        for (int i = 0; i < count; i += 2)
+        {
+            // leaves
+            lastNode = i;
+            last = maxEnds[i] = ends[i];
+        }
+        int level;
+        for (level = 1; 1 << level <= count; ++level)
+        {
+            int x = 1 << (level - 1);
+            for (int i = (x << 1) - 1; i < count; i += x << 2)
+            {
+                int left = maxEnds[i - x];
+                int right = i + x < count ? maxEnds[i + x] : last;
+                maxEnds[i] = Math.max(ends[i], Math.max(left, right));
+            }
+            lastNode = ((lastNode >> level) & 1) != 0 ? lastNode - x : lastNode + x;
+            if (lastNode < count && maxEnds[lastNode] > last)
+            {
+                last = maxEnds[lastNode];
+            }
+        }
+        return level - 1;
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.android.instantpicker.events;
+
+import org.dmfs.rfc5545.DateTime;
+import org.dmfs.rfc5545.Duration;
+
+import java.util.TimeZone;
+
+
+/**
+ * Helpers to work with packed days. A packed day represents a specific day of the Gregorian calendar in a single {@code int} like {@code year << 9 | month
+ * << 5 | dayOfMonth}, with month in [0-11] and dayOfMonth in [1-31].
+ * <p>
+ * Packed days can be compared like regular integers, i.e. a day that comes before another day always has a smaller value. Note that the values are not
+ * consecutive though, use {@link #next(int)} and {@link #previous(int)} to move by one day.
+ */
+public final class PackedDay
+{
+    private final static int MONTH_SHIFT = 5;
+    private final static int YEAR_SHIFT = 9;
+    private final static int DAY_MASK = 0x1f;
+    private final static int MONTH_MASK = 0x0f;
+    private final static int[] WEEKDAY_OFFSETS = { 0, 3, 2, 5, 0, 3, 5, 1, 4, 6, 2, 4 };
+
+
+    /**
+     * Returns the packed day of the given date.
+     *
+     * @param year
+     *         The year.
+     * @param month
+     *         The month [0-11].
+     * @param dayOfMonth
+     *         The day of month [1-31].
+     *
+     * @return The packed day.
+     */
+    public static int of(int year, int month, int dayOfMonth)
+    {
+        return (year << YEAR_SHIFT) | (month << MONTH_SHIFT) | dayOfMonth;
+    }
+
+
+    /**
+     * Returns the packed day of the given {@link DateTime}. Any time component is ignored.
+     *
+     * @param dateTime
+     *         A {@link DateTime}.
+     *
+     * @return The packed day.
+     */
+    public static int of(DateTime dateTime)
+    {
+        return of(dateTime.getYear(), dateTime.getMonth(), dateTime.getDayOfMonth());
+    }
+
+
+    /**
+     * Returns the year of the given packed day.
+     */
+    public static int year(int packedDay)
+    {
+        return packedDay >> YEAR_SHIFT;
+    }
+
+
+    /**
+     * Returns the month [0-11] of the given packed day.
+     */
+    public static int month(int packedDay)
+    {
+        return (packedDay >> MONTH_SHIFT) & MONTH_MASK;
+    }
+
+
+    /**
+     * Returns the day of month [1-31] of the given packed day.
+     */
+    public static int dayOfMonth(int packedDay)
+    {
+        return packedDay & DAY_MASK;
+    }
+
+
+    /**
+     * Returns the day of the week of the given packed day as the ordinal of the respective {@link org.dmfs.rfc5545.Weekday}, i.e. 0 for Sunday through 6 for
+     * Saturday.
+     */
+    public static int dayOfWeek(int packedDay)
+    {
+        int year = year(packedDay);
+        int month = month(packedDay);
+        // Sakamoto's method
+        if (month < 2)
+        {
+            year -= 1;
+        }
+        return (year + year / 4 - year / 100 + year / 400 + WEEKDAY_OFFSETS[month] + dayOfMonth(packedDay)) % 7;
+    }
+
+
+    /**
+     * Returns the packed day of the first day of the given month.
+     *
+     * @param year
+     *         The year.
+     * @param month
+     *         The month [0-11].
+     *
+     * @return The first day of the month.
+     */
+    public static int firstOfMonth(int year, int month)
+    {
+        return of(year, month, 1);
+    }
+
+
+    /**
+     * Returns the packed day of the last day of the given month.
+     *
+     * @param year
+     *         The year.
+     * @param month
+     *         The month [0-11].
+     *
+     * @return The last day of the month.
+     */
+    public static int lastOfMonth(int year, int month)
+    {
+        return of(year, month, DayMask.daysInMonth(year, month));
+    }
+
+
+    /**
+     * Returns the packed day following the given packed day.
+     */
+    public static int next(int packedDay)
+    {
+        int year = year(packedDay);
+        int month = month(packedDay);
+        int day = dayOfMonth(packedDay);
+        if (day < DayMask.daysInMonth(year, month))
+        {
+            return packedDay + 1;
+        }
+        return month == 11 ? of(year + 1, 0, 1) : of(year, month + 1, 1);
+    }
+
+
+    /**
+     * Returns the packed day preceding the given packed day.
+     */
+    public static int previous(int packedDay)
+    {
+        if (dayOfMonth(packedDay) > 1)
+        {
+            return packedDay - 1;
+        }
+        int year = year(packedDay);
+        int month = month(packedDay);
+        return month == 0 ? of(year - 1, 11, 31) : lastOfMonth(year, month - 1);
+    }
+
+
+    /**
+     * Returns the packed day an event starting at the given {@link DateTime} starts on in the local time zone.
+     *
+     * @param start
+     *         The start of the event.
+     *
+     * @return The first day covered by the event.
+     */
+    public static int firstDay(DateTime start)
+    {
+        return of(local(start));
+    }
+
+
+    /**
+     * Returns the last packed day covered by an event with the given start and {@link Duration} in the local time zone. The end of an event is exclusive, so
+     * an event ending at midnight doesn't cover the following day.
+     *
+     * @param start
+     *         The start of the event.
+     * @param duration
+     *         The {@link Duration} of the event, may be {@code null}.
+     *
+     * @return The last day covered by the event.
+     */
+    public static int lastDay(DateTime start, Duration duration)
+    {
+        DateTime localStart = local(start);
+        int startDay = of(localStart);
+        if (duration == null || duration.isZero())
+        {
+            return startDay;
+        }
+        DateTime end = localStart.addDuration(duration);
+        int endDay = of(end);
+        if (end.isAllDay() || end.getHours() == 0 && end.getMinutes() == 0 && end.getSeconds() == 0)
+        {
+            endDay = previous(endDay);
+        }
+        return Math.max(startDay, endDay);
+    }
+
+
+    /**
+     * Returns an all-day {@link DateTime} of the given packed day.
+     */
+    public static DateTime toDateTime(int packedDay)
+    {
+        return new DateTime(year(packedDay), month(packedDay), dayOfMonth(packedDay));
+    }
+
+
+    private static DateTime local(DateTime dateTime)
+    {
+        if (dateTime.isAllDay() || dateTime.isFloating())
+        {
+            return dateTime;
+        }
+        return dateTime.shiftTimeZone(TimeZone.getDefault());
+    }
+
+
+    private PackedDay()
+    {
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.android.instantpicker.events;
+
+import org.dmfs.rfc5545.DateTime;
+import org.dmfs.rfc5545.Duration;
+
+import java.io.Serializable;
+import java.util.TimeZone;
+
+
+/**
+ * The description of a recurring event, i.e. an RFC 5545 recurrence rule, the start of the first instance and the {@link Duration} of each instance.
+ * <p>
+ * Since these are passed to the dialog in a {@link RecurringEventsProviderFactory}, they are {@link Serializable}.
+ */
+public final class RecurringEvent implements Serializable
+{
+    private final static long serialVersionUID = 0L;
+
+    private final String mRule;
+    private final long mStartTimestamp;
+    private final TimeZone mStartTimeZone;
+    private final boolean mAllDay;
+    private final String mDuration;
+    private final String mTitle;
+
+
+    /**
+     * Creates a {@link RecurringEvent}.
+     *
+     * @param rule
+     *         An RFC 5545 recurrence rule, like {@code FREQ=WEEKLY;BYDAY=MO,WE}.
+     * @param start
+     *         The start of the first instance.
+     * @param duration
+     *         The {@link Duration} of each instance.
+     * @param title
+     *         The title of the instances, may be {@code null}.
+     */
+    public RecurringEvent(String rule, DateTime start, Duration duration, String title)
+    {
+        mRule = rule;
+        mStartTimestamp = start.getTimestamp();
+        mStartTimeZone = start.getTimeZone();
+        mAllDay = start.isAllDay();
+        mDuration = duration.toString();
+        mTitle = title;
+    }
+
+
+    /**
+     * Returns the recurrence rule.
+     */
+    public String rule()
+    {
+        return mRule;
+    }
+
+
+    /**
+     * Returns the start of the first instance.
+     */
+    public DateTime start()
+    {
+        return mAllDay ? new DateTime(mStartTimestamp).toAllDay() : new DateTime(mStartTimeZone, mStartTimestamp);
+    }
+
+
+    /**
+     * Returns the {@link Duration} of each instance.
+     */
+    public Duration duration()
+    {
+        return Duration.parse(mDuration);
+    }
+
+
+    /**
+     * Returns the title of the instances.
+     */
+    public String title()
+    {
+        return mTitle;
+    }
+
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (!(obj instanceof RecurringEvent))
+        {
+            return false;
+        }
+        RecurringEvent other = (RecurringEvent) obj;
+        return mRule.equals(other.mRule) && mStartTimestamp == other.mStartTimestamp && mAllDay == other.mAllDay && mDuration.equals(other.mDuration)
+                && equal(mStartTimeZone == null ? null : mStartTimeZone.getID(), other.mStartTimeZone == null ? null : other.mStartTimeZone.getID())
+                && equal(mTitle, other.mTitle);
+    }
+
+
+    @Override
+    public int hashCode()
+    {
+        return (mRule.hashCode() * 31 + (int) (mStartTimestamp ^ (mStartTimestamp >>> 32))) * 31 + mDuration.hashCode();
+    }
+
+
+    private static boolean equal(String a, String b)
+    {
+        return a == null ? b == null : a.equals(b);
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.android.instantpicker.events;
+
+import android.support.v4.os.CancellationSignal;
+import android.util.Log;
+
+import org.dmfs.rfc5545.DateTime;
+import org.dmfs.rfc5545.Duration;
+import org.dmfs.rfc5545.recur.InvalidRecurrenceRuleException;
+import org.dmfs.rfc5545.recur.RecurrenceRule;
+import org.dmfs.rfc5545.recur.RecurrenceRuleIterator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+
+/**
+ * An {@link EventsProvider} that expands {@link RecurringEvent}s lazily.
+ * <p>
+ * Instances are only expanded for the months that are actually requested, in the background. The resulting {@link DayMask}s are kept in a bounded cache (see
+ * {@link AsyncEventsProvider}), so even a daily rule across centuries never has more than a month of instances expanded at a time.
+ */
+public class RecurringEventsProvider extends AsyncEventsProvider
+{
+    private final static String TAG = "RecurringEventsProvider";
+
+    private final static long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    private final RecurrenceRule[] mRules;
+    private final DateTime[] mStarts;
+    private final Duration[] mDurations;
+    private final String[] mTitles;
+    // the number of days to go back to find instances reaching into a day, the full length of the longest instance plus one for any time of day
+    private final int mMaxSpan;
+
+
+    public RecurringEventsProvider(Collection<RecurringEvent> events)
+    {
+        List<RecurrenceRule> rules = new ArrayList<>(events.size());
+        List<RecurringEvent> valid = new ArrayList<>(events.size());
+        for (RecurringEvent event : events)
+        {
+            try
+            {
+                rules.add(new RecurrenceRule(event.rule()));
+                valid.add(event);
+            }
+            catch (InvalidRecurrenceRuleException e)
+            {
+                Log.w(TAG, "Ignoring invalid recurrence rule " + event.rule(), e);
+            }
+        }
+
+        int count = rules.size();
+        mRules = rules.toArray(new RecurrenceRule[count]);
+        mStarts = new DateTime[count];
+        mDurations = new Duration[count];
+        mTitles = new String[count];
+        int maxSpan = 0;
+        for (int i = 0; i < count; ++i)
+        {
+            RecurringEvent event = valid.get(i);
+            mStarts[i] = event.start();
+            mDurations[i] = event.duration();
+            mTitles[i] = event.title();
+            maxSpan = Math.max(maxSpan, span(mDurations[i]));
+        }
+        mMaxSpan = maxSpan;
+    }
+
+
+    @Override
+    protected int loadEventMask(int year, int month)
+    {
+        return loadEventMask(year, month, null);
+    }
+
+
+    @Override
+    protected int loadEventMask(int year, int month, CancellationSignal cancellationSignal)
+    {
+        int first = PackedDay.firstOfMonth(year, month);
+        int last = PackedDay.lastOfMonth(year, month);
+        int mask = DayMask.NONE;
+        for (int i = 0, count = mRules.length; i < count; ++i)
+        {
+            if (cancellationSignal != null)
+            {
+                cancellationSignal.throwIfCanceled();
+            }
+            RecurrenceRuleIterator iterator = iterator(i, first);
+            while (iterator.hasNext())
+            {
+                DateTime instance = iterator.nextDateTime();
+                int startDay = PackedDay.firstDay(instance);
+                if (startDay > last)
+                {
+                    break;
+                }
+                int endDay = PackedDay.lastDay(instance, mDurations[i]);
+                // within a month packed days are consecutive
+                for (int day = Math.max(startDay, first), lastDay = Math.min(endDay, last); day <= lastDay; ++day)
+                {
+                    mask = DayMask.with(mask, PackedDay.dayOfMonth(day));
+                }
+            }
+        }
+        return mask;
+    }
+
+
+    @Override
+    public void appendEventsTo(DateTime day, List<Event> events)
+    {
+        int packedDay = PackedDay.of(day);
+        int mask = eventMask(day.getYear(), day.getMonth());
+        if (DayMask.isKnown(mask) && !DayMask.contains(mask, day.getDayOfMonth()))
+        {
+            return;
+        }
+
+        for (int i = 0, count = mRules.length; i < count; ++i)
+        {
+            RecurrenceRuleIterator iterator = iterator(i, packedDay);
+            while (iterator.hasNext())
+            {
+                DateTime instance = iterator.nextDateTime();
+                if (PackedDay.firstDay(instance) > packedDay)
+                {
+                    break;
+                }
+                if (PackedDay.lastDay(instance, mDurations[i]) >= packedDay)
+                {
+                    events.add(new SimpleEvent(instance, mDurations[i], mTitles[i]));
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Returns the number of days before a day an instance of the given duration may start and still cover that day. This takes the time part of the duration
+     * into account, an instance of {@code PT36H} starting at 23:00 covers three days.
+     */
+    private static int span(Duration duration)
+    {
+        long millis = Math.max(0, duration.toMillis());
+        return (int) ((millis + DAY_MILLIS - 1) / DAY_MILLIS) + 1;
+    }
+
+
+    /**
+     * Returns an iterator of the given rule, fast forwarded to the first instance that may cover the given day.
+     */
+    private RecurrenceRuleIterator iterator(int rule, int packedDay)
+    {
+        RecurrenceRuleIterator iterator = mRules[rule].iterator(mStarts[rule]);
+        int from = packedDay;
+        for (int i = 0; i < mMaxSpan; ++i)
+        {
+            from = PackedDay.previous(from);
+        }
+        if (from > PackedDay.firstDay(mStarts[rule]))
+        {
+            iterator.fastForward(new DateTime(mStarts[rule].getTimeZone(), PackedDay.year(from), PackedDay.month(from), PackedDay.dayOfMonth(from), 0, 0, 0));
+        }
+        return iterator;
+    }
+}
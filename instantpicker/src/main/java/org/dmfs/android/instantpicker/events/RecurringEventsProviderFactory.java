@@ -0,0 +1,59 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.android.instantpicker.events;
+
+import android.content.Context;
+
+import java.util.Arrays;
+
+
+/**
+ * A factory that returns {@link RecurringEventsProvider}s for a specific set of {@link RecurringEvent}s.
+ */
+public class RecurringEventsProviderFactory implements EventProviderFactory
+{
+    private final static long serialVersionUID = 0L;
+
+    private final RecurringEvent[] mEvents;
+
+
+    public RecurringEventsProviderFactory(RecurringEvent... events)
+    {
+        mEvents = events;
+    }
+
+
+    @Override
+    public EventsProvider create(Context context)
+    {
+        return new RecurringEventsProvider(Arrays.asList(mEvents));
+    }
+
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        return obj instanceof RecurringEventsProviderFactory && Arrays.equals(((RecurringEventsProviderFactory) obj).mEvents, mEvents);
+    }
+
+
+    @Override
+    public int hashCode()
+    {
+        return Arrays.hashCode(mEvents);
+    }
+}
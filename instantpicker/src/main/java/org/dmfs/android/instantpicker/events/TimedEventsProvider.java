@@ -0,0 +1,299 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.android.instantpicker.events;
+
+import org.dmfs.rfc5545.DateTime;
+
+import java.util.List;
+
+
+/**
+ * An {@link EventsProvider} that measures the latency of the calls to another {@link EventsProvider}. Hints like {@link #prefetch(int, int)} and
+ * {@link #retainWindow(int, int)}, {@link #indicatorColor()} and {@link #close()} are not measured, because they are not supposed to do any actual work on the
+ * main thread.
+ * <p>
+ * Optionally a budget can be given. Calls that take longer are reported to an {@link OnSlowCallListener} and, if requested, the provider is skipped
+ * afterwards, i.e. it's treated like a provider without any events. Like the providers themselves, this must only be used on the main thread.
+ */
+public final class TimedEventsProvider implements EventsProvider
+{
+    /**
+     * A listener that's notified when a call exceeds the budget.
+     */
+    public interface OnSlowCallListener
+    {
+        /**
+         * Called on the main thread after a call took longer than the budget.
+         *
+         * @param provider
+         *         The {@link TimedEventsProvider} of the slow provider.
+         * @param nanos
+         *         The latency of the call in nanoseconds.
+         */
+        void onSlowCall(TimedEventsProvider provider, long nanos);
+    }
+
+
+    // four buckets per power of two, up to 63 bits, see bucket(long)
+    private final static int BUCKET_COUNT = 62 * 4;
+
+    private final EventsProvider mDelegate;
+    private final String mName;
+    private final long mBudgetNanos;
+    private final boolean mSkipSlow;
+    private final OnSlowCallListener mOnSlowCallListener;
+
+    private final long[] mBuckets = new long[BUCKET_COUNT];
+    private long mCallCount;
+    private long mTotalNanos;
+    private long mMaxNanos;
+    private long mSlowCallCount;
+    private boolean mSkipped;
+
+
+    /**
+     * Creates a {@link TimedEventsProvider}.
+     *
+     * @param delegate
+     *         The {@link EventsProvider} to measure.
+     * @param name
+     *         The name of the provider in the metrics.
+     * @param budgetNanos
+     *         The maximum time a single call may take in nanoseconds or {@code 0} for no budget.
+     * @param skipSlow
+     *         Whether to skip the provider once it exceeded the budget.
+     * @param onSlowCallListener
+     *         A listener to notify about slow calls, may be {@code null}.
+     */
+    public TimedEventsProvider(EventsProvider delegate, String name, long budgetNanos, boolean skipSlow, OnSlowCallListener onSlowCallListener)
+    {
+        mDelegate = delegate;
+        mName = name;
+        mBudgetNanos = budgetNanos;
+        mSkipSlow = skipSlow;
+        mOnSlowCallListener = onSlowCallListener;
+    }
+
+
+    @Override
+    public boolean hasEventsOn(DateTime day)
+    {
+        if (mSkipped)
+        {
+            return false;
+        }
+        long start = System.nanoTime();
+        boolean result = mDelegate.hasEventsOn(day);
+        record(System.nanoTime() - start);
+        return result;
+    }
+
+
+    @Override
+    public boolean hasEventsOn(int packedDay)
+    {
+        if (mSkipped)
+        {
+            return false;
+        }
+        long start = System.nanoTime();
+        boolean result = mDelegate.hasEventsOn(packedDay);
+        record(System.nanoTime() - start);
+        return result;
+    }
+
+
+    @Override
+    public int eventMask(int year, int month)
+    {
+        if (mSkipped)
+        {
+            return DayMask.NONE;
+        }
+        long start = System.nanoTime();
+        int result = mDelegate.eventMask(year, month);
+        record(System.nanoTime() - start);
+        return result;
+    }
+
+
+    @Override
+    public void appendEventsTo(DateTime day, List<Event> events)
+    {
+        if (mSkipped)
+        {
+            return;
+        }
+        long start = System.nanoTime();
+        mDelegate.appendEventsTo(day, events);
+        record(System.nanoTime() - start);
+    }
+
+
+    @Override
+    public void addEventCounts(int year, int month, int[] counts)
+    {
+        if (mSkipped)
+        {
+            return;
+        }
+        long start = System.nanoTime();
+        mDelegate.addEventCounts(year, month, counts);
+        record(System.nanoTime() - start);
+    }
+
+
+    @Override
+    public int indicatorColor()
+    {
+        return mDelegate.indicatorColor();
+    }
+
+
+    @Override
+    public void prefetch(int year, int month)
+    {
+        if (!mSkipped)
+        {
+            mDelegate.prefetch(year, month);
+        }
+    }
+
+
+    @Override
+    public void setOnLoadListener(OnLoadListener listener)
+    {
+        mDelegate.setOnLoadListener(listener);
+    }
+
+
+    @Override
+    public void retainWindow(int fromPackedDay, int toPackedDay)
+    {
+        mDelegate.retainWindow(fromPackedDay, toPackedDay);
+    }
+
+
+    @Override
+    public void close()
+    {
+        mDelegate.close();
+    }
+
+
+    /**
+     * Returns the {@link EventsProvider} that's being measured.
+     */
+    public EventsProvider delegate()
+    {
+        return mDelegate;
+    }
+
+
+    /**
+     * Returns the number of calls that exceeded the budget so far. Unlike {@link #metrics()} this doesn't allocate.
+     */
+    public long slowCallCount()
+    {
+        return mSlowCallCount;
+    }
+
+
+    /**
+     * Returns whether this provider has been skipped after a slow call. Unlike {@link #metrics()} this doesn't allocate.
+     */
+    public boolean isSkipped()
+    {
+        return mSkipped;
+    }
+
+
+    /**
+     * Returns a snapshot of the metrics measured so far.
+     */
+    public EventsProviderMetrics metrics()
+    {
+        return new EventsProviderMetrics(mName, mCallCount, mTotalNanos, percentile(0.5), percentile(0.99), mMaxNanos, mSlowCallCount, mSkipped);
+    }
+
+
+    /**
+     * Records a call with the given latency.
+     */
+    void record(long nanos)
+    {
+        ++mCallCount;
+        mTotalNanos += nanos;
+        mMaxNanos = Math.max(mMaxNanos, nanos);
+        ++mBuckets[bucket(nanos)];
+
+        if (mBudgetNanos > 0 && nanos > mBudgetNanos)
+        {
+            ++mSlowCallCount;
+            mSkipped = mSkipSlow;
+            if (mOnSlowCallListener != null)
+            {
+                mOnSlowCallListener.onSlowCall(this, nanos);
+            }
+        }
+    }
+
+
+    /**
+     * Returns the upper bound of the bucket containing the given percentile of all calls.
+     */
+    private long percentile(double percentile)
+    {
+        long target = (long) Math.ceil(mCallCount * percentile);
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; ++i)
+        {
+            count += mBuckets[i];
+            if (count >= target && count > 0)
+            {
+                return Math.min(upperBound(i), mMaxNanos);
+            }
+        }
+        return 0;
+    }
+
+
+    /**
+     * Returns the bucket of the given latency. Values below 4 get a bucket each, larger values are split into four buckets per power of two, using the two
+     * bits following the highest one bit.
+     */
+    static int bucket(long nanos)
+    {
+        if (nanos < 4)
+        {
+            return (int) Math.max(nanos, 0);
+        }
+        int bits = 64 - Long.numberOfLeadingZeros(nanos);
+        return (bits - 2) * 4 + (int) ((nanos >>> (bits - 3)) & 3);
+    }
+
+
+    static long upperBound(int bucket)
+    {
+        if (bucket < 4)
+        {
+            return bucket;
+        }
+        int bits = bucket / 4 + 2;
+        return ((5L + (bucket & 3)) << (bits - 3)) - 1;
+    }
+}
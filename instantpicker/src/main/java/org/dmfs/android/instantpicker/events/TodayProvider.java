@@ -20,6 +20,7 @@ import org.dmfs.rfc5545.DateTime;
 import org.dmfs.rfc5545.Duration;
 
 import java.util.List;
+import java.util.TimeZone;
 
 
 /**
@@ -29,11 +30,32 @@ public class TodayProvider implements EventsProvider
 {
     private final static Duration ONE_DAY_DURATION = new Duration(1, 1, 0);
 
+    // today and its event are only updated when the day changes
+    private int mToday;
+    private Event mTodayEvent;
+    private long mTodayStart = Long.MAX_VALUE;
+    private long mTodayEnd = Long.MIN_VALUE;
+
 
     @Override
     public boolean hasEventsOn(DateTime day)
     {
-        return day.toAllDay().equals(DateTime.today());
+        return PackedDay.of(day) == today();
+    }
+
+
+    @Override
+    public boolean hasEventsOn(int packedDay)
+    {
+        return packedDay == today();
+    }
+
+
+    @Override
+    public int eventMask(int year, int month)
+    {
+        int today = today();
+        return PackedDay.year(today) == year && PackedDay.month(today) == month ? DayMask.with(DayMask.NONE, PackedDay.dayOfMonth(today)) : DayMask.NONE;
     }
 
 
@@ -45,7 +67,7 @@ public class TodayProvider implements EventsProvider
             return;
         }
 
-        events.add(new SimpleEvent(day.toAllDay(), ONE_DAY_DURATION));
+        events.add(mTodayEvent);
     }
 
 
@@ -54,4 +76,23 @@ public class TodayProvider implements EventsProvider
     {
         // this never gets loaded, so no need to store the listener
     }
+
+
+    /**
+     * Returns the {@link PackedDay} of today, updating it if the day has changed.
+     */
+    private int today()
+    {
+        long now = System.currentTimeMillis();
+        if (now < mTodayStart || now >= mTodayEnd)
+        {
+            DateTime today = DateTime.today();
+            DateTime start = new DateTime(TimeZone.getDefault(), today.getYear(), today.getMonth(), today.getDayOfMonth(), 0, 0, 0);
+            mToday = PackedDay.of(today);
+            mTodayEvent = new SimpleEvent(today, ONE_DAY_DURATION);
+            mTodayStart = start.getTimestamp();
+            mTodayEnd = start.addDuration(ONE_DAY_DURATION).getTimestamp();
+        }
+        return mToday;
+    }
 }
@@ -17,12 +17,14 @@
 package org.dmfs.android.instantpicker.events;
 
 import android.content.Context;
+import android.os.Parcel;
+import android.os.Parcelable;
 
 
 /**
  * A factory that returns {@link WeekendProvider}s with a specific weekend day.
  */
-public class TodayProviderFactory implements EventProviderFactory
+public class TodayProviderFactory implements EventProviderFactory, Parcelable
 {
     private final static long serialVersionUID = 0L;
 
@@ -34,4 +36,49 @@ public class TodayProviderFactory implements EventProviderFactory
     {
         return new TodayProvider();
     }
+
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        return obj != null && obj.getClass() == getClass();
+    }
+
+
+    @Override
+    public int hashCode()
+    {
+        return getClass().hashCode();
+    }
+
+
+    @Override
+    public int describeContents()
+    {
+        return 0;
+    }
+
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags)
+    {
+        // nothing to write, this factory has no state
+    }
+
+
+    public final static Creator<TodayProviderFactory> CREATOR = new Creator<TodayProviderFactory>()
+    {
+        @Override
+        public TodayProviderFactory createFromParcel(Parcel in)
+        {
+            return TODAY_PROVIDER_FACTORY;
+        }
+
+
+        @Override
+        public TodayProviderFactory[] newArray(int size)
+        {
+            return new TodayProviderFactory[size];
+        }
+    };
 }
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.android.instantpicker.events;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+
+import org.dmfs.rfc5545.Weekday;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+
+/**
+ * Helpers to work with weekday masks. A weekday mask is an {@code int} that represents a set of weekdays. Bit {@code n} is set if the {@link Weekday} with
+ * ordinal {@code n} is contained in the set, so {@link Weekday#SU} is bit 0 and only the lower 7 bits are in use.
+ */
+public final class WeekdayMask
+{
+    /**
+     * The empty weekday mask.
+     */
+    public final static int NONE = 0;
+
+    /**
+     * A weekday mask containing all weekdays.
+     */
+    public final static int ALL = 0x7f;
+
+    /**
+     * The weekend of most regions, Saturday and Sunday.
+     */
+    public final static int SATURDAY_SUNDAY = (1 << 6) | 1;
+
+    // regions that don't have a Saturday/Sunday weekend, used if the platform doesn't provide week data
+    private final static List<String> FRIDAY_SATURDAY_REGIONS = Arrays.asList(
+            "AE", "BH", "DZ", "EG", "IL", "IQ", "JO", "KW", "LY", "OM", "QA", "SA", "SD", "SY", "YE");
+    private final static List<String> THURSDAY_FRIDAY_REGIONS = Arrays.asList("AF");
+    private final static List<String> FRIDAY_REGIONS = Arrays.asList("IR");
+    private final static List<String> SUNDAY_REGIONS = Arrays.asList("IN", "UG");
+
+
+    /**
+     * Returns a weekday mask containing the given {@link Weekday}s.
+     *
+     * @param weekdays
+     *         The {@link Weekday}s to include.
+     *
+     * @return The weekday mask.
+     */
+    public static int of(Weekday... weekdays)
+    {
+        int mask = NONE;
+        for (Weekday weekday : weekdays)
+        {
+            mask |= 1 << weekday.ordinal();
+        }
+        return mask;
+    }
+
+
+    /**
+     * Returns whether the given weekday mask contains the given day of week.
+     *
+     * @param mask
+     *         A weekday mask.
+     * @param dayOfWeek
+     *         The day of week [0-6], 0 being Sunday, as returned by {@link org.dmfs.rfc5545.DateTime#getDayOfWeek()}.
+     *
+     * @return {@code true} if the day of week is contained in the mask.
+     */
+    public static boolean contains(int mask, int dayOfWeek)
+    {
+        return (mask & (1 << dayOfWeek)) != 0;
+    }
+
+
+    /**
+     * Returns the {@link DayMask} of the days of the given month that fall on any of the weekdays of the given weekday mask.
+     *
+     * @param mask
+     *         A weekday mask.
+     * @param year
+     *         The year.
+     * @param month
+     *         The month [0-11].
+     *
+     * @return The {@link DayMask} of the month.
+     */
+    public static int dayMask(int mask, int year, int month)
+    {
+        int firstDayOfWeek = PackedDay.dayOfWeek(PackedDay.firstOfMonth(year, month));
+        // rotate the weekdays so bit 0 is the weekday of the first day of the month
+        int week = ((mask >>> firstDayOfWeek) | (mask << (7 - firstDayOfWeek))) & ALL;
+        // repeat that week five times, which covers 35 days, and cut off everything beyond the end of the month
+        int days = week | (week << 7) | (week << 14) | (week << 21) | (week << 28);
+        return days & (DayMask.ALL >>> (31 - DayMask.daysInMonth(year, month)));
+    }
+
+
+    /**
+     * Returns the weekday mask of the weekend in the region of the given {@link Locale}.
+     * <p>
+     * On Android 7 and later this is taken from the platform week data, on earlier versions a small built-in table is used.
+     *
+     * @param locale
+     *         The {@link Locale} to get the weekend for.
+     *
+     * @return The weekday mask of the weekend.
+     */
+    public static int weekendOf(Locale locale)
+    {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N)
+        {
+            return icuWeekendOf(locale);
+        }
+
+        String region = locale.getCountry();
+        if (FRIDAY_SATURDAY_REGIONS.contains(region))
+        {
+            return of(Weekday.FR, Weekday.SA);
+        }
+        if (THURSDAY_FRIDAY_REGIONS.contains(region))
+        {
+            return of(Weekday.TH, Weekday.FR);
+        }
+        if (FRIDAY_REGIONS.contains(region))
+        {
+            return of(Weekday.FR);
+        }
+        if (SUNDAY_REGIONS.contains(region))
+        {
+            return of(Weekday.SU);
+        }
+        return SATURDAY_SUNDAY;
+    }
+
+
+    @TargetApi(Build.VERSION_CODES.N)
+    private static int icuWeekendOf(Locale locale)
+    {
+        android.icu.util.Calendar.WeekData weekData = android.icu.util.Calendar.getInstance(locale).getWeekData();
+        // Calendar weekdays are 1-based, starting with Sunday
+        int mask = NONE;
+        int day = weekData.weekendOnset - 1;
+        int last = weekData.weekendCease - 1;
+        mask |= 1 << day;
+        while (day != last)
+        {
+            day = (day + 1) % 7;
+            mask |= 1 << day;
+        }
+        return mask;
+    }
+
+
+    private WeekdayMask()
+    {
+    }
+}
@@ -13,31 +13,67 @@ import java.util.List;
 public class WeekendProvider implements EventsProvider
 {
     private final static Duration ONE_DAY_DURATION = new Duration(1, 1, 0);
-    private final Weekday mWeekendDay;
+    private final int mWeekendDays;
+
+    // the most recently returned event, callers tend to ask for the same day repeatedly
+    private int mLastDay;
+    private Event mLastEvent;
 
 
     public WeekendProvider(Weekday weekendDay)
     {
-        mWeekendDay = weekendDay;
+        this(WeekdayMask.of(weekendDay));
+    }
+
+
+    /**
+     * Creates a {@link WeekendProvider} for any number of weekend days.
+     *
+     * @param weekendDays
+     *         The weekday mask of the weekend days, see {@link WeekdayMask}.
+     */
+    public WeekendProvider(int weekendDays)
+    {
+        mWeekendDays = weekendDays & WeekdayMask.ALL;
     }
 
 
     @Override
     public boolean hasEventsOn(DateTime day)
     {
-        return day.getDayOfWeek() == mWeekendDay.ordinal();
+        return WeekdayMask.contains(mWeekendDays, day.getDayOfWeek());
+    }
+
+
+    @Override
+    public boolean hasEventsOn(int packedDay)
+    {
+        return WeekdayMask.contains(mWeekendDays, PackedDay.dayOfWeek(packedDay));
+    }
+
+
+    @Override
+    public int eventMask(int year, int month)
+    {
+        return WeekdayMask.dayMask(mWeekendDays, year, month);
     }
 
 
     @Override
     public void appendEventsTo(DateTime day, List<Event> events)
     {
-        if (day.getDayOfWeek() != mWeekendDay.ordinal())
+        if (!WeekdayMask.contains(mWeekendDays, day.getDayOfWeek()))
         {
             return;
         }
 
-        events.add(new SimpleEvent(day.toAllDay(), ONE_DAY_DURATION));
+        int packedDay = PackedDay.of(day);
+        if (mLastEvent == null || mLastDay != packedDay)
+        {
+            mLastEvent = new SimpleEvent(day.isAllDay() ? day : day.toAllDay(), ONE_DAY_DURATION);
+            mLastDay = packedDay;
+        }
+        events.add(mLastEvent);
     }
 
 
@@ -1,34 +1,111 @@
 package org.dmfs.android.instantpicker.events;
 
 import android.content.Context;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.support.v4.os.ConfigurationCompat;
 
 import org.dmfs.rfc5545.Weekday;
 
 
 /**
- * A factory that returns {@link WeekendProvider}s with a specific weekend day.
+ * A factory that returns {@link WeekendProvider}s with specific weekend days.
  */
-public class WeekendProviderFactory implements EventProviderFactory
+public class WeekendProviderFactory implements EventProviderFactory, Parcelable
 {
     private final static long serialVersionUID = 0L;
 
+    // a pseudo weekday mask which tells the factory to take the weekend from the locale
+    private final static int LOCALE_WEEKEND = -1;
+
     /**
      * A specific WeekendProviderFactory that returns a {@link WeekendProvider} for {@link Weekday#SU}.
      */
     public final static WeekendProviderFactory SUNDAY_WEEKEND_PROVIDER_FACTORY = new WeekendProviderFactory(Weekday.SU);
 
-    private final Weekday mWeekEndDay;
+    /**
+     * A specific WeekendProviderFactory that returns a {@link WeekendProvider} for {@link Weekday#SA} and {@link Weekday#SU}.
+     */
+    public final static WeekendProviderFactory SATURDAY_SUNDAY_WEEKEND_PROVIDER_FACTORY = new WeekendProviderFactory(WeekdayMask.SATURDAY_SUNDAY);
+
+    /**
+     * A specific WeekendProviderFactory that returns a {@link WeekendProvider} for the weekend days of the current locale.
+     */
+    public final static WeekendProviderFactory LOCALE_WEEKEND_PROVIDER_FACTORY = new WeekendProviderFactory(LOCALE_WEEKEND);
+
+    private final int mWeekendDays;
 
 
     public WeekendProviderFactory(Weekday weekendDay)
     {
-        mWeekEndDay = weekendDay;
+        this(WeekdayMask.of(weekendDay));
+    }
+
+
+    /**
+     * Creates a {@link WeekendProviderFactory} for any number of weekend days.
+     *
+     * @param weekendDays
+     *         The weekday mask of the weekend days, see {@link WeekdayMask}.
+     */
+    public WeekendProviderFactory(int weekendDays)
+    {
+        mWeekendDays = weekendDays;
     }
 
 
     @Override
     public EventsProvider create(Context context)
     {
-        return new WeekendProvider(mWeekEndDay);
+        if (mWeekendDays == LOCALE_WEEKEND)
+        {
+            return new WeekendProvider(WeekdayMask.weekendOf(ConfigurationCompat.getLocales(context.getResources().getConfiguration()).get(0)));
+        }
+        return new WeekendProvider(mWeekendDays);
+    }
+
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        return obj instanceof WeekendProviderFactory && ((WeekendProviderFactory) obj).mWeekendDays == mWeekendDays;
+    }
+
+
+    @Override
+    public int hashCode()
+    {
+        return mWeekendDays;
+    }
+
+
+    @Override
+    public int describeContents()
+    {
+        return 0;
     }
+
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags)
+    {
+        dest.writeInt(mWeekendDays);
+    }
+
+
+    public final static Creator<WeekendProviderFactory> CREATOR = new Creator<WeekendProviderFactory>()
+    {
+        @Override
+        public WeekendProviderFactory createFromParcel(Parcel in)
+        {
+            return new WeekendProviderFactory(in.readInt());
+        }
+
+
+        @Override
+        public WeekendProviderFactory[] newArray(int size)
+        {
+            return new WeekendProviderFactory[size];
+        }
+    };
 }
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.dmfs.android.instantpicker.time;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+import android.view.View;
+
+import org.dmfs.android.instantpicker.R;
+import org.dmfs.android.instantpicker.Utils;
+
+import java.util.Arrays;
+
+
+/**
+ * Draws the busy time slots of the selected day as arcs along the rim of the clock.
+ * <p>
+ * The busy slots are given as a sorted list of non-overlapping intervals in minutes of the day. While the hours are shown, the arcs cover the half of the
+ * day of the selected hour, in 24 hour mode the hours 1 to 12 get an inner ring and the other hours an outer ring, just like the numbers. While the
+ * minutes are shown, the arcs cover the selected hour. The arcs are built into a {@link Path} only when the slots, the selected hour or the size change.
+ */
+public class BusySlotsView extends View
+{
+    private final static int MINUTES_PER_HOUR = 60;
+    private final static int MINUTES_PER_HALF_DAY = 12 * MINUTES_PER_HOUR;
+    private final static int MINUTES_PER_DAY = 24 * MINUTES_PER_HOUR;
+
+    private final Paint mPaint = new Paint();
+    private final Path mPath = new Path();
+    private final RectF mOval = new RectF();
+    private boolean mIsInitialized;
+    private boolean mIs24HourMode;
+    private float mCircleRadiusMultiplier;
+    private float mInnerRadiusMultiplier;
+    private float mOuterRadiusMultiplier;
+
+    // pairs of start and end minutes of the day
+    private int[] mIntervals = new int[16];
+    private int mIntervalCount;
+    private boolean mShowingMinutes;
+    private int mHourOfDay;
+    private boolean mPathValid;
+
+
+    public BusySlotsView(Context context)
+    {
+        super(context);
+    }
+
+
+    public void initialize(Context context, boolean is24HourMode)
+    {
+        if (mIsInitialized)
+        {
+            return;
+        }
+
+        Resources res = context.getResources();
+        mIs24HourMode = is24HourMode;
+        mCircleRadiusMultiplier = Float.parseFloat(res.getString(R.string.circle_radius_multiplier_24HourMode));
+        mInnerRadiusMultiplier = Float.parseFloat(res.getString(R.string.busy_slots_radius_multiplier_inner));
+        mOuterRadiusMultiplier = Float.parseFloat(res.getString(R.string.busy_slots_radius_multiplier_outer));
+
+        mPaint.setColor(Utils.fetchAccentColor(context));
+        mPaint.setAntiAlias(true);
+        mPaint.setStyle(Paint.Style.STROKE);
+        mPaint.setStrokeWidth(res.getDimensionPixelSize(R.dimen.busy_slots_stroke_width));
+
+        mIsInitialized = true;
+    }
+
+
+    /**
+     * Sets the busy slots to show.
+     *
+     * @param intervals
+     *         Pairs of start (inclusive) and end (exclusive) minutes of the day, sorted and without overlaps. The values are copied.
+     * @param count
+     *         The number of intervals, i.e. half the number of values to use.
+     */
+    public void setBusySlots(int[] intervals, int count)
+    {
+        if (mIntervals.length < count * 2)
+        {
+            mIntervals = new int[count * 2];
+        }
+        System.arraycopy(intervals, 0, mIntervals, 0, count * 2);
+        mIntervalCount = count;
+        invalidatePath();
+    }
+
+
+    /**
+     * Sets whether the minutes or the hours are shown and the selected hour of day.
+     */
+    public void setState(boolean showingMinutes, int hourOfDay)
+    {
+        // the hours only depend on the half of the day in 12 hour mode and not at all in 24 hour mode
+        if (showingMinutes != mShowingMinutes
+                || showingMinutes && hourOfDay != mHourOfDay
+                || !showingMinutes && !mIs24HourMode && hourOfDay / 12 != mHourOfDay / 12)
+        {
+            invalidatePath();
+        }
+        mShowingMinutes = showingMinutes;
+        mHourOfDay = hourOfDay;
+    }
+
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh)
+    {
+        super.onSizeChanged(w, h, oldw, oldh);
+        mPathValid = false;
+    }
+
+
+    @Override
+    public void onDraw(Canvas canvas)
+    {
+        if (getWidth() == 0 || !mIsInitialized || mIntervalCount == 0)
+        {
+            return;
+        }
+
+        if (!mPathValid)
+        {
+            buildPath();
+            mPathValid = true;
+        }
+        canvas.drawPath(mPath, mPaint);
+    }
+
+
+    private void invalidatePath()
+    {
+        mPathValid = false;
+        invalidate();
+    }
+
+
+    private void buildPath()
+    {
+        mPath.rewind();
+        float xCenter = getWidth() / 2f;
+        float yCenter = getHeight() / 2f;
+        float circleRadius = Math.min(xCenter, yCenter) * mCircleRadiusMultiplier;
+        float outerRadius = circleRadius * mOuterRadiusMultiplier;
+
+        if (mShowingMinutes)
+        {
+            int from = mHourOfDay * MINUTES_PER_HOUR;
+            addArcs(xCenter, yCenter, outerRadius, from, from + MINUTES_PER_HOUR, MINUTES_PER_HOUR);
+        }
+        else if (mIs24HourMode)
+        {
+            // like the numbers, the hours 1 to 12 are on the inner ring
+            addArcs(xCenter, yCenter, circleRadius * mInnerRadiusMultiplier, MINUTES_PER_HOUR, MINUTES_PER_HALF_DAY + MINUTES_PER_HOUR, MINUTES_PER_HALF_DAY);
+            addArcs(xCenter, yCenter, outerRadius, 0, MINUTES_PER_HOUR, MINUTES_PER_HALF_DAY);
+            addArcs(xCenter, yCenter, outerRadius, MINUTES_PER_HALF_DAY + MINUTES_PER_HOUR, MINUTES_PER_DAY, MINUTES_PER_HALF_DAY);
+        }
+        else
+        {
+            int from = mHourOfDay < 12 ? 0 : MINUTES_PER_HALF_DAY;
+            addArcs(xCenter, yCenter, outerRadius, from, from + MINUTES_PER_HALF_DAY, MINUTES_PER_HALF_DAY);
+        }
+    }
+
+
+    /**
+     * Adds arcs for the parts of the busy slots between {@code from} and {@code to}, one revolution covering {@code period} minutes.
+     */
+    private void addArcs(float xCenter, float yCenter, float radius, int from, int to, int period)
+    {
+        mOval.set(xCenter - radius, yCenter - radius, xCenter + radius, yCenter + radius);
+        float degreesPerMinute = 360f / period;
+        for (int i = 0; i < mIntervalCount; ++i)
+        {
+            int start = Math.max(mIntervals[i * 2], from);
+            int end = Math.min(mIntervals[i * 2 + 1], to);
+            if (start < end)
+            {
+                // the top of the clock is at -90 degrees
+                mPath.addArc(mOval, (start % period) * degreesPerMinute - 90, (end - start) * degreesPerMinute);
+            }
+        }
+    }
+
+
+    /**
+     * Sorts and merges the given intervals in place.
+     *
+     * @param intervals
+     *         Pairs of start (inclusive) and end (exclusive) values.
+     * @param count
+     *         The number of intervals.
+     *
+     * @return The number of merged intervals at the beginning of the array.
+     */
+    static int merge(int[] intervals, int count)
+    {
+        if (count == 0)
+        {
+            return 0;
+        }
+        // sort the intervals by their start, packed into longs to sort them in a single pass
+        long[] packed = new long[count];
+        for (int i = 0; i < count; ++i)
+        {
+            packed[i] = ((long) intervals[i * 2] << 32) | (intervals[i * 2 + 1] & 0xffffffffL);
+        }
+        Arrays.sort(packed);
+
+        int merged = 0;
+        for (long interval : packed)
+        {
+            int start = (int) (interval >> 32);
+            int end = (int) interval;
+            if (merged > 0 && start <= intervals[merged * 2 - 1])
+            {
+                intervals[merged * 2 - 1] = Math.max(intervals[merged * 2 - 1], end);
+            }
+            else
+            {
+                intervals[merged * 2] = start;
+                intervals[merged * 2 + 1] = end;
+                ++merged;
+            }
+        }
+        return merged;
+    }
+}
@@ -74,6 +74,7 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener
     private int mCurrentItemShowing;
 
     private CircleView mCircleView;
+    private BusySlotsView mBusySlotsView;
     private RadialTextsView mHourRadialTextsView;
     private RadialTextsView mMinuteRadialTextsView;
     private RadialSelectorView mHourRadialSelectorView;
@@ -151,6 +152,8 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener
 
         mCircleView = new CircleView(context);
         addView(mCircleView);
+        mBusySlotsView = new BusySlotsView(context);
+        addView(mBusySlotsView);
 
         // mAmPmCirclesView = new AmPmCirclesView(context);
         // addView(mAmPmCirclesView);
@@ -228,6 +231,7 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener
         // Initialize the circle and AM/PM circles if applicable.
         mCircleView.initialize(context);
         mCircleView.invalidate();
+        mBusySlotsView.initialize(context, mPickerContext.use24Hours());
         // if (!mHideAmPm) {
         // mAmPmCirclesView.initialize(context, initialHoursOfDay < 12? AM : PM);
         // mAmPmCirclesView.invalidate();
@@ -260,6 +264,7 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener
 
         setValueForItem(HOUR_INDEX, initialHoursOfDay);
         setValueForItem(MINUTE_INDEX, initialMinutes);
+        mBusySlotsView.setState(mCurrentItemShowing == MINUTE_INDEX, initialHoursOfDay);
 
         mTimeInitialized = true;
     }
@@ -276,6 +281,20 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener
     }
 
 
+    /**
+     * Sets the busy slots of the selected day.
+     *
+     * @param intervals
+     *         Pairs of start (inclusive) and end (exclusive) minutes of the day, sorted and without overlaps.
+     * @param count
+     *         The number of intervals.
+     */
+    public void setBusySlots(int[] intervals, int count)
+    {
+        mBusySlotsView.setBusySlots(intervals, count);
+    }
+
+
     public void setTime(int hours, int minutes)
     {
         setItem(HOUR_INDEX, hours);
@@ -296,6 +315,7 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener
             mHourRadialSelectorView.invalidate();
             mHourRadialTextsView.setSelection(mHourRadialSelectorView::toPath);
             mHourRadialTextsView.invalidate();
+            mBusySlotsView.setState(mCurrentItemShowing == MINUTE_INDEX, value);
         }
         else if (index == MINUTE_INDEX)
         {
@@ -665,6 +685,7 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener
 
         int lastIndex = getCurrentItemShowing();
         mCurrentItemShowing = index;
+        mBusySlotsView.setState(index == MINUTE_INDEX, mCurrentHoursOfDay);
 
         if (animate && (index != lastIndex))
         {
@@ -31,11 +31,16 @@ import org.dmfs.android.instantpicker.OnDateTimeSetListener;
 import org.dmfs.android.instantpicker.PickerContext;
 import org.dmfs.android.instantpicker.R;
 import org.dmfs.android.instantpicker.Utils;
+import org.dmfs.android.instantpicker.events.Event;
+import org.dmfs.android.instantpicker.events.PackedDay;
 import org.dmfs.rfc5545.DateTime;
 import org.dmfs.rfc5545.Duration;
 import org.w3c.dom.Node;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TimeZone;
 
 
 /**
@@ -83,6 +88,12 @@ public class RadialTimePicker extends FrameLayout implements RadialPickerLayout.
 
     private PickerContext mPickerContext;
 
+    // the day and time zone the busy slots have been computed for, along with reusable buffers to compute them
+    private int mBusySlotsDay = -1;
+    private TimeZone mBusySlotsTimeZone;
+    private final List<Event> mBusySlotEvents = new ArrayList<>(16);
+    private int[] mBusySlots = new int[32];
+
 
     public RadialTimePicker(Context context)
     {
@@ -128,6 +139,10 @@ public class RadialTimePicker extends FrameLayout implements RadialPickerLayout.
         mIs24HourMode = pickerContext.use24Hours();
         mTimePicker.initialize(getContext(), mHapticFeedbackController, mInitialHourOfDay, mInitialMinute, mPickerContext);
         mTimePicker.invalidate();
+        if (mCurrentTime != null)
+        {
+            updateBusySlots(mCurrentTime);
+        }
     }
 
 
@@ -139,6 +154,102 @@ public class RadialTimePicker extends FrameLayout implements RadialPickerLayout.
         {
             mTimePicker.setTime(dateTime.getHours(), dateTime.getMinutes());
         }
+        if (dateTime != null && mPickerContext != null)
+        {
+            updateBusySlots(dateTime);
+        }
+    }
+
+
+    /**
+     * Updates the busy slots of the current day, because the events may have changed.
+     */
+    public void refreshEvents()
+    {
+        // force the busy slots to be computed again
+        mBusySlotsDay = -1;
+        if (mCurrentTime != null && mPickerContext != null)
+        {
+            updateBusySlots(mCurrentTime);
+        }
+    }
+
+
+    /**
+     * Updates the busy slots of the current day, if it's between the given days. Other days are not affected.
+     *
+     * @param fromPackedDay
+     *         The first {@link PackedDay} to update.
+     * @param toPackedDay
+     *         The last {@link PackedDay} to update.
+     */
+    public void refreshEventsBetween(int fromPackedDay, int toPackedDay)
+    {
+        if (mBusySlotsDay >= fromPackedDay && mBusySlotsDay <= toPackedDay)
+        {
+            refreshEvents();
+        }
+    }
+
+
+    /**
+     * Computes the busy slots of the day of the given {@link DateTime}, if the day has changed. All-day events don't occupy any slots.
+     */
+    private void updateBusySlots(DateTime dateTime)
+    {
+        TimeZone timeZone = dateTime.isAllDay() || dateTime.isFloating() ? null : dateTime.getTimeZone();
+        int day = PackedDay.of(dateTime);
+        if (day == mBusySlotsDay && (timeZone == null ? mBusySlotsTimeZone == null : timeZone.equals(mBusySlotsTimeZone)))
+        {
+            return;
+        }
+        mBusySlotsDay = day;
+        mBusySlotsTimeZone = timeZone;
+
+        mBusySlotEvents.clear();
+        mPickerContext.appendEvents(new DateTime(dateTime.getYear(), dateTime.getMonth(), dateTime.getDayOfMonth()), mBusySlotEvents);
+        int count = 0;
+        for (Event event : mBusySlotEvents)
+        {
+            DateTime start = event.start();
+            if (start.isAllDay())
+            {
+                continue;
+            }
+            if (timeZone != null && !start.isFloating())
+            {
+                start = start.shiftTimeZone(timeZone);
+            }
+            int startMinute = minuteOfDay(start, day);
+            int endMinute = minuteOfDay(start.addDuration(event.duration()), day);
+            if (startMinute >= endMinute)
+            {
+                continue;
+            }
+            if (mBusySlots.length < count * 2 + 2)
+            {
+                mBusySlots = Arrays.copyOf(mBusySlots, mBusySlots.length * 2);
+            }
+            mBusySlots[count * 2] = startMinute;
+            mBusySlots[count * 2 + 1] = endMinute;
+            ++count;
+        }
+        mBusySlotEvents.clear();
+        mTimePicker.setBusySlots(mBusySlots, BusySlotsView.merge(mBusySlots, count));
+    }
+
+
+    /**
+     * Returns the minute of the given day of the given {@link DateTime}, clamped to the day.
+     */
+    private static int minuteOfDay(DateTime dateTime, int packedDay)
+    {
+        int day = PackedDay.of(dateTime);
+        if (day != packedDay)
+        {
+            return day < packedDay ? 0 : 24 * 60;
+        }
+        return dateTime.getHours() * 60 + dateTime.getMinutes();
     }
 
 
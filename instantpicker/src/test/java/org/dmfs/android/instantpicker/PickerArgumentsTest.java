@@ -0,0 +1,182 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.android.instantpicker;
+
+import android.os.Bundle;
+import android.os.Parcel;
+
+import org.dmfs.android.instantpicker.events.DisabledDays;
+import org.dmfs.android.instantpicker.events.DisabledWeekdays;
+import org.dmfs.android.instantpicker.events.EventProviderFactory;
+import org.dmfs.android.instantpicker.events.RecurringEvent;
+import org.dmfs.android.instantpicker.events.RecurringEventsProviderFactory;
+import org.dmfs.rfc5545.DateTime;
+import org.dmfs.rfc5545.Duration;
+import org.dmfs.rfc5545.Weekday;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.TimeZone;
+
+import static org.dmfs.android.instantpicker.events.TodayProviderFactory.TODAY_PROVIDER_FACTORY;
+import static org.dmfs.android.instantpicker.events.WeekendProviderFactory.SATURDAY_SUNDAY_WEEKEND_PROVIDER_FACTORY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Tests for {@link PickerArguments}, including a comparison of their size as a {@link android.os.Parcelable} and as the {@link java.io.Serializable}
+ * arguments they replace.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class PickerArgumentsTest
+{
+    private final static TimeZone BERLIN = TimeZone.getTimeZone("Europe/Berlin");
+    private final static DateTime INITIAL_DATE = new DateTime(BERLIN, 2018, 4, 15, 10, 30, 0);
+    private final static EventProviderFactory[] FACTORIES = { TODAY_PROVIDER_FACTORY, SATURDAY_SUNDAY_WEEKEND_PROVIDER_FACTORY };
+
+
+    @Test
+    public void testRoundTrip()
+    {
+        RecurringEventsProviderFactory recurring = new RecurringEventsProviderFactory(
+                new RecurringEvent("FREQ=YEARLY", new DateTime(2018, 0, 1), new Duration(1, 1, 0), "New Year"));
+        PickerArguments arguments = restore(save(new PickerArguments(INITIAL_DATE, false, true, Weekday.MO, DateTimePicker.EditorComponent.HOURS, BERLIN,
+                new EventProviderFactory[] { TODAY_PROVIDER_FACTORY, recurring }, 24, true, true, 5000000, true, 3, 1 << 20,
+                new DisabledDays[] { new DisabledWeekdays(Weekday.SU) })));
+
+        assertEquals(INITIAL_DATE, arguments.initialDate());
+        assertFalse(arguments.allowAllDay());
+        assertTrue(arguments.use24Hours(false));
+        assertEquals(Weekday.MO, arguments.firstDayOfWeek());
+        assertEquals(DateTimePicker.EditorComponent.HOURS, arguments.initialPicker());
+        assertEquals(BERLIN, arguments.defaultTimeZone());
+        assertEquals(2, arguments.eventProviderFactories().length);
+        // the Parcelable factories are written as such, the others are serialized
+        assertSame(TODAY_PROVIDER_FACTORY.getClass(), arguments.eventProviderFactories()[0].getClass());
+        assertSame(RecurringEventsProviderFactory.class, arguments.eventProviderFactories()[1].getClass());
+        assertEquals(24, arguments.eventCacheSize());
+        assertTrue(arguments.shareEventProviders());
+        assertTrue(arguments.measureEventProviders());
+        assertEquals(5000000, arguments.eventProviderBudgetNanos());
+        assertTrue(arguments.skipSlowEventProviders());
+        assertEquals(3, arguments.eventDensity());
+        assertEquals(1 << 20, arguments.monthBitmapCacheBytes());
+        assertEquals(1, arguments.disabledDays().length);
+        assertEquals(new DisabledWeekdays(Weekday.SU).disabledDays(2018, 4), arguments.disabledDays()[0].disabledDays(2018, 4));
+    }
+
+
+    @Test
+    public void testRoundTripOfDefaults()
+    {
+        DateTime allDay = new DateTime(2018, 4, 15);
+        PickerArguments arguments = restore(save(new PickerArguments(allDay, true, null, null, null, null, null, 12, false, false, 0, false, 0, 0, null)));
+
+        assertEquals(allDay, arguments.initialDate());
+        assertTrue(arguments.allowAllDay());
+        assertTrue(arguments.use24Hours(true));
+        assertFalse(arguments.use24Hours(false));
+        assertNull(arguments.firstDayOfWeek());
+        assertNull(arguments.initialPicker());
+        assertNull(arguments.defaultTimeZone());
+        assertNull(arguments.eventProviderFactories());
+        assertFalse(arguments.measureEventProviders());
+        assertNull(arguments.disabledDays());
+    }
+
+
+    /**
+     * Saves the same arguments as a {@link PickerArguments} and in the serialized form used before. Only the number of bytes is checked, Robolectric doesn't
+     * run the native {@link Parcel}, so timing the round trips here wouldn't tell anything.
+     */
+    @Test
+    public void testParcelIsSmallerThanSerializedArguments()
+    {
+        Bundle parcelable = new Bundle();
+        parcelable.putParcelable("arguments",
+                new PickerArguments(INITIAL_DATE, true, true, Weekday.MO, DateTimePicker.EditorComponent.MONTH_AND_DAY, BERLIN, FACTORIES, 12, false, false, 0, false, 0,
+                        0, null));
+
+        Bundle serializable = new Bundle();
+        serializable.putLong("initial_timestamp", INITIAL_DATE.getTimestamp());
+        serializable.putSerializable("initial_timezone", INITIAL_DATE.getTimeZone());
+        serializable.putBoolean("initial_allday", false);
+        serializable.putBoolean("allow_allday", true);
+        serializable.putBoolean("use_24_hours", true);
+        serializable.putSerializable("first_day_of_week", Weekday.MO);
+        serializable.putSerializable("initial_picker", DateTimePicker.EditorComponent.MONTH_AND_DAY);
+        serializable.putSerializable("default_timezone", BERLIN);
+        serializable.putSerializable("event_provider_factories", FACTORIES);
+        serializable.putInt("event_cache_size", 12);
+
+        assertTrue(save(parcelable).length < save(serializable).length);
+    }
+
+
+    private static byte[] save(PickerArguments arguments)
+    {
+        Bundle bundle = new Bundle();
+        bundle.putParcelable("arguments", arguments);
+        return save(bundle);
+    }
+
+
+    private static byte[] save(Bundle bundle)
+    {
+        Parcel parcel = Parcel.obtain();
+        try
+        {
+            bundle.writeToParcel(parcel, 0);
+            return parcel.marshall();
+        }
+        finally
+        {
+            parcel.recycle();
+        }
+    }
+
+
+    private static PickerArguments restore(byte[] bytes)
+    {
+        Bundle bundle = restoreBundle(bytes);
+        bundle.setClassLoader(PickerArguments.class.getClassLoader());
+        return bundle.getParcelable("arguments");
+    }
+
+
+    private static Bundle restoreBundle(byte[] bytes)
+    {
+        Parcel parcel = Parcel.obtain();
+        try
+        {
+            parcel.unmarshall(bytes, 0, bytes.length);
+            parcel.setDataPosition(0);
+            return parcel.readBundle(PickerArguments.class.getClassLoader());
+        }
+        finally
+        {
+            parcel.recycle();
+        }
+    }
+}
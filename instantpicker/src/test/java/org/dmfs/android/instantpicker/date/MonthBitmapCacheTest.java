@@ -0,0 +1,160 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.android.instantpicker.date;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+
+import org.dmfs.android.instantpicker.PickerContext;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+
+/**
+ * Tests for {@link MonthBitmapCache}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class MonthBitmapCacheTest
+{
+    // the bytes of a 10x10 ARGB_8888 bitmap
+    private final static int BITMAP_BYTES = 10 * 10 * 4;
+
+
+    @Test
+    public void testEventCountsWithTheSameHashAreDifferentKeys()
+    {
+        MonthBitmapCache.Key key = key();
+        key.mEventDensity = PickerContext.EVENT_DENSITY_DOTS;
+        key.mEventCounts[0] = 1;
+        MonthBitmapCache.Key other = key();
+        other.mEventDensity = PickerContext.EVENT_DENSITY_DOTS;
+        other.mEventCounts[1] = 31;
+
+        assertEquals(key.hashCode(), other.hashCode());
+        assertNotEquals(key, other);
+
+        MonthBitmapCache cache = new MonthBitmapCache(BITMAP_BYTES * 4);
+        Bitmap bitmap = bitmap();
+        cache.put(key, bitmap);
+        assertSame(bitmap, cache.get(key));
+        assertNull(cache.get(other));
+    }
+
+
+    @Test
+    public void testIndicatorsArePartOfTheKey()
+    {
+        MonthBitmapCache.Key key = key();
+        key.mEventDensity = PickerContext.EVENT_DENSITY_INDICATORS;
+        key.mIndicatorCount = 2;
+        key.mIndicatorColors[0] = 0xffff0000;
+        key.mIndicatorMasks[0] = 0b11;
+        key.mIndicatorColors[1] = 0xff00ff00;
+        key.mIndicatorMasks[1] = 0b10;
+
+        MonthBitmapCache.Key other = key.copy();
+        assertEquals(key, other);
+        assertEquals(key.hashCode(), other.hashCode());
+
+        other.mIndicatorMasks[1] = 0b100;
+        assertNotEquals(key, other);
+        other.mIndicatorMasks[1] = 0b10;
+        other.mIndicatorColors[0] = 0xff0000ff;
+        assertNotEquals(key, other);
+        other.mIndicatorColors[0] = 0xffff0000;
+        other.mIndicatorCount = 1;
+        assertNotEquals(key, other);
+    }
+
+
+    @Test
+    public void testPutCopiesTheKey()
+    {
+        MonthBitmapCache cache = new MonthBitmapCache(BITMAP_BYTES * 4);
+        MonthBitmapCache.Key key = key();
+        key.mEventCounts[4] = 2;
+        Bitmap bitmap = bitmap();
+        cache.put(key, bitmap);
+
+        key.mEventCounts[4] = 3;
+        assertNull(cache.get(key));
+        key.mEventCounts[4] = 2;
+        assertSame(bitmap, cache.get(key));
+    }
+
+
+    @Test
+    public void testEvictedBitmapsAreLeftAlone()
+    {
+        // room for a single bitmap
+        MonthBitmapCache cache = new MonthBitmapCache(BITMAP_BYTES);
+        MonthBitmapCache.Key may = key();
+        MonthBitmapCache.Key june = key();
+        june.mMonth = 5;
+
+        Bitmap first = bitmap();
+        first.setPixel(0, 0, Color.RED);
+        cache.put(may, first);
+        Bitmap second = bitmap();
+        cache.put(june, second);
+
+        // May has been evicted, but a view may still draw its bitmap in the current frame, so it must not be touched
+        assertNull(cache.get(may));
+        assertSame(second, cache.get(june));
+        assertEquals(Color.RED, first.getPixel(0, 0));
+    }
+
+
+    @Test
+    public void testClearDropsAllBitmaps()
+    {
+        MonthBitmapCache cache = new MonthBitmapCache(BITMAP_BYTES);
+        cache.put(key(), bitmap());
+        cache.clear();
+
+        assertNull(cache.get(key()));
+    }
+
+
+    private static Bitmap bitmap()
+    {
+        return Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888);
+    }
+
+
+    private static MonthBitmapCache.Key key()
+    {
+        MonthBitmapCache.Key key = new MonthBitmapCache.Key();
+        key.mYear = 2018;
+        key.mMonth = 4;
+        key.mWeekStart = 1;
+        key.mSelectedDay = 15;
+        key.mToday = -1;
+        key.mSelectableDays = 0x7fffffff;
+        key.mWidth = 10;
+        key.mHeight = 10;
+        return key;
+    }
+}
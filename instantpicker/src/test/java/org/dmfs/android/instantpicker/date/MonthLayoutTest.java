@@ -0,0 +1,160 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.android.instantpicker.date;
+
+import android.graphics.Rect;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Tests for {@link MonthLayout}. This uses Robolectric, because of {@link Rect}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class MonthLayoutTest
+{
+    private final static int[] WIDTHS = { 320, 479, 480, 481, 719, 1080 };
+    private final static int[] PADDINGS = { 0, 8, 17 };
+    private final static int[] DAYS = { 28, 30, 31 };
+    private final static int[] ROW_HEIGHTS = { 40, 57 };
+    private final static int TOP = 33;
+    private final static int TEXT_SIZE = 16;
+
+
+    @Test
+    public void testEveryPointOfADayMapsBackToThatDay()
+    {
+        MonthLayout layout = new MonthLayout();
+        Rect bounds = new Rect();
+        for (int width : WIDTHS)
+        {
+            for (int padding : PADDINGS)
+            {
+                for (int days : DAYS)
+                {
+                    for (int rowHeight : ROW_HEIGHTS)
+                    {
+                        for (int offset = 0; offset < 7; ++offset)
+                        {
+                            String config = "width " + width + ", padding " + padding + ", days " + days + ", row height " + rowHeight + ", offset " + offset;
+                            layout.update(days, offset, 7, width, padding, TOP, rowHeight, (rowHeight + TEXT_SIZE) / 2 - 1);
+                            for (int day = 1; day <= days; ++day)
+                            {
+                                String message = config + ", day " + day;
+                                layout.getBounds(day, bounds);
+                                assertFalse(message, bounds.isEmpty());
+
+                                assertEquals(message, day, layout.dayAt(bounds.centerX(), bounds.centerY()));
+                                assertEquals(message, day, layout.dayAt(bounds.left, bounds.top));
+                                assertEquals(message, day, layout.dayAt(bounds.right - 1, bounds.top));
+                                assertEquals(message, day, layout.dayAt(bounds.left, bounds.bottom - 1));
+                                assertEquals(message, day, layout.dayAt(bounds.right - 1, bounds.bottom - 1));
+                                assertEquals(message, day, layout.dayAt(layout.mCenterX[day - 1], layout.mBaseline[day - 1]));
+                                assertTrue(message, bounds.contains(layout.mCenterX[day - 1], layout.mBaseline[day - 1]));
+                                assertEquals(message, day - 1 + offset, layout.cellAt(bounds.centerX(), bounds.centerY()));
+
+                                // the right and bottom edges belong to the next cell
+                                if ((day + offset) % 7 != 0)
+                                {
+                                    assertEquals(message, day < days ? day + 1 : -1, layout.dayAt(bounds.right, bounds.centerY()));
+                                }
+                                assertEquals(message, day + 7 <= days ? day + 7 : -1, layout.dayAt(bounds.centerX(), bounds.bottom));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+
+    @Test
+    public void testCellsTileTheGrid()
+    {
+        MonthLayout layout = new MonthLayout();
+        for (int width : WIDTHS)
+        {
+            for (int padding : PADDINGS)
+            {
+                layout.update(31, 3, 7, width, padding, TOP, 40, 27);
+                Rect previous = new Rect();
+                Rect bounds = new Rect();
+                for (int day = 1; day <= 31; ++day)
+                {
+                    layout.getBounds(day, bounds);
+                    if ((day + 3) % 7 == 1)
+                    {
+                        // the first column starts at the left padding
+                        assertEquals(padding, bounds.left);
+                    }
+                    else if (day > 1)
+                    {
+                        assertEquals(previous.right, bounds.left);
+                        assertEquals(previous.top, bounds.top);
+                    }
+                    if ((day + 3) % 7 == 0)
+                    {
+                        // the last column ends at the right padding
+                        assertEquals(width - padding, bounds.right);
+                    }
+                    previous.set(bounds);
+                }
+            }
+        }
+    }
+
+
+    @Test
+    public void testPointsOutsideOfTheMonth()
+    {
+        MonthLayout layout = new MonthLayout();
+        layout.update(30, 2, 7, 480, 10, TOP, 40, 27);
+
+        // left and right padding
+        assertEquals(-1, layout.dayAt(9, TOP + 60));
+        assertEquals(-1, layout.dayAt(471, TOP + 60));
+        // above the first row
+        assertEquals(-1, layout.dayAt(240, TOP - 1));
+        assertEquals(-1, layout.cellAt(240, TOP - 1));
+        // before the first and after the last day
+        assertEquals(-1, layout.dayAt(11, TOP + 1));
+        assertEquals(0, layout.cellAt(11, TOP + 1));
+        assertEquals(-1, layout.dayAt(469, TOP + 4 * 40 + 1));
+        assertEquals(-1, layout.dayAt(240, TOP + 10 * 40));
+    }
+
+
+    @Test
+    public void testUpdate()
+    {
+        MonthLayout layout = new MonthLayout();
+        assertEquals(-1, layout.dayAt(100, 100));
+        assertTrue(layout.update(31, 0, 7, 480, 0, TOP, 40, 27));
+        assertFalse(layout.update(31, 0, 7, 480, 0, TOP, 40, 27));
+        assertTrue(layout.update(31, 1, 7, 480, 0, TOP, 40, 27));
+        assertTrue(layout.update(31, 1, 7, 481, 0, TOP, 40, 27));
+        assertTrue(layout.update(31, 1, 7, 481, 0, TOP, 40, 28));
+    }
+}
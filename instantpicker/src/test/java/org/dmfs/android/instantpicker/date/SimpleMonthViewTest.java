@@ -0,0 +1,348 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.dmfs.android.instantpicker.date;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.view.View;
+
+import org.dmfs.android.instantpicker.PickerContext;
+import org.dmfs.rfc5545.DateTime;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Tests for drawing a {@link SimpleMonthView}, mostly that drawing a bound month doesn't allocate once everything has been set up by the first draw.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class SimpleMonthViewTest
+{
+    @Test
+    public void testDrawWithoutEventsDoesNotAllocate()
+    {
+        assertDrawDoesNotAllocate(new TestPickerContext());
+    }
+
+
+    @Test
+    public void testDrawWithEventsDoesNotAllocate()
+    {
+        assertDrawDoesNotAllocate(new TestPickerContext().withEvents(0x15555, 1));
+    }
+
+
+    @Test
+    public void testDrawWithEventTintDoesNotAllocate()
+    {
+        TestPickerContext context = new TestPickerContext().withEvents(0x2aaaa, 3);
+        context.mEventDensity = PickerContext.EVENT_DENSITY_TINT;
+        assertDrawDoesNotAllocate(context);
+    }
+
+
+    @Test
+    public void testDrawWithEventDotsDoesNotAllocate()
+    {
+        TestPickerContext context = new TestPickerContext().withEvents(0x7ffffff, 5);
+        context.mEventDensity = PickerContext.EVENT_DENSITY_DOTS;
+        assertDrawDoesNotAllocate(context);
+    }
+
+
+    @Test
+    public void testDrawWithEventIndicatorsDoesNotAllocate()
+    {
+        TestPickerContext context = new TestPickerContext();
+        context.mEventDensity = PickerContext.EVENT_DENSITY_INDICATORS;
+        context.mIndicatorColors = new int[] { 0, 0xffff0000, 0xff00ff00 };
+        context.mIndicatorMasks = new int[] { 0x1111111, 0x3333333, 0x7ffffff };
+        assertDrawDoesNotAllocate(context);
+    }
+
+
+    @Test
+    public void testDrawWithDisabledDaysDoesNotAllocate()
+    {
+        TestPickerContext context = new TestPickerContext().withEvents(0xff, 1);
+        context.mSelectableDays = 0x0ffff00;
+        assertDrawDoesNotAllocate(context);
+    }
+
+
+    @Test
+    public void testCacheMissDuringFlingDoesNotAllocate()
+    {
+        SimpleMonthView view = boundView(new TestPickerContext().withEvents(0x15555, 1));
+        MonthBitmapCache cache = new MonthBitmapCache(64 * 1024 * 1024);
+        cache.setActive(true);
+        view.setBitmapCache(cache);
+        assertDrawDoesNotAllocate(view);
+    }
+
+
+    @Test
+    public void testCacheMissDuringFlingIsRenderedAfterwards()
+    {
+        SimpleMonthView view = boundView(new TestPickerContext().withEvents(0x15555, 1));
+        MonthBitmapCache cache = new MonthBitmapCache(64 * 1024 * 1024);
+        view.setBitmapCache(cache);
+
+        // not flung, drawn live
+        RecordingCanvas canvas = new RecordingCanvas();
+        view.onDraw(canvas);
+        assertEquals(0, canvas.mBitmaps);
+        assertTrue(canvas.mTexts > 0);
+
+        // a miss during a fling is drawn live as well
+        cache.setActive(true);
+        canvas = new RecordingCanvas();
+        view.onDraw(canvas);
+        assertEquals(0, canvas.mBitmaps);
+        assertTrue(canvas.mTexts > 0);
+
+        // after the fling the month is rendered into the cache
+        cache.setActive(false);
+        canvas = new RecordingCanvas();
+        view.onDraw(canvas);
+        assertEquals(1, canvas.mBitmaps);
+        assertEquals(0, canvas.mTexts);
+
+        // and drawn from the cache during the next fling
+        cache.setActive(true);
+        canvas = new RecordingCanvas();
+        view.onDraw(canvas);
+        assertEquals(1, canvas.mBitmaps);
+        assertEquals(0, canvas.mTexts);
+    }
+
+
+    @Test
+    public void testSelectedDayDotsHaveTheSelectedDayTextColor()
+    {
+        TestPickerContext context = new TestPickerContext().withEvents(0x7ffffff, 2);
+        context.mEventDensity = PickerContext.EVENT_DENSITY_DOTS;
+        assertSelectedDayDots(context, 2);
+    }
+
+
+    @Test
+    public void testSelectedDayIndicatorsHaveTheSelectedDayTextColor()
+    {
+        TestPickerContext context = new TestPickerContext();
+        context.mEventDensity = PickerContext.EVENT_DENSITY_INDICATORS;
+        context.mIndicatorColors = new int[] { 0, 0xffff0000, 0xff00ff00 };
+        // day 15 (bit 14) has events of all three categories
+        context.mIndicatorMasks = new int[] { 0x0004444, 0x000c000, 0x7ffffff };
+        assertSelectedDayDots(context, 3);
+    }
+
+
+    @Test
+    public void testDateTimeOverridesAreStillCalled()
+    {
+        final List<DateTime> days = new ArrayList<>();
+        SimpleMonthView view = new SimpleMonthView(RuntimeEnvironment.application)
+        {
+            @Override
+            public void drawMonthDay(Canvas canvas, DateTime date, int x, int y, int startX, int stopX, int startY, int stopY)
+            {
+                days.add(date);
+                super.drawMonthDay(canvas, date, x, y, startX, stopX, startY, stopY);
+            }
+        };
+        bind(view, new TestPickerContext());
+        RecordingCanvas canvas = new RecordingCanvas();
+        view.onDraw(canvas);
+
+        assertEquals(31, days.size());
+        assertEquals(new DateTime(2018, 4, 1), days.get(0));
+        assertEquals(new DateTime(2018, 4, 31), days.get(30));
+        // the overrides call the default implementation, so the days are still drawn
+        assertTrue(canvas.mTexts > 31);
+    }
+
+
+    /**
+     * Asserts that the selected day has the given number of dots, all in the selected day text color, and that no other dots have that color.
+     */
+    private static void assertSelectedDayDots(PickerContext pickerContext, int dots)
+    {
+        SimpleMonthView view = boundView(pickerContext);
+        RecordingCanvas canvas = new RecordingCanvas();
+        view.onDraw(canvas);
+
+        int selectedDayDots = 0;
+        int otherDots = 0;
+        for (int i = 0; i < canvas.mPoints.size(); ++i)
+        {
+            float[] points = canvas.mPoints.get(i);
+            for (int j = 0; j < points.length; j += 2)
+            {
+                boolean selectedDay = view.getInternalDayFromLocation(points[j], points[j + 1]) == 15;
+                assertEquals(selectedDay, canvas.mColors.get(i) == view.mSelectedDayTextColor);
+                if (selectedDay)
+                {
+                    ++selectedDayDots;
+                }
+                else
+                {
+                    ++otherDots;
+                }
+            }
+        }
+        assertEquals(dots, selectedDayDots);
+        assertTrue(otherDots > 0);
+    }
+
+
+    private static void assertDrawDoesNotAllocate(PickerContext pickerContext)
+    {
+        assertDrawDoesNotAllocate(boundView(pickerContext));
+    }
+
+
+    private static void assertDrawDoesNotAllocate(SimpleMonthView view)
+    {
+        Canvas canvas = new DiscardingCanvas();
+        // the first draw may fill lazily initialized caches
+        view.onDraw(canvas);
+
+        // calibrate the overhead of the measurement itself
+        allocatedBytes();
+        long start = allocatedBytes();
+        long overhead = allocatedBytes() - start;
+
+        start = allocatedBytes();
+        view.onDraw(canvas);
+        long allocated = allocatedBytes() - start - overhead;
+
+        assertEquals("bytes allocated by the second onDraw", 0, allocated);
+    }
+
+
+    private static SimpleMonthView boundView(PickerContext pickerContext)
+    {
+        return bind(new SimpleMonthView(RuntimeEnvironment.application), pickerContext);
+    }
+
+
+    private static SimpleMonthView bind(SimpleMonthView view, PickerContext pickerContext)
+    {
+        view.setDatePickerController(pickerContext);
+        view.setMonthParams(new MonthParams().setMonth(2018, 4).setSelectedDay(15).setWeekStart(1));
+        view.measure(View.MeasureSpec.makeMeasureSpec(480, View.MeasureSpec.EXACTLY), View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+        return view;
+    }
+
+
+    private static long allocatedBytes()
+    {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+
+    /**
+     * A {@link Canvas} that discards everything, so the test only measures the allocations of the view, not the ones of the canvas implementation.
+     */
+    private static class DiscardingCanvas extends Canvas
+    {
+        @Override
+        public void drawText(String text, float x, float y, Paint paint)
+        {
+        }
+
+
+        @Override
+        public void drawCircle(float cx, float cy, float radius, Paint paint)
+        {
+        }
+
+
+        @Override
+        public void drawPoints(float[] pts, int offset, int count, Paint paint)
+        {
+        }
+
+
+        @Override
+        public void drawLine(float startX, float startY, float stopX, float stopY, Paint paint)
+        {
+        }
+
+
+        @Override
+        public void drawRect(float left, float top, float right, float bottom, Paint paint)
+        {
+        }
+
+
+        @Override
+        public void drawBitmap(Bitmap bitmap, float left, float top, Paint paint)
+        {
+        }
+    }
+
+
+    /**
+     * A {@link DiscardingCanvas} that records the points and their colors and counts the texts and bitmaps.
+     */
+    private final static class RecordingCanvas extends DiscardingCanvas
+    {
+        private final List<float[]> mPoints = new ArrayList<>();
+        private final List<Integer> mColors = new ArrayList<>();
+        private int mTexts;
+        private int mBitmaps;
+
+
+        @Override
+        public void drawText(String text, float x, float y, Paint paint)
+        {
+            ++mTexts;
+        }
+
+
+        @Override
+        public void drawBitmap(Bitmap bitmap, float left, float top, Paint paint)
+        {
+            ++mBitmaps;
+        }
+
+
+        @Override
+        public void drawPoints(float[] pts, int offset, int count, Paint paint)
+        {
+            mPoints.add(Arrays.copyOfRange(pts, offset, offset + count));
+            mColors.add(paint.getColor());
+        }
+    }
+}
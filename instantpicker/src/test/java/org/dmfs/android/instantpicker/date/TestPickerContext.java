@@ -0,0 +1,181 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.dmfs.android.instantpicker.date;
+
+import org.dmfs.android.instantpicker.PickerContext;
+import org.dmfs.android.instantpicker.events.DayMask;
+import org.dmfs.android.instantpicker.events.Event;
+import org.dmfs.rfc5545.DateTime;
+import org.dmfs.rfc5545.Weekday;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TimeZone;
+
+
+/**
+ * A {@link PickerContext} for tests, which has the same events in every month.
+ */
+final class TestPickerContext implements PickerContext
+{
+    int mEventDensity = EVENT_DENSITY_NONE;
+    int mEventMask = DayMask.NONE;
+    int[] mEventCounts = new int[31];
+    int[] mIndicatorColors = new int[0];
+    int[] mIndicatorMasks = new int[0];
+    int mSelectableDays = DayMask.ALL;
+    int mMonthBitmapCacheBytes;
+
+
+    @Override
+    public DateTime minDateTime()
+    {
+        return new DateTime(1900, 0, 1);
+    }
+
+
+    @Override
+    public DateTime maxDateTime()
+    {
+        return new DateTime(2100, 0, 1);
+    }
+
+
+    @Override
+    public Weekday firstDayOfWeek()
+    {
+        return Weekday.MO;
+    }
+
+
+    @Override
+    public boolean use24Hours()
+    {
+        return true;
+    }
+
+
+    @Override
+    public boolean hasEvents(DateTime date)
+    {
+        return DayMask.contains(mEventMask, date.getDayOfMonth());
+    }
+
+
+    @Override
+    public boolean hasEvents(int packedDay)
+    {
+        return false;
+    }
+
+
+    @Override
+    public int eventMask(int year, int month)
+    {
+        return mEventMask;
+    }
+
+
+    @Override
+    public void prefetchEvents(int year, int month)
+    {
+    }
+
+
+    @Override
+    public void retainEventsBetween(int fromPackedDay, int toPackedDay)
+    {
+    }
+
+
+    @Override
+    public int eventDensity()
+    {
+        return mEventDensity;
+    }
+
+
+    @Override
+    public void eventCounts(int year, int month, int[] counts)
+    {
+        System.arraycopy(mEventCounts, 0, counts, 0, mEventCounts.length);
+    }
+
+
+    @Override
+    public int eventIndicators(int year, int month, int[] colors, int[] masks)
+    {
+        int count = Math.min(colors.length, mIndicatorColors.length);
+        System.arraycopy(mIndicatorColors, 0, colors, 0, count);
+        System.arraycopy(mIndicatorMasks, 0, masks, 0, count);
+        return count;
+    }
+
+
+    @Override
+    public int selectableDays(int year, int month)
+    {
+        return mSelectableDays;
+    }
+
+
+    @Override
+    public int monthBitmapCacheBytes()
+    {
+        return mMonthBitmapCacheBytes;
+    }
+
+
+    @Override
+    public List<Event> events(DateTime date)
+    {
+        return new ArrayList<Event>();
+    }
+
+
+    @Override
+    public void appendEvents(DateTime date, List<Event> events)
+    {
+    }
+
+
+    @Override
+    public TimeZone defaultTimeZone()
+    {
+        return TimeZone.getDefault();
+    }
+
+
+    /**
+     * Puts {@code count} events on every day of the given day mask.
+     */
+    TestPickerContext withEvents(int mask, int count)
+    {
+        mEventMask = mask;
+        Arrays.fill(mEventCounts, 0);
+        for (int day = 1; day <= 31; ++day)
+        {
+            if (DayMask.contains(mask, day))
+            {
+                mEventCounts[day - 1] = count;
+            }
+        }
+        return this;
+    }
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.android.instantpicker.events;
+
+import android.content.Context;
+
+import org.dmfs.rfc5545.DateTime;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+
+/**
+ * Tests for {@link AsyncEventsProvider}. This uses Robolectric, because the provider posts its results to the main looper. The loads run on the test
+ * thread.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class AsyncEventsProviderTest
+{
+    @Test
+    public void testLoad()
+    {
+        TestProvider provider = new TestProvider();
+        provider.mMasks[0] = 0b101;
+
+        assertEquals(DayMask.UNKNOWN, provider.eventMask(2018, 0));
+        // a month is loaded only once
+        assertEquals(DayMask.UNKNOWN, provider.eventMask(2018, 0));
+        assertEquals(1, provider.runLoads());
+        assertEquals(0b101, provider.eventMask(2018, 0));
+        assertEquals(0, provider.runLoads());
+    }
+
+
+    @Test
+    public void testChangedMonthsKeepTheirPreviousMaskWhileLoading()
+    {
+        TestProvider provider = new TestProvider();
+        provider.mMasks[0] = 0b1;
+        provider.eventMask(2018, 0);
+        provider.runLoads();
+
+        provider.mMasks[0] = 0b10;
+        provider.notifyChanged();
+
+        assertEquals(0b1, provider.eventMask(2018, 0));
+        assertEquals(1, provider.runLoads());
+        assertEquals(0b10, provider.eventMask(2018, 0));
+    }
+
+
+    @Test
+    public void testOnlyChangedMonthsInTheWindowAreLoadedAgain()
+    {
+        TestProvider provider = new TestProvider();
+        for (int month = 0; month < 6; ++month)
+        {
+            provider.mMasks[month] = 0b1;
+            provider.eventMask(2018, month);
+        }
+        provider.runLoads();
+        provider.retainWindow(PackedDay.of(2018, 1, 1), PackedDay.of(2018, 3, 30));
+
+        for (int month = 0; month < 6; ++month)
+        {
+            provider.mMasks[month] = 0b10;
+        }
+        provider.notifyChanged(PackedDay.of(2018, 0, 1), PackedDay.of(2018, 2, 31));
+
+        // February and March are loaded again, January is dropped, the other months didn't change
+        assertEquals(2, provider.runLoads());
+        assertEquals(0b10, provider.eventMask(2018, 1));
+        assertEquals(0b10, provider.eventMask(2018, 2));
+        assertEquals(0b1, provider.eventMask(2018, 3));
+        assertEquals(0b1, provider.eventMask(2018, 4));
+        assertEquals(DayMask.UNKNOWN, provider.eventMask(2018, 0));
+        assertEquals(1, provider.runLoads());
+        assertEquals(0b10, provider.eventMask(2018, 0));
+    }
+
+
+    @Test
+    public void testUnknownChangesLoadTheWindowAgainAndDropTheRest()
+    {
+        TestProvider provider = new TestProvider();
+        for (int month = 0; month < 12; ++month)
+        {
+            provider.mMasks[month] = 0b1;
+            provider.eventMask(2018, month);
+        }
+        provider.runLoads();
+        provider.retainWindow(PackedDay.of(2018, 4, 1), PackedDay.of(2018, 6, 31));
+
+        for (int month = 0; month < 12; ++month)
+        {
+            provider.mMasks[month] = 0b10;
+        }
+        provider.notifyChanged();
+
+        assertEquals(3, provider.runLoads());
+        for (int month = 0; month < 12; ++month)
+        {
+            assertEquals(month >= 4 && month <= 6 ? 0b10 : DayMask.UNKNOWN, provider.eventMask(2018, month));
+        }
+    }
+
+
+    @Test
+    public void testWithoutWindowAllChangedMonthsAreLoadedAgain()
+    {
+        TestProvider provider = new TestProvider();
+        for (int month = 0; month < 12; ++month)
+        {
+            provider.mMasks[month] = 0b1;
+            provider.eventMask(2018, month);
+        }
+        provider.runLoads();
+
+        provider.notifyChanged();
+
+        assertEquals(12, provider.runLoads());
+    }
+
+
+    @Test
+    public void testCancelledReloadDropsOutdatedMask()
+    {
+        TestProvider provider = new TestProvider();
+        provider.mMasks[0] = 0b1;
+        provider.eventMask(2018, 0);
+        provider.runLoads();
+
+        provider.mMasks[0] = 0b10;
+        provider.notifyChanged();
+        // January leaves the window before it has been loaded again
+        provider.retainWindow(PackedDay.of(2018, 2, 1), PackedDay.of(2018, 4, 31));
+        assertEquals(0, provider.runLoads());
+
+        // the outdated mask must not be returned, January is loaded again instead
+        assertEquals(DayMask.UNKNOWN, provider.eventMask(2018, 0));
+        assertEquals(1, provider.runLoads());
+        assertEquals(0b10, provider.eventMask(2018, 0));
+    }
+
+
+    @Test
+    public void testCancelledLoadIsLoadedAgain()
+    {
+        TestProvider provider = new TestProvider();
+        provider.mMasks[0] = 0b1;
+
+        assertEquals(DayMask.UNKNOWN, provider.eventMask(2018, 0));
+        provider.retainWindow(PackedDay.of(2018, 2, 1), PackedDay.of(2018, 4, 31));
+        assertEquals(0, provider.runLoads());
+
+        assertEquals(DayMask.UNKNOWN, provider.eventMask(2018, 0));
+        assertEquals(1, provider.runLoads());
+        assertEquals(0b1, provider.eventMask(2018, 0));
+    }
+
+
+    @Test
+    public void testCancelledReloadNotifiesSharedListeners()
+    {
+        final TestProvider provider = new TestProvider();
+        EventProviderFactory factory = new EventProviderFactory()
+        {
+            @Override
+            public EventsProvider create(Context context)
+            {
+                return provider;
+            }
+        };
+        final EventsProvider handle = EventsProviderRegistry.acquire(RuntimeEnvironment.application, factory);
+        try
+        {
+            // a listener that caches the masks it has seen, like the dialog does
+            final EventMaskCache cache = new EventMaskCache(12);
+            handle.setOnLoadListener(new EventsProvider.OnLoadListener()
+            {
+                @Override
+                public void onLoad(EventsProvider provider)
+                {
+                    cache.clear();
+                }
+
+
+                @Override
+                public void onLoad(EventsProvider provider, int year, int month)
+                {
+                    cache.remove(year, month);
+                }
+
+
+                @Override
+                public void onEventsChanged(EventsProvider provider, int fromPackedDay, int toPackedDay)
+                {
+                    cache.removeRange(fromPackedDay, toPackedDay);
+                }
+            });
+            provider.mMasks[0] = 0b1;
+            handle.eventMask(2018, 0);
+            provider.runLoads();
+
+            provider.mMasks[0] = 0b10;
+            provider.notifyChanged();
+            // the listener rebuilds its cache from the outdated mask while January is loaded again
+            cache.put(2018, 0, handle.eventMask(2018, 0));
+            // January leaves the window before it has been loaded again
+            handle.retainWindow(PackedDay.of(2018, 2, 1), PackedDay.of(2018, 4, 31));
+            assertEquals(0, provider.runLoads());
+
+            // the listener must have dropped what it built from the outdated mask
+            assertFalse(cache.contains(2018, 0));
+            assertEquals(DayMask.UNKNOWN, handle.eventMask(2018, 0));
+            assertEquals(1, provider.runLoads());
+            assertEquals(0b10, handle.eventMask(2018, 0));
+        }
+        finally
+        {
+            EventsProviderRegistry.release(handle);
+        }
+    }
+
+
+    /**
+     * An {@link AsyncEventsProvider} that returns the masks of 2018 from an array. Loads are queued until {@link #runLoads()} is called.
+     */
+    private final static class TestProvider extends AsyncEventsProvider
+    {
+        private final List<Runnable> mQueue;
+        private final int[] mMasks = new int[12];
+        private int mLoads;
+
+
+        TestProvider()
+        {
+            this(new ArrayList<Runnable>());
+        }
+
+
+        private TestProvider(final List<Runnable> queue)
+        {
+            super(new Executor()
+            {
+                @Override
+                public void execute(Runnable command)
+                {
+                    queue.add(command);
+                }
+            });
+            mQueue = queue;
+        }
+
+
+        /**
+         * Runs all queued loads, including the ones queued while running, and returns the number of loads that have not been cancelled.
+         */
+        int runLoads()
+        {
+            int loads = mLoads;
+            while (!mQueue.isEmpty())
+            {
+                mQueue.remove(0).run();
+            }
+            return mLoads - loads;
+        }
+
+
+        @Override
+        protected int loadEventMask(int year, int month)
+        {
+            ++mLoads;
+            return year == 2018 ? mMasks[month] : DayMask.NONE;
+        }
+
+
+        @Override
+        public void appendEventsTo(DateTime day, List<Event> events)
+        {
+        }
+    }
+}
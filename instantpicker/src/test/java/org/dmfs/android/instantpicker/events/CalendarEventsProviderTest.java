@@ -0,0 +1,97 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.android.instantpicker.events;
+
+import android.content.ContentResolver;
+import android.provider.CalendarContract;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+
+/**
+ * Tests for {@link CalendarEventsProvider}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class CalendarEventsProviderTest
+{
+    @Test
+    public void testChangesAreCollected()
+    {
+        ContentResolver resolver = RuntimeEnvironment.application.getContentResolver();
+        CountingProvider provider = new CountingProvider(resolver);
+        provider.setOnLoadListener(new EventsProvider.OnLoadListener()
+        {
+            @Override
+            public void onLoad(EventsProvider provider)
+            {
+            }
+        });
+
+        for (int i = 0; i < 10; ++i)
+        {
+            resolver.notifyChange(CalendarContract.Events.CONTENT_URI, null);
+            ShadowLooper.idleMainLooper(10, TimeUnit.MILLISECONDS);
+        }
+        assertEquals(0, provider.mChanges);
+        ShadowLooper.idleMainLooper(500, TimeUnit.MILLISECONDS);
+        assertEquals(1, provider.mChanges);
+
+        // later changes are handled again
+        resolver.notifyChange(CalendarContract.Events.CONTENT_URI, null);
+        ShadowLooper.idleMainLooper(500, TimeUnit.MILLISECONDS);
+        assertEquals(2, provider.mChanges);
+
+        // no changes are handled after the listener has been removed
+        resolver.notifyChange(CalendarContract.Events.CONTENT_URI, null);
+        provider.setOnLoadListener(null);
+        ShadowLooper.idleMainLooper(500, TimeUnit.MILLISECONDS);
+        assertEquals(2, provider.mChanges);
+    }
+
+
+    /**
+     * A {@link CalendarEventsProvider} that counts the calls to {@link #notifyChanged()}.
+     */
+    private final static class CountingProvider extends CalendarEventsProvider
+    {
+        private int mChanges;
+
+
+        CountingProvider(ContentResolver contentResolver)
+        {
+            super(contentResolver);
+        }
+
+
+        @Override
+        protected void notifyChanged()
+        {
+            ++mChanges;
+            super.notifyChanged();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.android.instantpicker.events;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+
+/**
+ * Tests for {@link DayMask}.
+ */
+public class DayMaskTest
+{
+    @Test
+    public void testBetweenWholeMonth()
+    {
+        assertEquals(0x7fffffff, DayMask.between(2018, 0, PackedDay.of(2018, 0, 1), PackedDay.of(2018, 0, 31)));
+        assertEquals(0x0fffffff, DayMask.between(2018, 1, PackedDay.of(2018, 1, 1), PackedDay.of(2018, 1, 28)));
+        assertEquals(0x1fffffff, DayMask.between(2020, 1, PackedDay.of(2020, 1, 1), PackedDay.of(2020, 1, 29)));
+        assertEquals(0x3fffffff, DayMask.between(2018, 3, PackedDay.of(2018, 3, 1), PackedDay.of(2018, 3, 30)));
+        // a range beyond the month doesn't add any days
+        assertEquals(0x3fffffff, DayMask.between(2018, 3, PackedDay.of(2017, 0, 1), PackedDay.of(2019, 11, 31)));
+    }
+
+
+    @Test
+    public void testBetweenFirstAndLastDay()
+    {
+        assertEquals(0x1, DayMask.between(2018, 0, PackedDay.of(2018, 0, 1), PackedDay.of(2018, 0, 1)));
+        assertEquals(0x40000000, DayMask.between(2018, 0, PackedDay.of(2018, 0, 31), PackedDay.of(2018, 0, 31)));
+        assertEquals(0x40000000, DayMask.between(2018, 0, PackedDay.of(2018, 0, 31), PackedDay.of(2018, 1, 28)));
+        assertEquals(0x1, DayMask.between(2018, 1, PackedDay.of(2018, 0, 31), PackedDay.of(2018, 1, 1)));
+        assertEquals(0x7ffffffe, DayMask.between(2018, 0, PackedDay.of(2018, 0, 2), PackedDay.of(2018, 0, 31)));
+        assertEquals(0x3fffffff, DayMask.between(2018, 0, PackedDay.of(2018, 0, 1), PackedDay.of(2018, 0, 30)));
+    }
+
+
+    @Test
+    public void testBetweenYearEdges()
+    {
+        // the range ends on New Year's Eve
+        assertEquals(0x40000000, DayMask.between(2017, 11, PackedDay.of(2017, 11, 31), PackedDay.of(2018, 0, 1)));
+        assertEquals(0x1, DayMask.between(2018, 0, PackedDay.of(2017, 11, 31), PackedDay.of(2018, 0, 1)));
+        assertEquals(DayMask.NONE, DayMask.between(2018, 0, PackedDay.of(2017, 0, 1), PackedDay.of(2017, 11, 31)));
+        assertEquals(DayMask.NONE, DayMask.between(2017, 11, PackedDay.of(2018, 0, 1), PackedDay.of(2018, 11, 31)));
+        // the same month of another year is not in the range
+        assertEquals(DayMask.NONE, DayMask.between(2019, 0, PackedDay.of(2018, 0, 1), PackedDay.of(2018, 0, 31)));
+        assertEquals(DayMask.NONE, DayMask.between(2017, 0, PackedDay.of(2018, 0, 1), PackedDay.of(2018, 0, 31)));
+    }
+
+
+    @Test
+    public void testBetweenEmptyRange()
+    {
+        assertEquals(DayMask.NONE, DayMask.between(2018, 0, PackedDay.of(2018, 0, 10), PackedDay.of(2018, 0, 9)));
+    }
+
+
+    @Test
+    public void testBetweenAgainstDayByDay()
+    {
+        int[] edges = { 1, 2, 15, 27, 28, 29, 30, 31 };
+        for (int year = 2015; year <= 2021; ++year)
+        {
+            for (int month = 0; month < 12; ++month)
+            {
+                int days = DayMask.daysInMonth(year, month);
+                for (int fromMonth = month - 1; fromMonth <= month + 1; ++fromMonth)
+                {
+                    for (int fromDay : edges)
+                    {
+                        int from = packedDay(year, fromMonth, fromDay);
+                        for (int toMonth = fromMonth; toMonth <= month + 1; ++toMonth)
+                        {
+                            for (int toDay : edges)
+                            {
+                                int to = packedDay(year, toMonth, toDay);
+                                int expected = DayMask.NONE;
+                                for (int day = 1; day <= days; ++day)
+                                {
+                                    int packedDay = PackedDay.of(year, month, day);
+                                    if (packedDay >= from && packedDay <= to)
+                                    {
+                                        expected = DayMask.with(expected, day);
+                                    }
+                                }
+                                assertEquals(year + "-" + month + " " + from + "-" + to, expected, DayMask.between(year, month, from, to));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+
+    @Test
+    public void testDaysInMonth()
+    {
+        assertEquals(31, DayMask.daysInMonth(2018, 0));
+        assertEquals(28, DayMask.daysInMonth(2018, 1));
+        assertEquals(29, DayMask.daysInMonth(2020, 1));
+        assertEquals(28, DayMask.daysInMonth(2100, 1));
+        assertEquals(29, DayMask.daysInMonth(2000, 1));
+        assertEquals(30, DayMask.daysInMonth(2018, 10));
+        assertEquals(31, DayMask.daysInMonth(2018, 11));
+    }
+
+
+    /**
+     * Returns the {@link PackedDay} of the given day, moving to the adjacent year if the month is out of range and clamping the day to the month.
+     */
+    private static int packedDay(int year, int month, int day)
+    {
+        if (month < 0)
+        {
+            return packedDay(year - 1, month + 12, day);
+        }
+        if (month > 11)
+        {
+            return packedDay(year + 1, month - 12, day);
+        }
+        return PackedDay.of(year, month, Math.min(day, DayMask.daysInMonth(year, month)));
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.android.instantpicker.events;
+
+import org.dmfs.rfc5545.DateTime;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+
+
+/**
+ * Tests for {@link DisabledDates}.
+ */
+public class DisabledDatesTest
+{
+    @Test
+    public void testMonthAndYearEdges()
+    {
+        DisabledDates disabledDates = new DisabledDates(
+                new DateTime(2018, 0, 1),
+                new DateTime(2017, 11, 31),
+                new DateTime(2018, 0, 31),
+                new DateTime(2018, 1, 28),
+                new DateTime(2018, 2, 1));
+
+        assertEquals(0x40000000, disabledDates.disabledDays(2017, 11));
+        assertEquals(0x40000001, disabledDates.disabledDays(2018, 0));
+        assertEquals(0x08000000, disabledDates.disabledDays(2018, 1));
+        assertEquals(0x1, disabledDates.disabledDays(2018, 2));
+        assertEquals(DayMask.NONE, disabledDates.disabledDays(2017, 10));
+        assertEquals(DayMask.NONE, disabledDates.disabledDays(2018, 3));
+        assertEquals(DayMask.NONE, disabledDates.disabledDays(2019, 0));
+    }
+
+
+    @Test
+    public void testDuplicatesAndTimes()
+    {
+        DisabledDates disabledDates = new DisabledDates(
+                new DateTime(2018, 4, 15),
+                new DateTime(TimeZone.getTimeZone("Europe/Berlin"), 2018, 4, 15, 23, 30, 0),
+                new DateTime(2018, 4, 16, 0, 0, 0));
+
+        assertEquals(DayMask.with(DayMask.with(DayMask.NONE, 15), 16), disabledDates.disabledDays(2018, 4));
+    }
+
+
+    @Test
+    public void testNoDates()
+    {
+        assertEquals(DayMask.NONE, new DisabledDates().disabledDays(2018, 4));
+    }
+
+
+    @Test
+    public void testSerialization() throws IOException, ClassNotFoundException
+    {
+        DisabledDates disabledDates = new DisabledDates(new DateTime(2018, 4, 15), new DateTime(2019, 0, 1));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(disabledDates);
+        out.close();
+        DisabledDays restored = (DisabledDays) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+        assertEquals(disabledDates, restored);
+        assertEquals(DayMask.with(DayMask.NONE, 15), restored.disabledDays(2018, 4));
+        assertEquals(0x1, restored.disabledDays(2019, 0));
+    }
+}
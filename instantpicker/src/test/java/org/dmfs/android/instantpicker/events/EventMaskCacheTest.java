@@ -0,0 +1,200 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.dmfs.android.instantpicker.events;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Tests for {@link EventMaskCache}. This uses Robolectric, because the cache indexes its slots with a {@link android.util.SparseIntArray}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class EventMaskCacheTest
+{
+    @Test
+    public void testGetReturnsStoredMask()
+    {
+        EventMaskCache cache = new EventMaskCache(4);
+        cache.put(2018, 0, 0x5);
+        cache.put(2018, 11, DayMask.NONE);
+
+        assertEquals(0x5, cache.get(2018, 0));
+        assertEquals(DayMask.NONE, cache.get(2018, 11));
+        assertEquals(DayMask.UNKNOWN, cache.get(2019, 0));
+        assertEquals(2, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+
+    @Test
+    public void testEvictsLeastRecentlyPutMonth()
+    {
+        EventMaskCache cache = new EventMaskCache(3);
+        cache.put(2018, 0, 1);
+        cache.put(2018, 1, 2);
+        cache.put(2018, 2, 3);
+        cache.put(2018, 3, 4);
+
+        assertFalse(cache.contains(2018, 0));
+        assertTrue(cache.contains(2018, 1));
+        assertTrue(cache.contains(2018, 2));
+        assertTrue(cache.contains(2018, 3));
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.evictionCount());
+    }
+
+
+    @Test
+    public void testGetMakesMonthMostRecentlyUsed()
+    {
+        EventMaskCache cache = new EventMaskCache(3);
+        cache.put(2018, 0, 1);
+        cache.put(2018, 1, 2);
+        cache.put(2018, 2, 3);
+        cache.get(2018, 0);
+        cache.put(2018, 3, 4);
+
+        // February is the least recently used month now
+        assertTrue(cache.contains(2018, 0));
+        assertFalse(cache.contains(2018, 1));
+
+        cache.put(2018, 4, 5);
+        assertFalse(cache.contains(2018, 2));
+        assertTrue(cache.contains(2018, 0));
+    }
+
+
+    @Test
+    public void testContainsDoesNotChangeOrder()
+    {
+        EventMaskCache cache = new EventMaskCache(2);
+        cache.put(2018, 0, 1);
+        cache.put(2018, 1, 2);
+        assertTrue(cache.contains(2018, 0));
+        cache.put(2018, 2, 3);
+
+        assertFalse(cache.contains(2018, 0));
+        assertEquals(0, cache.hitCount());
+    }
+
+
+    @Test
+    public void testUpdateMakesMonthMostRecentlyUsed()
+    {
+        EventMaskCache cache = new EventMaskCache(2);
+        cache.put(2018, 0, 1);
+        cache.put(2018, 1, 2);
+        cache.put(2018, 0, 7);
+        cache.put(2018, 2, 3);
+
+        assertEquals(7, cache.get(2018, 0));
+        assertFalse(cache.contains(2018, 1));
+        assertEquals(2, cache.size());
+    }
+
+
+    @Test
+    public void testRemovedSlotsAreReused()
+    {
+        EventMaskCache cache = new EventMaskCache(3);
+        cache.put(2018, 0, 1);
+        cache.put(2018, 1, 2);
+        cache.put(2018, 2, 3);
+        cache.remove(2018, 1);
+        cache.put(2018, 3, 4);
+
+        // the free slot is taken, nothing is evicted
+        assertEquals(0, cache.evictionCount());
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.get(2018, 0));
+        assertEquals(3, cache.get(2018, 2));
+        assertEquals(4, cache.get(2018, 3));
+
+        // the eviction order is still intact: March is the least recently used month after the gets above
+        cache.get(2018, 0);
+        cache.put(2018, 4, 5);
+        assertFalse(cache.contains(2018, 2));
+    }
+
+
+    @Test
+    public void testRemoveRange()
+    {
+        EventMaskCache cache = new EventMaskCache(12);
+        for (int month = 0; month < 6; ++month)
+        {
+            cache.put(2017, month + 6, month);
+            cache.put(2018, month, month);
+        }
+        cache.removeRange(PackedDay.of(2017, 11, 31), PackedDay.of(2018, 1, 1));
+
+        assertTrue(cache.contains(2017, 10));
+        assertFalse(cache.contains(2017, 11));
+        assertFalse(cache.contains(2018, 0));
+        assertFalse(cache.contains(2018, 1));
+        assertTrue(cache.contains(2018, 2));
+        assertEquals(9, cache.size());
+        assertEquals(2017 * 12 + 6, cache.monthAt(0));
+        assertEquals(2018 * 12 + 5, cache.monthAt(8));
+    }
+
+
+    @Test
+    public void testIncompleteMasksAreNotCached()
+    {
+        EventMaskCache cache = new EventMaskCache(2);
+        cache.put(2018, 0, DayMask.UNKNOWN | 0x3);
+
+        assertFalse(cache.contains(2018, 0));
+    }
+
+
+    @Test
+    public void testZeroCapacityDisablesCaching()
+    {
+        EventMaskCache cache = new EventMaskCache(0);
+        cache.put(2018, 0, 1);
+
+        assertFalse(cache.contains(2018, 0));
+        assertEquals(DayMask.UNKNOWN, cache.get(2018, 0));
+    }
+
+
+    @Test
+    public void testClear()
+    {
+        EventMaskCache cache = new EventMaskCache(2);
+        cache.put(2018, 0, 1);
+        cache.put(2018, 1, 2);
+        cache.clear();
+        cache.put(2018, 2, 3);
+        cache.put(2018, 3, 4);
+
+        assertEquals(2, cache.size());
+        assertEquals(0, cache.evictionCount());
+        assertFalse(cache.contains(2018, 0));
+    }
+}
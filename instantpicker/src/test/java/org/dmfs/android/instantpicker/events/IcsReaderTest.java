@@ -0,0 +1,202 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.android.instantpicker.events;
+
+import org.dmfs.rfc5545.DateTime;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Tests for {@link IcsReader}.
+ */
+public class IcsReaderTest
+{
+    private final static TimeZone BERLIN = TimeZone.getTimeZone("Europe/Berlin");
+
+
+    @Test
+    public void testEvent() throws IOException
+    {
+        IcsReader reader = reader(
+                "BEGIN:VEVENT",
+                "DTSTART;TZID=Europe/Berlin:20180130T100000",
+                "DTEND;TZID=Europe/Berlin:20180130T113000",
+                "SUMMARY:Meeting\\, weekly",
+                "RRULE:FREQ=WEEKLY",
+                "END:VEVENT");
+
+        assertTrue(reader.next());
+        assertEquals(new DateTime(BERLIN, 2018, 0, 30, 10, 0, 0), reader.start());
+        assertEquals(90 * 60 * 1000, reader.duration().toMillis());
+        assertEquals("FREQ=WEEKLY", reader.rule());
+        assertEquals("Meeting, weekly", reader.title());
+        assertFalse(reader.isExcluded(reader.start()));
+        assertFalse(reader.next());
+    }
+
+
+    @Test
+    public void testExcludedDates() throws IOException
+    {
+        IcsReader reader = reader(
+                "BEGIN:VEVENT",
+                "DTSTART;VALUE=DATE:20180101",
+                "RRULE:FREQ=DAILY",
+                "EXDATE;VALUE=DATE:20180105,20180103",
+                "EXDATE;VALUE=DATE:20180110",
+                "END:VEVENT");
+
+        assertTrue(reader.next());
+        assertFalse(reader.isExcluded(new DateTime(2018, 0, 1)));
+        assertFalse(reader.isExcluded(new DateTime(2018, 0, 2)));
+        assertTrue(reader.isExcluded(new DateTime(2018, 0, 3)));
+        assertFalse(reader.isExcluded(new DateTime(2018, 0, 4)));
+        assertTrue(reader.isExcluded(new DateTime(2018, 0, 5)));
+        assertTrue(reader.isExcluded(new DateTime(2018, 0, 10)));
+    }
+
+
+    @Test
+    public void testExcludedDateTimes() throws IOException
+    {
+        IcsReader reader = reader(
+                "BEGIN:VEVENT",
+                "DTSTART;TZID=Europe/Berlin:20180101T100000",
+                "RRULE:FREQ=DAILY",
+                "EXDATE;TZID=Europe/Berlin:20180102T100000",
+                // the same as 2018-01-04 10:00 in Berlin
+                "EXDATE:20180104T090000Z",
+                "END:VEVENT");
+
+        assertTrue(reader.next());
+        assertTrue(reader.isExcluded(new DateTime(BERLIN, 2018, 0, 2, 10, 0, 0)));
+        assertFalse(reader.isExcluded(new DateTime(BERLIN, 2018, 0, 3, 10, 0, 0)));
+        assertTrue(reader.isExcluded(new DateTime(BERLIN, 2018, 0, 4, 10, 0, 0)));
+    }
+
+
+    @Test
+    public void testExcludedDatesDontCarryOver() throws IOException
+    {
+        IcsReader reader = reader(
+                "BEGIN:VEVENT",
+                "DTSTART;VALUE=DATE:20180101",
+                "RRULE:FREQ=DAILY",
+                "EXDATE;VALUE=DATE:20180102",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "DTSTART;VALUE=DATE:20180101",
+                "RRULE:FREQ=DAILY",
+                "END:VEVENT");
+
+        assertTrue(reader.next());
+        assertTrue(reader.isExcluded(new DateTime(2018, 0, 2)));
+        assertTrue(reader.next());
+        assertFalse(reader.isExcluded(new DateTime(2018, 0, 2)));
+    }
+
+
+    @Test
+    public void testCancelledEventsAreSkipped() throws IOException
+    {
+        IcsReader reader = reader(
+                "BEGIN:VEVENT",
+                "DTSTART;VALUE=DATE:20180101",
+                "SUMMARY:cancelled",
+                "STATUS:CANCELLED",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "DTSTART;VALUE=DATE:20180102",
+                "SUMMARY:confirmed",
+                "STATUS:CONFIRMED",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "UID:1",
+                "RECURRENCE-ID;VALUE=DATE:20180103",
+                "DTSTART;VALUE=DATE:20180103",
+                "SUMMARY:cancelled instance",
+                "STATUS:CANCELLED",
+                "END:VEVENT");
+
+        assertTrue(reader.next());
+        assertEquals("confirmed", reader.title());
+        assertFalse(reader.next());
+    }
+
+
+    @Test
+    public void testOverridesAreReturnedAtTheirOwnStart() throws IOException
+    {
+        IcsReader reader = reader(
+                "BEGIN:VEVENT",
+                "UID:1",
+                "DTSTART;VALUE=DATE:20180101",
+                "RRULE:FREQ=DAILY;COUNT=5",
+                "EXDATE;VALUE=DATE:20180103",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "UID:1",
+                "RECURRENCE-ID;VALUE=DATE:20180103",
+                "DTSTART;VALUE=DATE:20180110",
+                "END:VEVENT");
+
+        assertTrue(reader.next());
+        assertTrue(reader.isExcluded(new DateTime(2018, 0, 3)));
+        assertTrue(reader.next());
+        assertEquals(new DateTime(2018, 0, 10), reader.start());
+        assertNull(reader.rule());
+        assertFalse(reader.isExcluded(reader.start()));
+        assertFalse(reader.next());
+    }
+
+
+    @Test
+    public void testPropertiesOfSubComponentsAreIgnored() throws IOException
+    {
+        IcsReader reader = reader(
+                "BEGIN:VEVENT",
+                "DTSTART;VALUE=DATE:20180101",
+                "BEGIN:VALARM",
+                "STATUS:CANCELLED",
+                "END:VALARM",
+                "END:VEVENT");
+
+        assertTrue(reader.next());
+        assertEquals(new DateTime(2018, 0, 1), reader.start());
+    }
+
+
+    private static IcsReader reader(String... lines)
+    {
+        StringBuilder ics = new StringBuilder("BEGIN:VCALENDAR\r\n");
+        for (String line : lines)
+        {
+            ics.append(line).append("\r\n");
+        }
+        ics.append("END:VCALENDAR\r\n");
+        return new IcsReader(new StringReader(ics.toString()));
+    }
+}
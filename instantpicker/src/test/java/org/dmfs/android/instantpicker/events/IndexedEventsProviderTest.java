@@ -0,0 +1,219 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.dmfs.android.instantpicker.events;
+
+import org.dmfs.rfc5545.DateTime;
+import org.dmfs.rfc5545.Duration;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Tests for {@link IndexedEventsProvider}.
+ */
+public class IndexedEventsProviderTest
+{
+    private final static TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+
+    @Test
+    public void testEventSpanningMonthBoundary()
+    {
+        Event event = allDay(2018, 0, 30, 4);
+        IndexedEventsProvider provider = new IndexedEventsProvider(Collections.singletonList(event));
+
+        assertEquals(DayMask.with(DayMask.with(DayMask.NONE, 30), 31), provider.eventMask(2018, 0));
+        assertEquals(DayMask.with(DayMask.with(DayMask.NONE, 1), 2), provider.eventMask(2018, 1));
+        assertEquals(DayMask.NONE, provider.eventMask(2017, 11));
+        assertEquals(DayMask.NONE, provider.eventMask(2018, 2));
+
+        assertFalse(provider.hasEventsOn(PackedDay.of(2018, 0, 29)));
+        assertTrue(provider.hasEventsOn(PackedDay.of(2018, 0, 30)));
+        assertTrue(provider.hasEventsOn(PackedDay.of(2018, 1, 2)));
+        // the end is exclusive
+        assertFalse(provider.hasEventsOn(PackedDay.of(2018, 1, 3)));
+
+        assertEquals(Collections.singletonList(event), events(provider, PackedDay.of(2018, 1, 1)));
+        assertEquals(Collections.<Event>emptyList(), events(provider, PackedDay.of(2018, 1, 3)));
+    }
+
+
+    @Test
+    public void testEventSpanningYearBoundary()
+    {
+        IndexedEventsProvider provider = new IndexedEventsProvider(Collections.singletonList(allDay(2017, 11, 31, 2)));
+
+        assertEquals(DayMask.with(DayMask.NONE, 31), provider.eventMask(2017, 11));
+        assertEquals(DayMask.with(DayMask.NONE, 1), provider.eventMask(2018, 0));
+        assertTrue(provider.hasEventsOn(PackedDay.of(2018, 0, 1)));
+        assertFalse(provider.hasEventsOn(PackedDay.of(2018, 0, 2)));
+    }
+
+
+    @Test
+    public void testTimedEventEndingAtMidnightDoesNotCoverNextDay()
+    {
+        TimeZone defaultTimeZone = TimeZone.getDefault();
+        TimeZone.setDefault(UTC);
+        try
+        {
+            IndexedEventsProvider provider = new IndexedEventsProvider(Arrays.<Event>asList(
+                    new SimpleEvent(new DateTime(UTC, 2018, 2, 31, 22, 0, 0), Duration.parse("PT2H")),
+                    new SimpleEvent(new DateTime(UTC, 2018, 3, 30, 23, 0, 0), Duration.parse("PT2H"))));
+
+            assertEquals(DayMask.with(DayMask.NONE, 31), provider.eventMask(2018, 2));
+            assertFalse(provider.hasEventsOn(PackedDay.of(2018, 3, 1)));
+            // the second event ends at 01:00 on the first day of the next month
+            assertEquals(DayMask.with(DayMask.NONE, 30), provider.eventMask(2018, 3));
+            assertEquals(DayMask.with(DayMask.NONE, 1), provider.eventMask(2018, 4));
+        }
+        finally
+        {
+            TimeZone.setDefault(defaultTimeZone);
+        }
+    }
+
+
+    @Test
+    public void testEventsAreAppendedInOrderOfStart()
+    {
+        Event late = allDay(2018, 5, 10, 1);
+        Event early = allDay(2018, 5, 1, 20);
+        Event middle = allDay(2018, 5, 5, 10);
+        IndexedEventsProvider provider = new IndexedEventsProvider(Arrays.asList(late, early, middle));
+
+        assertEquals(Arrays.asList(early, middle, late), events(provider, PackedDay.of(2018, 5, 10)));
+    }
+
+
+    @Test
+    public void testEventCountsAtMonthBoundaries()
+    {
+        IndexedEventsProvider provider = new IndexedEventsProvider(Arrays.asList(
+                allDay(2018, 0, 25, 10),
+                allDay(2018, 1, 28, 1),
+                allDay(2018, 1, 1, 28)));
+
+        int[] counts = new int[31];
+        provider.addEventCounts(2018, 1, counts);
+
+        int[] expected = new int[31];
+        Arrays.fill(expected, 0, 28, 1);
+        // the first event covers February 1st to 3rd
+        expected[0] = expected[1] = expected[2] = 2;
+        expected[27] = 2;
+        assertTrue(Arrays.toString(counts), Arrays.equals(expected, counts));
+    }
+
+
+    @Test
+    public void testEmptyProvider()
+    {
+        IndexedEventsProvider provider = new IndexedEventsProvider(Collections.<Event>emptyList());
+
+        assertEquals(DayMask.NONE, provider.eventMask(2018, 0));
+        assertFalse(provider.hasEventsOn(PackedDay.of(2018, 0, 1)));
+        assertEquals(Collections.<Event>emptyList(), events(provider, PackedDay.of(2018, 0, 1)));
+    }
+
+
+    /**
+     * Compares the index with a brute force search for random events, including sizes that take several levels of the interval tree.
+     */
+    @Test
+    public void testRandomEventsMatchBruteForce()
+    {
+        Random random = new Random(42);
+        for (int size : new int[] { 1, 2, 7, 8, 9, 15, 16, 17, 100, 1000 })
+        {
+            List<Event> events = new ArrayList<Event>(size);
+            for (int i = 0; i < size; ++i)
+            {
+                // mostly short events and a few long ones, around a year boundary
+                int duration = random.nextInt(10) == 0 ? 1 + random.nextInt(90) : 1 + random.nextInt(3);
+                DateTime start = new DateTime(2017, 10, 1).addDuration(new Duration(1, random.nextInt(120), 0));
+                events.add(allDay(start.getYear(), start.getMonth(), start.getDayOfMonth(), duration));
+            }
+            IndexedEventsProvider provider = new IndexedEventsProvider(events);
+
+            for (int month = 0; month < 8; ++month)
+            {
+                int year = 2017 + (10 + month) / 12;
+                int monthOfYear = (10 + month) % 12;
+                int[] counts = new int[31];
+                provider.addEventCounts(year, monthOfYear, counts);
+                int expectedMask = DayMask.NONE;
+                for (int day = 1; day <= DayMask.daysInMonth(year, monthOfYear); ++day)
+                {
+                    int packedDay = PackedDay.of(year, monthOfYear, day);
+                    List<Event> expected = bruteForce(events, packedDay);
+                    List<Event> actual = events(provider, packedDay);
+
+                    String message = "size " + size + " day " + year + "-" + (monthOfYear + 1) + "-" + day;
+                    assertEquals(message, expected.size(), actual.size());
+                    assertTrue(message, actual.containsAll(expected));
+                    assertEquals(message, !expected.isEmpty(), provider.hasEventsOn(packedDay));
+                    assertEquals(message, expected.size(), counts[day - 1]);
+                    if (!expected.isEmpty())
+                    {
+                        expectedMask = DayMask.with(expectedMask, day);
+                    }
+                }
+                assertEquals("size " + size + " month " + year + "-" + (monthOfYear + 1), expectedMask, provider.eventMask(year, monthOfYear));
+            }
+        }
+    }
+
+
+    private static List<Event> bruteForce(List<Event> events, int packedDay)
+    {
+        List<Event> result = new ArrayList<Event>();
+        for (Event event : events)
+        {
+            if (PackedDay.firstDay(event.start()) <= packedDay && packedDay <= PackedDay.lastDay(event.start(), event.duration()))
+            {
+                result.add(event);
+            }
+        }
+        return result;
+    }
+
+
+    private static List<Event> events(IndexedEventsProvider provider, int packedDay)
+    {
+        List<Event> result = new ArrayList<Event>();
+        provider.appendEventsTo(packedDay, result);
+        return result;
+    }
+
+
+    private static Event allDay(int year, int month, int dayOfMonth, int days)
+    {
+        return new SimpleEvent(new DateTime(year, month, dayOfMonth), new Duration(1, days, 0));
+    }
+}
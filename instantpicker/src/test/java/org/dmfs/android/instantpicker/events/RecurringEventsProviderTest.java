@@ -0,0 +1,101 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.dmfs.android.instantpicker.events;
+
+import org.dmfs.rfc5545.DateTime;
+import org.dmfs.rfc5545.Duration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Tests for {@link RecurringEventsProvider}. This uses Robolectric, because the provider posts its results to the main looper.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class RecurringEventsProviderTest
+{
+    private final static TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private TimeZone mDefaultTimeZone;
+
+
+    @Before
+    public void setUp()
+    {
+        mDefaultTimeZone = TimeZone.getDefault();
+        TimeZone.setDefault(UTC);
+    }
+
+
+    @After
+    public void tearDown()
+    {
+        TimeZone.setDefault(mDefaultTimeZone);
+    }
+
+
+    @Test
+    public void testInstanceStartingDaysBeforeMonthReachesIntoMonth()
+    {
+        // starts at 23:00 two days before February and ends on February 1st at 11:00
+        RecurringEventsProvider provider = provider("FREQ=WEEKLY", new DateTime(UTC, 2018, 0, 30, 23, 0, 0), "PT36H");
+
+        int mask = provider.loadEventMask(2018, 1);
+        assertTrue(DayMask.contains(mask, 1));
+        assertFalse(DayMask.contains(mask, 2));
+        // the next instance covers February 6th to 8th
+        assertTrue(DayMask.contains(mask, 6));
+        assertTrue(DayMask.contains(mask, 8));
+        assertFalse(DayMask.contains(mask, 9));
+
+        List<Event> events = new ArrayList<Event>();
+        provider.appendEventsTo(new DateTime(2018, 1, 1), events);
+        assertEquals(1, events.size());
+    }
+
+
+    @Test
+    public void testAllDayInstancesSpanningMonthBoundary()
+    {
+        RecurringEventsProvider provider = provider("FREQ=MONTHLY", new DateTime(2018, 0, 28), "P5D");
+
+        int mask = provider.loadEventMask(2018, 2);
+        // the February instance covers March 1st to 4th, the March instance starts on the 28th
+        assertEquals(DayMask.with(DayMask.with(DayMask.with(DayMask.with(DayMask.NONE, 1), 2), 3), 4) | 0xf << 27, mask);
+    }
+
+
+    private static RecurringEventsProvider provider(String rule, DateTime start, String duration)
+    {
+        return new RecurringEventsProvider(Collections.singletonList(new RecurringEvent(rule, start, Duration.parse(duration), "event")));
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.android.instantpicker.events;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Tests for {@link TimedEventsProvider}.
+ */
+public class TimedEventsProviderTest
+{
+    private final static int BUCKET_COUNT = 62 * 4;
+
+
+    @Test
+    public void testSmallValuesHaveTheirOwnBucket()
+    {
+        for (int nanos = 0; nanos < 8; ++nanos)
+        {
+            assertEquals(nanos, TimedEventsProvider.bucket(nanos));
+            assertEquals(nanos, TimedEventsProvider.upperBound(nanos));
+        }
+        assertEquals(0, TimedEventsProvider.bucket(-1));
+    }
+
+
+    @Test
+    public void testBucketBoundsRoundTrip()
+    {
+        // the lower bound of each bucket is the upper bound of the previous one plus one
+        long lowerBound = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; ++bucket)
+        {
+            long upperBound = TimedEventsProvider.upperBound(bucket);
+            assertTrue(upperBound >= lowerBound);
+            assertEquals(bucket, TimedEventsProvider.bucket(lowerBound));
+            assertEquals(bucket, TimedEventsProvider.bucket(upperBound));
+            if (lowerBound > 0)
+            {
+                assertEquals(bucket - 1, TimedEventsProvider.bucket(lowerBound - 1));
+            }
+            // four buckets per power of two, so a bucket covers at most a quarter of its lower bound
+            assertTrue(upperBound - lowerBound <= Math.max(lowerBound / 4, 0));
+            lowerBound = upperBound + 1;
+        }
+        assertEquals(Long.MAX_VALUE, TimedEventsProvider.upperBound(BUCKET_COUNT - 1));
+    }
+
+
+    @Test
+    public void testRandomValuesRoundTrip()
+    {
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; ++i)
+        {
+            long nanos = random.nextLong() >>> random.nextInt(64);
+            int bucket = TimedEventsProvider.bucket(nanos);
+            assertTrue(nanos <= TimedEventsProvider.upperBound(bucket));
+            assertTrue(bucket == 0 || nanos > TimedEventsProvider.upperBound(bucket - 1));
+        }
+    }
+
+
+    @Test
+    public void testPercentiles()
+    {
+        TimedEventsProvider provider = provider(0, false, null);
+        List<Long> values = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; ++i)
+        {
+            long nanos = 1000 + random.nextInt(1000000);
+            values.add(nanos);
+            provider.record(nanos);
+        }
+        Collections.sort(values);
+
+        EventsProviderMetrics metrics = provider.metrics();
+        assertEquals(1000, metrics.callCount());
+        assertEquals(values.get(999).longValue(), metrics.maxNanos());
+        // the percentiles are the upper bounds of the buckets of the actual values, but never more than the maximum
+        assertEquals(Math.min(upperBound(values.get(499)), metrics.maxNanos()), metrics.medianNanos());
+        assertEquals(Math.min(upperBound(values.get(989)), metrics.maxNanos()), metrics.p99Nanos());
+    }
+
+
+    @Test
+    public void testPercentilesAreCappedAtTheMaximum()
+    {
+        TimedEventsProvider provider = provider(0, false, null);
+        provider.record(1000);
+        provider.record(1001);
+
+        assertEquals(1001, provider.metrics().medianNanos());
+        assertEquals(1001, provider.metrics().p99Nanos());
+    }
+
+
+    @Test
+    public void testNoCalls()
+    {
+        EventsProviderMetrics metrics = provider(0, false, null).metrics();
+        assertEquals(0, metrics.callCount());
+        assertEquals(0, metrics.medianNanos());
+        assertEquals(0, metrics.p99Nanos());
+    }
+
+
+    @Test
+    public void testSkipSlow()
+    {
+        final List<Long> slowCalls = new ArrayList<>();
+        TimedEventsProvider provider = provider(1000, true, new TimedEventsProvider.OnSlowCallListener()
+        {
+            @Override
+            public void onSlowCall(TimedEventsProvider provider, long nanos)
+            {
+                // the provider is already skipped when the listener is notified
+                assertTrue(provider.metrics().isSkipped());
+                slowCalls.add(nanos);
+            }
+        });
+        provider.record(1000);
+        assertFalse(provider.metrics().isSkipped());
+        provider.record(1001);
+
+        assertEquals(Collections.singletonList(1001L), slowCalls);
+        assertEquals(1, provider.metrics().slowCallCount());
+        assertTrue(provider.metrics().isSkipped());
+        assertEquals(DayMask.NONE, provider.eventMask(2018, 0));
+        assertFalse(provider.hasEventsOn(PackedDay.of(2018, 0, 1)));
+        // skipped calls are not measured
+        assertEquals(2, provider.metrics().callCount());
+    }
+
+
+    @Test
+    public void testSlowCallsWithoutSkipping()
+    {
+        final List<Long> slowCallCounts = new ArrayList<>();
+        TimedEventsProvider provider = provider(1000, false, new TimedEventsProvider.OnSlowCallListener()
+        {
+            @Override
+            public void onSlowCall(TimedEventsProvider provider, long nanos)
+            {
+                // the call is already counted when the listener is notified, so it can tell the first slow call
+                slowCallCounts.add(provider.slowCallCount());
+            }
+        });
+        provider.record(1001);
+        provider.record(1000);
+        provider.record(2000);
+
+        assertEquals(Arrays.asList(1L, 2L), slowCallCounts);
+        assertEquals(2, provider.slowCallCount());
+        assertFalse(provider.isSkipped());
+        assertEquals(3, provider.metrics().callCount());
+    }
+
+
+    private static TimedEventsProvider provider(long budgetNanos, boolean skipSlow, TimedEventsProvider.OnSlowCallListener listener)
+    {
+        return new TimedEventsProvider(new IndexedEventsProvider(Collections.<Event>emptyList()), "test", budgetNanos, skipSlow, listener);
+    }
+
+
+    private static long upperBound(long nanos)
+    {
+        return TimedEventsProvider.upperBound(TimedEventsProvider.bucket(nanos));
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.dmfs.android.instantpicker.time;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+
+/**
+ * Tests for {@link BusySlotsView#merge(int[], int)}.
+ */
+public class BusySlotsViewTest
+{
+    @Test
+    public void testNoIntervals()
+    {
+        assertEquals(0, BusySlotsView.merge(new int[0], 0));
+    }
+
+
+    @Test
+    public void testDisjointIntervalsAreSorted()
+    {
+        assertMerged(new int[] { 600, 660, 60, 120, 300, 360 }, new int[] { 60, 120, 300, 360, 600, 660 });
+    }
+
+
+    @Test
+    public void testOverlappingIntervalsAreMerged()
+    {
+        assertMerged(new int[] { 60, 180, 120, 240 }, new int[] { 60, 240 });
+        // an interval inside another one
+        assertMerged(new int[] { 60, 240, 120, 180 }, new int[] { 60, 240 });
+        // intervals with the same start
+        assertMerged(new int[] { 60, 120, 60, 240 }, new int[] { 60, 240 });
+        // a chain of overlaps, in reverse order
+        assertMerged(new int[] { 200, 300, 100, 210, 0, 110 }, new int[] { 0, 300 });
+    }
+
+
+    @Test
+    public void testAdjacentIntervalsAreMerged()
+    {
+        // the ends are exclusive, so back to back intervals leave no gap
+        assertMerged(new int[] { 60, 120, 120, 180 }, new int[] { 60, 180 });
+    }
+
+
+    @Test
+    public void testMixedIntervals()
+    {
+        assertMerged(new int[] { 900, 960, 0, 60, 30, 90, 480, 540, 500, 520, 1380, 1440 }, new int[] { 0, 90, 480, 540, 900, 960, 1380, 1440 });
+    }
+
+
+    @Test
+    public void testOnlyTheGivenIntervalsAreMerged()
+    {
+        // the entries after count are unused buffer space
+        int[] intervals = { 120, 180, 60, 90, 0, 1440 };
+        assertEquals(2, BusySlotsView.merge(intervals, 2));
+        assertArrayEquals(new int[] { 60, 90, 120, 180 }, Arrays.copyOf(intervals, 4));
+    }
+
+
+    private static void assertMerged(int[] intervals, int[] expected)
+    {
+        int merged = BusySlotsView.merge(intervals, intervals.length / 2);
+        assertEquals(expected.length / 2, merged);
+        assertArrayEquals(expected, Arrays.copyOf(intervals, merged * 2));
+    }
+}
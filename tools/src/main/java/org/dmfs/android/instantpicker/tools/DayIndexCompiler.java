@@ -0,0 +1,163 @@
+/*
+ * Copyright 2018 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.dmfs.android.instantpicker.tools;
+
+import org.dmfs.android.instantpicker.events.DayIndexWriter;
+import org.dmfs.android.instantpicker.events.IcsReader;
+import org.dmfs.android.instantpicker.events.PackedDay;
+import org.dmfs.rfc5545.DateTime;
+import org.dmfs.rfc5545.Duration;
+import org.dmfs.rfc5545.recur.InvalidRecurrenceRuleException;
+import org.dmfs.rfc5545.recur.RecurrenceRule;
+import org.dmfs.rfc5545.recur.RecurrenceRuleIterator;
+
+import java.io.BufferedOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+
+
+/**
+ * A command line tool that compiles iCalendar files into a day index for a {@code DayIndexProvider}. It's not part of the library, it runs on the JVM
+ * after {@code ./gradlew :tools:installDist}:
+ * <pre>
+ * tools/build/install/tools/bin/tools &lt;first year&gt; &lt;last year&gt; &lt;output file&gt; &lt;ics file&gt;...
+ * </pre>
+ * Recurring events are expanded within the given years, without the instances excluded by {@code EXDATE}s. Timed events are put on the days they cover in
+ * their own time zone.
+ */
+public final class DayIndexCompiler
+{
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length < 4)
+        {
+            System.err.println("Usage: DayIndexCompiler <first year> <last year> <output file> <ics file>...");
+            System.exit(1);
+        }
+
+        int firstYear = Integer.parseInt(args[0]);
+        int lastYear = Integer.parseInt(args[1]);
+        DayIndexWriter writer = new DayIndexWriter(firstYear, lastYear);
+        for (int i = 3; i < args.length; ++i)
+        {
+            IcsReader reader = new IcsReader(new InputStreamReader(new FileInputStream(args[i]), "UTF-8"));
+            try
+            {
+                compile(reader, writer, firstYear, lastYear);
+            }
+            finally
+            {
+                reader.close();
+            }
+        }
+
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(args[2]));
+        try
+        {
+            writer.writeTo(out);
+        }
+        finally
+        {
+            out.close();
+        }
+    }
+
+
+    /**
+     * Adds all events of the given {@link IcsReader} within the given years to the given {@link DayIndexWriter}.
+     *
+     * @param reader
+     *         The {@link IcsReader} to read the events from.
+     * @param writer
+     *         The {@link DayIndexWriter} to add the events to.
+     * @param firstYear
+     *         The first year to expand recurring events in.
+     * @param lastYear
+     *         The last year to expand recurring events in (inclusive).
+     *
+     * @throws IOException
+     *         If the events could not be read.
+     */
+    public static void compile(IcsReader reader, DayIndexWriter writer, int firstYear, int lastYear) throws IOException
+    {
+        while (reader.next())
+        {
+            DateTime start = reader.start();
+            if (reader.rule() == null)
+            {
+                add(writer, start, reader.duration(), reader.title());
+                continue;
+            }
+
+            RecurrenceRuleIterator iterator;
+            try
+            {
+                iterator = new RecurrenceRule(reader.rule()).iterator(start);
+            }
+            catch (InvalidRecurrenceRuleException e)
+            {
+                System.err.println("Ignoring invalid recurrence rule " + reader.rule() + " of " + reader.title());
+                add(writer, start, reader.duration(), reader.title());
+                continue;
+            }
+
+            // start a year early, so long instances reaching into the first year are not lost
+            iterator.fastForward(new DateTime(DateTime.UTC, firstYear - 1, 0, 1, 0, 0, 0).getTimestamp());
+            while (iterator.hasNext())
+            {
+                DateTime instance = iterator.nextDateTime();
+                if (instance.getYear() > lastYear)
+                {
+                    break;
+                }
+                if (reader.isExcluded(instance))
+                {
+                    continue;
+                }
+                add(writer, instance, reader.duration(), reader.title());
+            }
+        }
+    }
+
+
+    private static void add(DayIndexWriter writer, DateTime start, Duration duration, String title)
+    {
+        int day = PackedDay.of(start);
+        DateTime end = start.addDuration(duration);
+        int lastDay = PackedDay.of(end);
+        if (lastDay > day && (end.isAllDay() || end.getHours() == 0 && end.getMinutes() == 0 && end.getSeconds() == 0))
+        {
+            // the end is exclusive
+            lastDay = PackedDay.previous(lastDay);
+        }
+        writer.add(day, title);
+        while (day < lastDay)
+        {
+            day = PackedDay.next(day);
+            writer.add(day, title);
+        }
+    }
+
+
+    private DayIndexCompiler()
+    {
+    }
+}